@@ -0,0 +1,49 @@
+package com.example.contactparser.benchmark;
+
+public final class ContactDocuments {
+
+    private static final String[] NAMES = {"John", "Jane", "Mary", "David", "Anna", "Peter", "Laura", "Omar"};
+    private static final String[] LAST_NAMES = {"DOE", "SMITH", "JANE", "FRALEY", "MILLER", "GARCIA", "NGUYEN"};
+
+    private ContactDocuments() {
+    }
+
+    public static String generate(int rootContacts, int depth, int fanOut) {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<contacts>\n");
+        int[] nextId = {0};
+
+        for (int i = 0; i < rootContacts; i++) {
+            appendContact(xml, nextId, 1, depth, fanOut, "    ");
+        }
+
+        return xml.append("</contacts>\n").toString();
+    }
+
+    public static int contactsPerRoot(int depth, int fanOut) {
+        int total = 0;
+        int level = 1;
+        for (int i = 0; i < depth; i++) {
+            total += level;
+            level *= fanOut;
+        }
+        return total;
+    }
+
+    private static void appendContact(StringBuilder xml, int[] nextId, int level, int depth, int fanOut, String indent) {
+        int id = nextId[0]++;
+
+        xml.append(indent).append("<contact id=\"").append(id).append("\">\n")
+                .append(indent).append("    <name>").append(NAMES[id % NAMES.length]).append("</name>\n")
+                .append(indent).append("    <lastName>").append(LAST_NAMES[id % LAST_NAMES.length]).append("</lastName>\n");
+
+        if (level < depth) {
+            xml.append(indent).append("    <contacts>\n");
+            for (int i = 0; i < fanOut; i++) {
+                appendContact(xml, nextId, level + 1, depth, fanOut, indent + "        ");
+            }
+            xml.append(indent).append("    </contacts>\n");
+        }
+
+        xml.append(indent).append("</contact>\n");
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.contactparser.benchmark;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ContactJsonWriter;
+import com.example.contactparser.service.ContactXmlParserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactJsonBenchmark {
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private interface BeanSerialization {
+    }
+
+    @Param({"100", "10000"})
+    public int rootContacts;
+
+    @Param({"1", "3"})
+    public int depth;
+
+    @Param({"2", "8"})
+    public int fanOut;
+
+    private final ObjectMapper beanMapper = new ObjectMapper().addMixIn(Contact.class, BeanSerialization.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Contact> contacts;
+
+    @State(Scope.Benchmark)
+    public static class DeepTree {
+
+        @Param({"400"})
+        public int chainDepth;
+
+        private List<Contact> contacts;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            contacts = parse(ContactDocuments.generate(1, chainDepth, 1));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contacts = parse(ContactDocuments.generate(rootContacts, depth, fanOut));
+    }
+
+    private static List<Contact> parse(String xml) {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getContentCache().setEnabled(false);
+        properties.getFileCache().setEnabled(false);
+        ContactXmlParserService service = new ContactXmlParserService(properties);
+        try {
+            return service.parseFromContent(xml);
+        } finally {
+            try {
+                service.shutdown();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Benchmark
+    public void beanSerializer() throws Exception {
+        beanMapper.writeValue(OutputStream.nullOutputStream(), contacts);
+    }
+
+    @Benchmark
+    public void objectMapper() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), contacts);
+    }
+
+    @Benchmark
+    public void contactJsonWriter() throws Exception {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            ContactJsonWriter.write(generator, contacts);
+        }
+    }
+
+    @Benchmark
+    public void deepBeanSerializer(DeepTree tree) throws Exception {
+        beanMapper.writeValue(OutputStream.nullOutputStream(), tree.contacts);
+    }
+
+    @Benchmark
+    public void deepContactJsonWriter(DeepTree tree) throws Exception {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            ContactJsonWriter.write(generator, tree.contacts);
+        }
+    }
+}
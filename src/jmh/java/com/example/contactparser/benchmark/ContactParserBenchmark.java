@@ -0,0 +1,88 @@
+package com.example.contactparser.benchmark;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.model.Contact;
+import com.example.contactparser.service.ContactXmlParserService;
+import com.example.contactparser.service.ParserEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactParserBenchmark {
+
+    @Param({"100", "10000"})
+    public int rootContacts;
+
+    @Param({"1", "3"})
+    public int depth;
+
+    @Param({"2", "8"})
+    public int fanOut;
+
+    @Param({"SAX", "STAX"})
+    public ParserEngine engine;
+
+    @Param({"false"})
+    public boolean contentCache;
+
+    private ContactXmlParserService service;
+    private String xml;
+    private byte[] xmlBytes;
+    private Path xmlFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getContentCache().setEnabled(contentCache);
+        properties.getFileCache().setEnabled(false);
+        service = new ContactXmlParserService(properties);
+        xml = ContactDocuments.generate(rootContacts, depth, fanOut);
+        xmlBytes = xml.getBytes(StandardCharsets.UTF_8);
+        xmlFile = Files.createTempFile("contacts-benchmark", ".xml");
+        Files.write(xmlFile, xmlBytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        service.shutdown();
+        Files.deleteIfExists(xmlFile);
+    }
+
+    @Benchmark
+    public List<Contact> parseFromContent() {
+        return service.parseFromContent(xml, engine);
+    }
+
+    @Benchmark
+    public List<Contact> parseFromInputStream() {
+        return service.parseFromInputStream(new ByteArrayInputStream(xmlBytes), engine);
+    }
+
+    @Benchmark
+    public List<Contact> parseFile() throws Exception {
+        return service.parse(xmlFile.toString(), engine);
+    }
+}
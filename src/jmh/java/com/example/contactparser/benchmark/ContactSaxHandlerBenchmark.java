@@ -0,0 +1,62 @@
+package com.example.contactparser.benchmark;
+
+import com.example.contactparser.handler.ContactSaxHandler;
+import com.example.contactparser.model.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactSaxHandlerBenchmark {
+
+    @Param({"100", "10000"})
+    public int rootContacts;
+
+    @Param({"1", "3"})
+    public int depth;
+
+    @Param({"2", "8"})
+    public int fanOut;
+
+    private String xml;
+    private SAXParser saxParser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        xml = ContactDocuments.generate(rootContacts, depth, fanOut);
+
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(false);
+        factory.setValidating(false);
+        saxParser = factory.newSAXParser();
+    }
+
+    @Benchmark
+    public List<Contact> handle() throws Exception {
+        ContactSaxHandler handler = new ContactSaxHandler();
+        saxParser.parse(new InputSource(new StringReader(xml)), handler);
+        saxParser.reset();
+        return handler.getRootContacts();
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.contactparser.benchmark;
+
+import com.example.contactparser.ContactParserApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public final class UploadLoadGenerator {
+
+    private static final String BOUNDARY = "----contact-parser-load";
+
+    private UploadLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "400"));
+        int serverThreads = Integer.parseInt(options.getOrDefault("serverThreads", "50"));
+        int rootContacts = Integer.parseInt(options.getOrDefault("rootContacts", "500"));
+        int uploadChunks = Integer.parseInt(options.getOrDefault("uploadChunks", "20"));
+        long chunkDelayMillis = Long.parseLong(options.getOrDefault("chunkDelayMillis", "50"));
+        int socketBuffer = Integer.parseInt(options.getOrDefault("socketBuffer", "8192"));
+
+        byte[] request = uploadRequest(ContactDocuments.generate(rootContacts, 2, 2).getBytes(StandardCharsets.UTF_8));
+
+        System.out.printf("clients=%d, serverThreads=%d, request=%d bytes, upload time per client=%d ms, socket buffers=%d bytes%n",
+                clients, serverThreads, request.length, uploadChunks * chunkDelayMillis, socketBuffer);
+        System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "mode", "ok", "failed", "wall ms", "p50 ms", "p99 ms");
+
+        for (String mode : List.of("platform", "virtual")) {
+            Result result = run(mode, serverThreads, socketBuffer, clients, request, uploadChunks, chunkDelayMillis);
+            System.out.printf("%-10s %10d %10d %10d %10d %10d%n",
+                    mode, result.ok, result.failed, result.wallMillis, result.percentile(0.50), result.percentile(0.99));
+        }
+    }
+
+    private static Result run(String mode, int serverThreads, int socketBuffer, int clients, byte[] request,
+                              int uploadChunks, long chunkDelayMillis) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ContactParserApplication.class, SmallSocketBuffers.class)
+                .properties(
+                        "load.socket-buffer=" + socketBuffer,
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + serverThreads,
+                        "server.tomcat.accept-count=" + clients,
+                        "spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run()) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+
+            sendUpload(port, socketBuffer, request, 1, 0);
+
+            long start = System.nanoTime();
+            List<Future<Long>> futures = new ArrayList<>(clients);
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().daemon().factory())) {
+                for (int i = 0; i < clients; i++) {
+                    futures.add(executor.submit(() -> sendUpload(port, socketBuffer, request, uploadChunks, chunkDelayMillis)));
+                }
+            }
+            long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+            Result result = new Result(wallMillis);
+            for (Future<Long> future : futures) {
+                try {
+                    result.add(future.get());
+                } catch (Exception e) {
+                    result.failed++;
+                }
+            }
+            return result;
+        }
+    }
+
+    private static long sendUpload(int port, int socketBuffer, byte[] request, int chunks, long chunkDelayMillis)
+            throws Exception {
+        long start = System.nanoTime();
+        try (Socket socket = new Socket()) {
+            socket.setSendBufferSize(socketBuffer);
+            socket.connect(new InetSocketAddress("localhost", port));
+            socket.setSoTimeout(120_000);
+            OutputStream out = socket.getOutputStream();
+
+            int chunkSize = (request.length + chunks - 1) / chunks;
+            for (int offset = 0; offset < request.length; offset += chunkSize) {
+                out.write(request, offset, Math.min(chunkSize, request.length - offset));
+                out.flush();
+                if (chunkDelayMillis > 0) {
+                    Thread.sleep(chunkDelayMillis);
+                }
+            }
+
+            String statusLine = readStatusLine(socket.getInputStream());
+            if (!statusLine.contains(" 200 ")) {
+                throw new IOException("Unexpected response: " + statusLine);
+            }
+            socket.getInputStream().transferTo(OutputStream.nullOutputStream());
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static String readStatusLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.append((char) b);
+        }
+        return line.toString();
+    }
+
+    private static byte[] uploadRequest(byte[] xml) {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"contacts.xml\"\r\n"
+                + "Content-Type: application/xml\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        int bodyLength = head.length + xml.length + tail.length;
+
+        byte[] headers = ("POST /api/parse/upload HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Content-Type: multipart/form-data; boundary=" + BOUNDARY + "\r\n"
+                + "Content-Length: " + bodyLength + "\r\n"
+                + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        byte[] request = Arrays.copyOf(headers, headers.length + bodyLength);
+        System.arraycopy(head, 0, request, headers.length, head.length);
+        System.arraycopy(xml, 0, request, headers.length + head.length, xml.length);
+        System.arraycopy(tail, 0, request, headers.length + head.length + xml.length, tail.length);
+        return request;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    // Small buffers on both ends stop a client from running ahead of the server, so an upload keeps its
+    // request thread busy for as long as it is on the wire, the way a slow WAN client does.
+    @Configuration(proxyBeanMethods = false)
+    static class SmallSocketBuffers {
+
+        @Bean
+        TomcatConnectorCustomizer smallReceiveBuffer(Environment environment) {
+            String size = environment.getProperty("load.socket-buffer");
+            return connector -> connector.setProperty("socket.rxBufSize", size);
+        }
+    }
+
+    private static final class Result {
+
+        private final long wallMillis;
+        private final List<Long> latencies = new ArrayList<>();
+        private int ok;
+        private int failed;
+
+        private Result(long wallMillis) {
+            this.wallMillis = wallMillis;
+        }
+
+        private void add(long latencyMillis) {
+            latencies.add(latencyMillis);
+            ok++;
+        }
+
+        private long percentile(double percentile) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            List<Long> sorted = new ArrayList<>(latencies);
+            sorted.sort(null);
+            return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1));
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package com.example.contactparser;
 
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.model.ContactJsonWriter;
 import com.example.contactparser.service.ContactXmlParserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 
 @SpringBootApplication
+@EnableConfigurationProperties(ContactParserProperties.class)
 public class ContactParserApplication implements CommandLineRunner {
 
     private final ContactXmlParserService parserService;
+    private final ContactParserProperties properties;
+    private final ObjectMapper objectMapper;
 
-    public ContactParserApplication(ContactXmlParserService parserService) {
+    public ContactParserApplication(ContactXmlParserService parserService, ContactParserProperties properties,
+                                    ObjectMapper objectMapper) {
         this.parserService = parserService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
     }
 
     public static void main(String[] args) {
@@ -20,15 +35,29 @@ public class ContactParserApplication implements CommandLineRunner {
 
     @Override
     public void run(String... args) {
+        String filePath = Arrays.stream(args)
+                .filter(arg -> !arg.startsWith("--"))
+                .findFirst()
+                .orElse(null);
 
-        if (args.length == 0) {
-            System.err.println("Please provide XML file path");
+        if (filePath == null) {
+            if (!properties.getIngest().isEnabled()) {
+                System.err.println("Please provide XML file path");
+            }
             return;
         }
 
-        try {
-            parserService.parse(args[0])
-                    .forEach(System.out::println);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(System.out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            parserService.stream(filePath, contact -> {
+                try {
+                    ContactJsonWriter.write(generator, contact);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
         } catch (Exception e) {
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,524 @@
+package com.example.contactparser.config;
+
+import com.example.contactparser.service.ParserEngine;
+import com.example.contactparser.service.SessionStorage;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "contact-parser")
+public class ContactParserProperties {
+
+    private ParserEngine engine = ParserEngine.SAX;
+    private final SaxPool saxPool = new SaxPool();
+    private final StringDictionary stringDictionary = new StringDictionary();
+    private final Parallel parallel = new Parallel();
+    private final MappedInput mappedInput = new MappedInput();
+    private final Jobs jobs = new Jobs();
+    private final ContentCache contentCache = new ContentCache();
+    private final FileCache fileCache = new FileCache();
+    private final Snapshots snapshots = new Snapshots();
+    private final Ingest ingest = new Ingest();
+    private final Batch batch = new Batch();
+    private final Sessions sessions = new Sessions();
+    private final Limits limits = new Limits();
+
+    public ParserEngine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(ParserEngine engine) {
+        this.engine = engine;
+    }
+
+    public SaxPool getSaxPool() {
+        return saxPool;
+    }
+
+    public StringDictionary getStringDictionary() {
+        return stringDictionary;
+    }
+
+    public Parallel getParallel() {
+        return parallel;
+    }
+
+    public MappedInput getMappedInput() {
+        return mappedInput;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public ContentCache getContentCache() {
+        return contentCache;
+    }
+
+    public FileCache getFileCache() {
+        return fileCache;
+    }
+
+    public Snapshots getSnapshots() {
+        return snapshots;
+    }
+
+    public Ingest getIngest() {
+        return ingest;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Sessions getSessions() {
+        return sessions;
+    }
+
+    public Limits getLimits() {
+        return limits;
+    }
+
+    public static class SaxPool {
+
+        private int maxSize = Runtime.getRuntime().availableProcessors() * 2;
+        private Duration borrowTimeout = Duration.ZERO;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getBorrowTimeout() {
+            return borrowTimeout;
+        }
+
+        public void setBorrowTimeout(Duration borrowTimeout) {
+            this.borrowTimeout = borrowTimeout;
+        }
+    }
+
+    public static class StringDictionary {
+
+        private boolean enabled = true;
+        private boolean shared = false;
+        private int maxEntries = 65536;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isShared() {
+            return shared;
+        }
+
+        public void setShared(boolean shared) {
+            this.shared = shared;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class Parallel {
+
+        private boolean enabled = false;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private DataSize chunkSize = DataSize.ofMegabytes(4);
+        private DataSize minFileSize = DataSize.ofMegabytes(16);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public DataSize getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(DataSize chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public DataSize getMinFileSize() {
+            return minFileSize;
+        }
+
+        public void setMinFileSize(DataSize minFileSize) {
+            this.minFileSize = minFileSize;
+        }
+    }
+
+    public static class MappedInput {
+
+        private boolean enabled = false;
+        private DataSize windowSize = DataSize.ofMegabytes(256);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(DataSize windowSize) {
+            this.windowSize = windowSize;
+        }
+    }
+
+    public static class Jobs {
+
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private int queueCapacity = 32;
+        private Duration resultTtl = Duration.ofMinutes(15);
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getResultTtl() {
+            return resultTtl;
+        }
+
+        public void setResultTtl(Duration resultTtl) {
+            this.resultTtl = resultTtl;
+        }
+    }
+
+    public static class Batch {
+
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int maxItems = 64;
+        private int queueCapacity = 256;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class Sessions {
+
+        private Duration ttl = Duration.ofMinutes(10);
+        private DataSize maxSessionSize = DataSize.ofMegabytes(64);
+        private DataSize maxTotalSize = DataSize.ofMegabytes(512);
+        private int defaultPageSize = 100;
+        private int maxPageSize = 1000;
+        private SessionStorage storage = SessionStorage.HEAP;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public DataSize getMaxSessionSize() {
+            return maxSessionSize;
+        }
+
+        public void setMaxSessionSize(DataSize maxSessionSize) {
+            this.maxSessionSize = maxSessionSize;
+        }
+
+        public DataSize getMaxTotalSize() {
+            return maxTotalSize;
+        }
+
+        public void setMaxTotalSize(DataSize maxTotalSize) {
+            this.maxTotalSize = maxTotalSize;
+        }
+
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+
+        public SessionStorage getStorage() {
+            return storage;
+        }
+
+        public void setStorage(SessionStorage storage) {
+            this.storage = storage;
+        }
+    }
+
+    public static class Snapshots {
+
+        private boolean enabled = false;
+        private String suffix = ".snapshot";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getSuffix() {
+            return suffix;
+        }
+
+        public void setSuffix(String suffix) {
+            this.suffix = suffix;
+        }
+    }
+
+    public static class Limits {
+
+        // Every limit is off (0) unless an operator sets it.
+        private DataSize maxInputSize = DataSize.ofBytes(0);
+        private int maxDepth;
+        private long maxContacts;
+        private int maxTextLength;
+
+        public DataSize getMaxInputSize() {
+            return maxInputSize;
+        }
+
+        public void setMaxInputSize(DataSize maxInputSize) {
+            this.maxInputSize = maxInputSize;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public void setMaxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+        }
+
+        public long getMaxContacts() {
+            return maxContacts;
+        }
+
+        public void setMaxContacts(long maxContacts) {
+            this.maxContacts = maxContacts;
+        }
+
+        public int getMaxTextLength() {
+            return maxTextLength;
+        }
+
+        public void setMaxTextLength(int maxTextLength) {
+            this.maxTextLength = maxTextLength;
+        }
+    }
+
+    public static class ContentCache {
+
+        private boolean enabled = false;
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class FileCache {
+
+        private boolean enabled = true;
+        private DataSize maxSize = DataSize.ofMegabytes(128);
+        private boolean watch = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public boolean isWatch() {
+            return watch;
+        }
+
+        public void setWatch(boolean watch) {
+            this.watch = watch;
+        }
+    }
+
+    public static class Ingest {
+
+        private boolean enabled = false;
+        private Path inbox;
+        private Path outputDirectory;
+        private Path processedDirectory;
+        private Path failedDirectory;
+        private String filePattern = "*.xml";
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private Duration settleTime = Duration.ofMillis(500);
+        private Duration rescanInterval = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getInbox() {
+            return inbox;
+        }
+
+        public void setInbox(Path inbox) {
+            this.inbox = inbox;
+        }
+
+        public Path getOutputDirectory() {
+            return outputDirectory != null ? outputDirectory : resolveInInbox("out");
+        }
+
+        public void setOutputDirectory(Path outputDirectory) {
+            this.outputDirectory = outputDirectory;
+        }
+
+        public Path getProcessedDirectory() {
+            return processedDirectory != null ? processedDirectory : resolveInInbox("processed");
+        }
+
+        public void setProcessedDirectory(Path processedDirectory) {
+            this.processedDirectory = processedDirectory;
+        }
+
+        public Path getFailedDirectory() {
+            return failedDirectory != null ? failedDirectory : resolveInInbox("failed");
+        }
+
+        public void setFailedDirectory(Path failedDirectory) {
+            this.failedDirectory = failedDirectory;
+        }
+
+        public String getFilePattern() {
+            return filePattern;
+        }
+
+        public void setFilePattern(String filePattern) {
+            this.filePattern = filePattern;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public Duration getSettleTime() {
+            return settleTime;
+        }
+
+        public void setSettleTime(Duration settleTime) {
+            this.settleTime = settleTime;
+        }
+
+        public Duration getRescanInterval() {
+            return rescanInterval;
+        }
+
+        public void setRescanInterval(Duration rescanInterval) {
+            this.rescanInterval = rescanInterval;
+        }
+
+        private Path resolveInInbox(String name) {
+            return inbox != null ? inbox.resolve(name) : null;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.contactparser.config;
+
+import com.fasterxml.jackson.core.StreamWriteConstraints;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfiguration {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer contactTreeWriteConstraints(ContactParserProperties properties) {
+        StreamWriteConstraints constraints = writeConstraints(properties.getLimits());
+        return builder -> builder.postConfigurer(mapper -> mapper.getFactory().setStreamWriteConstraints(constraints));
+    }
+
+    // Each contact level adds an object and its "contacts" array, so a tree that passed the
+    // parse depth limit can be twice as deep in JSON.
+    static StreamWriteConstraints writeConstraints(ContactParserProperties.Limits limits) {
+        int maxNestingDepth = limits.getMaxDepth() > 0
+                ? Math.max(StreamWriteConstraints.DEFAULT_MAX_DEPTH, limits.getMaxDepth() * 2 + 8)
+                : Integer.MAX_VALUE;
+        return StreamWriteConstraints.builder().maxNestingDepth(maxNestingDepth).build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.contactparser.controller;
+
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.service.BatchParseService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/parse/batch")
+public class BatchParseController {
+
+    private final BatchParseService batchService;
+
+    public BatchParseController(BatchParseService batchService) {
+        this.batchService = batchService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> parsePaths(@RequestBody Map<String, List<String>> request) {
+        List<String> filePaths = request.get("filePaths");
+        return parse(pathItems(filePaths));
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> parseUploads(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "filePath", required = false) List<String> filePaths) {
+        List<BatchParseService.Item> items = new ArrayList<>();
+        if (files != null) {
+            for (MultipartFile file : files) {
+                items.add(BatchParseService.Item.upload(file.getOriginalFilename(), file));
+            }
+        }
+        items.addAll(pathItems(filePaths));
+        return parse(items);
+    }
+
+    private ResponseEntity<Map<String, Object>> parse(List<BatchParseService.Item> items) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<BatchParseService.Result> results = batchService.parseAll(items);
+            List<Map<String, Object>> itemResponses = new ArrayList<>(results.size());
+            int succeeded = 0;
+            for (int i = 0; i < results.size(); i++) {
+                BatchParseService.Result result = results.get(i);
+                itemResponses.add(describe(i, result));
+                if (result.isSuccess()) {
+                    succeeded++;
+                }
+            }
+
+            response.put("success", true);
+            response.put("results", itemResponses);
+            response.put("count", results.size());
+            response.put("succeeded", succeeded);
+            response.put("failed", results.size() - succeeded);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("errorType", "VALIDATION_ERROR");
+            return ResponseEntity.badRequest().body(response);
+        } catch (RejectedExecutionException e) {
+            response.put("success", false);
+            response.put("error", "The batch parse queue is full. Please retry later.");
+            response.put("errorType", "QUEUE_FULL");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            response.put("success", false);
+            response.put("error", "An unexpected error occurred: " + e.getMessage());
+            response.put("errorType", "INTERNAL_ERROR");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private static Map<String, Object> describe(int index, BatchParseService.Result result) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("index", index);
+        item.put("source", result.source());
+        item.put("success", result.isSuccess());
+
+        if (result.isSuccess()) {
+            item.put("contacts", result.contacts());
+            item.put("count", result.contacts().size());
+        } else if (result.error() instanceof XmlParsingException e) {
+            item.put("error", e.getMessage());
+            item.put("errorType", e.getErrorType());
+            if (e.getLineNumber() != null) {
+                item.put("lineNumber", e.getLineNumber());
+            }
+            if (e.getColumnNumber() != null) {
+                item.put("columnNumber", e.getColumnNumber());
+            }
+        } else if (result.error() instanceof FileNotFoundException e) {
+            item.put("error", e.getMessage());
+            item.put("errorType", "FILE_NOT_FOUND");
+        } else if (result.error() instanceof IllegalArgumentException e) {
+            item.put("error", e.getMessage());
+            item.put("errorType", "VALIDATION_ERROR");
+        } else {
+            item.put("error", "An unexpected error occurred: " + result.error().getMessage());
+            item.put("errorType", "INTERNAL_ERROR");
+        }
+        return item;
+    }
+
+    private static List<BatchParseService.Item> pathItems(List<String> filePaths) {
+        List<BatchParseService.Item> items = new ArrayList<>();
+        if (filePaths != null) {
+            for (String filePath : filePaths) {
+                items.add(BatchParseService.Item.path(filePath));
+            }
+        }
+        return items;
+    }
+}
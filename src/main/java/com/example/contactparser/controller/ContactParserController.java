@@ -1,40 +1,76 @@
 package com.example.contactparser.controller;
 
 import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.handler.ContactProjection;
 import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ContactTreeCodec;
 import com.example.contactparser.service.ContactXmlParserService;
+import com.example.contactparser.service.ContentResultCache;
+import com.example.contactparser.service.FileResultCache;
+import com.example.contactparser.service.ParseOptions;
+import com.example.contactparser.service.SaxParserPool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api")
 public class ContactParserController {
 
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+    private static final MediaType CONTACT_TREE = MediaType.parseMediaType(ContactTreeCodec.MEDIA_TYPE);
+
     private final ContactXmlParserService parserService;
+    private final ObjectMapper objectMapper;
 
-    public ContactParserController(ContactXmlParserService parserService) {
+    public ContactParserController(ContactXmlParserService parserService, ObjectMapper objectMapper) {
         this.parserService = parserService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/parse")
-    public ResponseEntity<Map<String, Object>> parseXml(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> parseXml(@RequestBody Map<String, String> request,
+                                      @RequestParam(value = "maxDepth", required = false) Integer maxDepth,
+                                      @RequestParam(value = "fields", required = false) List<String> fields,
+                                      @RequestParam(value = "ids", required = false) List<String> ids,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return negotiate(accept, parseXml(request, new ProjectionParams(maxDepth, fields, ids)));
+    }
+
+    private ResponseEntity<Map<String, Object>> parseXml(Map<String, String> request, ProjectionParams projection) {
         String filePath = request.get("filePath");
         String xmlContent = request.get("xmlContent");
         Map<String, Object> response = new HashMap<>();
 
         try {
             List<Contact> contacts;
+            ParseOptions options = projection.toOptions();
 
             if (xmlContent != null && !xmlContent.trim().isEmpty()) {
-                contacts = parserService.parseFromContent(xmlContent);
+                contacts = options != null
+                        ? parserService.parseFromContent(xmlContent, options).contacts()
+                        : parserService.parseFromContent(xmlContent);
             } else if (filePath != null && !filePath.trim().isEmpty()) {
-                contacts = parserService.parse(filePath);
+                contacts = options != null
+                        ? parserService.parse(filePath, options).contacts()
+                        : parserService.parse(filePath);
             } else {
                 response.put("success", false);
                 response.put("error", "Either file path or XML content is required");
@@ -69,8 +105,59 @@ public class ContactParserController {
         }
     }
 
+    @PostMapping(value = "/parse", consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE})
+    public ResponseEntity<?> parseXmlBody(HttpServletRequest request,
+                                          @RequestParam(value = "maxDepth", required = false) Integer maxDepth,
+                                          @RequestParam(value = "fields", required = false) List<String> fields,
+                                          @RequestParam(value = "ids", required = false) List<String> ids,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return negotiate(accept, parseXmlBody(request, new ProjectionParams(maxDepth, fields, ids)));
+    }
+
+    private ResponseEntity<Map<String, Object>> parseXmlBody(HttpServletRequest request, ProjectionParams projection) {
+        Map<String, Object> response = new HashMap<>();
+
+        try (InputStream body = request.getInputStream()) {
+            List<Contact> contacts = parserService.parseFromInputStream(body, xmlBodyOptions(request, projection)).contacts();
+            response.put("success", true);
+            response.put("contacts", contacts);
+            response.put("count", contacts.size());
+            return ResponseEntity.ok(response);
+        } catch (XmlParsingException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("errorType", e.getErrorType());
+            if (e.getLineNumber() != null) {
+                response.put("lineNumber", e.getLineNumber());
+            }
+            if (e.getColumnNumber() != null) {
+                response.put("columnNumber", e.getColumnNumber());
+            }
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("errorType", "VALIDATION_ERROR");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", "An unexpected error occurred: " + e.getMessage());
+            response.put("errorType", "INTERNAL_ERROR");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @PostMapping("/parse/upload")
-    public ResponseEntity<Map<String, Object>> parseXmlFile(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> parseXmlFile(@RequestParam("file") MultipartFile file, HttpServletRequest request,
+                                          @RequestParam(value = "maxDepth", required = false) Integer maxDepth,
+                                          @RequestParam(value = "fields", required = false) List<String> fields,
+                                          @RequestParam(value = "ids", required = false) List<String> ids,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return negotiate(accept, parseXmlFile(file, request, new ProjectionParams(maxDepth, fields, ids)));
+    }
+
+    private ResponseEntity<Map<String, Object>> parseXmlFile(MultipartFile file, HttpServletRequest request,
+                                                             ProjectionParams projection) {
         Map<String, Object> response = new HashMap<>();
 
         if (file.isEmpty()) {
@@ -80,7 +167,14 @@ public class ContactParserController {
         }
 
         try {
-            List<Contact> contacts = parserService.parseFromInputStream(file.getInputStream());
+            List<Contact> contacts;
+            ParseOptions options = projection.toOptions();
+            if (options != null) {
+                options.setContentEncoding(contentEncodingOf(request, file));
+                contacts = parserService.parseFromInputStream(file.getInputStream(), options).contacts();
+            } else {
+                contacts = parserService.parseFromInputStream(file.getInputStream(), contentEncodingOf(request, file));
+            }
             response.put("success", true);
             response.put("contacts", contacts);
             response.put("count", contacts.size());
@@ -109,4 +203,196 @@ public class ContactParserController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    @GetMapping("/parse/pool")
+    public ResponseEntity<SaxParserPool.Stats> saxParserPoolStats() {
+        return ResponseEntity.ok(parserService.getSaxParserPoolStats());
+    }
+
+    @GetMapping("/parse/cache")
+    public ResponseEntity<ContentResultCache.Stats> contentCacheStats() {
+        ContentResultCache.Stats stats = parserService.getContentCacheStats();
+        return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/parse/file-cache")
+    public ResponseEntity<FileResultCache.Stats> fileCacheStats() {
+        FileResultCache.Stats stats = parserService.getFileCacheStats();
+        return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping(value = "/parse/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void streamXml(@RequestBody Map<String, String> request, HttpServletResponse response) throws IOException {
+        String filePath = request.get("filePath");
+        String xmlContent = request.get("xmlContent");
+
+        if (xmlContent != null && !xmlContent.trim().isEmpty()) {
+            streamContacts(response, writer -> parserService.streamFromContent(xmlContent, writer));
+        } else if (filePath != null && !filePath.trim().isEmpty()) {
+            streamContacts(response, writer -> parserService.stream(filePath, writer));
+        } else {
+            writeBadRequest(response, "Either file path or XML content is required");
+        }
+    }
+
+    @PostMapping(value = "/parse/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public void streamXmlFile(@RequestParam("file") MultipartFile file, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        if (file.isEmpty()) {
+            writeBadRequest(response, "File is empty");
+            return;
+        }
+
+        String contentEncoding = contentEncodingOf(request, file);
+        streamContacts(response, writer -> {
+            try (InputStream inputStream = file.getInputStream()) {
+                return parserService.streamFromInputStream(inputStream, contentEncoding, writer);
+            }
+        });
+    }
+
+    @PostMapping(value = "/parse/stream", consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE})
+    public void streamXmlBody(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        streamContacts(response, writer -> {
+            try (InputStream body = request.getInputStream()) {
+                return parserService.streamFromInputStream(body, xmlBodyOptions(request, ProjectionParams.NONE), writer);
+            }
+        });
+    }
+
+    // Raw XML bodies go straight from the request stream to the parser, so the root element is checked on a prefix.
+    private static ParseOptions xmlBodyOptions(HttpServletRequest request, ProjectionParams projection) {
+        ParseOptions options = projection.toOptions();
+        if (options == null) {
+            options = new ParseOptions();
+        }
+        options.setContentEncoding(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        options.setCheckRootElement(true);
+        return options;
+    }
+
+    private record ProjectionParams(Integer maxDepth, List<String> fields, List<String> ids) {
+
+        static final ProjectionParams NONE = new ProjectionParams(null, null, null);
+
+        ParseOptions toOptions() {
+            if (maxDepth == null && fields == null && ids == null) {
+                return null;
+            }
+            if (maxDepth != null && maxDepth < 0) {
+                throw new IllegalArgumentException("maxDepth must not be negative");
+            }
+            ParseOptions options = new ParseOptions();
+            options.setMaxDepth(maxDepth);
+            if (fields != null) {
+                Set<ContactProjection.Field> projected = EnumSet.noneOf(ContactProjection.Field.class);
+                for (String field : fields) {
+                    projected.add(ContactProjection.Field.of(field.trim()));
+                }
+                options.setFields(projected);
+            }
+            if (ids != null) {
+                options.setIds(Set.copyOf(ids));
+            }
+            return options;
+        }
+    }
+
+    private void streamContacts(HttpServletResponse response, StreamingParse parse) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        response.setCharacterEncoding("UTF-8");
+
+        NdjsonContactWriter writer = new NdjsonContactWriter(objectMapper, response.getOutputStream());
+        Map<String, Object> status = new HashMap<>();
+
+        try {
+            int count = parse.run(writer);
+            status.put("success", true);
+            status.put("count", count);
+        } catch (XmlParsingException e) {
+            status.put("success", false);
+            status.put("error", e.getMessage());
+            status.put("errorType", e.getErrorType());
+            if (e.getLineNumber() != null) {
+                status.put("lineNumber", e.getLineNumber());
+            }
+            if (e.getColumnNumber() != null) {
+                status.put("columnNumber", e.getColumnNumber());
+            }
+        } catch (IllegalArgumentException e) {
+            status.put("success", false);
+            status.put("error", e.getMessage());
+            status.put("errorType", "VALIDATION_ERROR");
+        } catch (Exception e) {
+            status.put("success", false);
+            status.put("error", "An unexpected error occurred: " + e.getMessage());
+            status.put("errorType", "INTERNAL_ERROR");
+        }
+
+        writer.writeStatus(status);
+        writer.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ResponseEntity<?> negotiate(String accept, ResponseEntity<Map<String, Object>> response) {
+        if (!prefersContactTree(accept)) {
+            return response;
+        }
+
+        Map<String, Object> body = response.getBody();
+        if (body != null && Boolean.TRUE.equals(body.get("success")) && body.get("contacts") instanceof List<?> contacts) {
+            return ResponseEntity.status(response.getStatusCode())
+                    .contentType(CONTACT_TREE)
+                    .body(ContactTreeCodec.encode((List<? extends Contact>) contacts));
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static boolean prefersContactTree(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+
+        double treeQuality = 0;
+        double jsonQuality = 0;
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.equalsTypeAndSubtype(CONTACT_TREE)) {
+                    treeQuality = Math.max(treeQuality, mediaType.getQualityValue());
+                } else if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                    jsonQuality = Math.max(jsonQuality, mediaType.getQualityValue());
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return treeQuality > 0 && treeQuality >= jsonQuality;
+    }
+
+    private static String contentEncodingOf(HttpServletRequest request, MultipartFile file) {
+        try {
+            Part part = request.getPart(file.getName());
+            return part != null ? part.getHeader(HttpHeaders.CONTENT_ENCODING) : null;
+        } catch (IOException | ServletException | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private void writeBadRequest(HttpServletResponse response, String error) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", false);
+        body.put("error", error);
+
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    @FunctionalInterface
+    private interface StreamingParse {
+        int run(NdjsonContactWriter writer) throws Exception;
+    }
 }
@@ -0,0 +1,25 @@
+package com.example.contactparser.controller;
+
+import com.example.contactparser.service.InboxIngestionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/ingest")
+@ConditionalOnProperty(prefix = "contact-parser.ingest", name = "enabled", havingValue = "true")
+public class IngestionController {
+
+    private final InboxIngestionService ingestionService;
+
+    public IngestionController(InboxIngestionService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<InboxIngestionService.Stats> stats() {
+        return ResponseEntity.ok(ingestionService.getStats());
+    }
+}
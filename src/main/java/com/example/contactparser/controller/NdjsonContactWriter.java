@@ -0,0 +1,47 @@
+package com.example.contactparser.controller;
+
+import com.example.contactparser.model.Contact;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.Consumer;
+
+class NdjsonContactWriter implements Consumer<Contact> {
+
+    private final ObjectMapper objectMapper;
+    private final JsonGenerator generator;
+
+    NdjsonContactWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.objectMapper = objectMapper;
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        this.generator.setRootValueSeparator(null);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void accept(Contact contact) {
+        try {
+            writeRecord(contact);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void writeStatus(Map<String, Object> status) throws IOException {
+        writeRecord(status);
+    }
+
+    void close() throws IOException {
+        generator.close();
+    }
+
+    private void writeRecord(Object value) throws IOException {
+        objectMapper.writeValue(generator, value);
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.contactparser.controller;
+
+import com.example.contactparser.model.ParseJob;
+import com.example.contactparser.service.ParseJobService;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.Part;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class ParseJobController {
+
+    private final ParseJobService jobService;
+
+    public ParseJobController(ParseJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> submitPath(@RequestBody Map<String, String> request) {
+        String filePath = request.get("filePath");
+
+        if (filePath == null || filePath.trim().isEmpty()) {
+            return badRequest("File path is required", null);
+        }
+
+        return submit(() -> jobService.submitPath(filePath));
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> submitUpload(HttpServletRequest request,
+                                                            @RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return badRequest("File is empty", null);
+        }
+
+        return submit(() -> {
+            try (InputStream inputStream = file.getInputStream()) {
+                return jobService.submitUpload(file.getOriginalFilename(), inputStream, contentEncodingOf(request, file));
+            }
+        });
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String id) {
+        ParseJob job = jobService.getJob(id);
+        if (job == null) {
+            return notFound(id);
+        }
+        return ResponseEntity.ok(describe(job));
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<Map<String, Object>> result(@PathVariable String id) {
+        ParseJob job = jobService.getJob(id);
+        if (job == null) {
+            return notFound(id);
+        }
+
+        Map<String, Object> response = describe(job);
+        switch (job.getStatus()) {
+            case COMPLETED -> {
+                response.put("success", true);
+                response.put("contacts", job.getContacts());
+                response.put("count", job.getContacts().size());
+                return ResponseEntity.ok(response);
+            }
+            case FAILED -> {
+                response.put("success", false);
+                return ResponseEntity.ok(response);
+            }
+            default -> {
+                response.put("success", false);
+                response.put("error", "Job has not finished yet");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> submit(JobSubmission submission) {
+        try {
+            ParseJob job = submission.submit();
+            Map<String, Object> response = describe(job);
+            response.put("statusUrl", "/api/jobs/" + job.getId());
+            response.put("resultUrl", "/api/jobs/" + job.getId() + "/result");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage(), "VALIDATION_ERROR");
+        } catch (RejectedExecutionException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "The parse job queue is full. Please retry later.");
+            response.put("errorType", "QUEUE_FULL");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "An unexpected error occurred: " + e.getMessage());
+            response.put("errorType", "INTERNAL_ERROR");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private Map<String, Object> describe(ParseJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("source", job.getSource());
+        response.put("status", job.getStatus());
+        response.put("submittedAt", job.getSubmittedAt());
+        response.put("startedAt", job.getStartedAt());
+        response.put("completedAt", job.getCompletedAt());
+        response.put("contactsParsed", job.getContactsParsed());
+        response.put("bytesRead", job.getBytesRead());
+        response.put("totalBytes", job.getTotalBytes());
+
+        if (job.getStatus() == ParseJob.Status.FAILED) {
+            response.put("error", job.getError());
+            response.put("errorType", job.getErrorType());
+            if (job.getLineNumber() != null) {
+                response.put("lineNumber", job.getLineNumber());
+            }
+            if (job.getColumnNumber() != null) {
+                response.put("columnNumber", job.getColumnNumber());
+            }
+        }
+        return response;
+    }
+
+    private static String contentEncodingOf(HttpServletRequest request, MultipartFile file) {
+        try {
+            Part part = request.getPart(file.getName());
+            return part != null ? part.getHeader(HttpHeaders.CONTENT_ENCODING) : null;
+        } catch (IOException | ServletException | IllegalStateException e) {
+            return null;
+        }
+    }
+
+        private ResponseEntity<Map<String, Object>> badRequest(String error, String errorType) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", error);
+        if (errorType != null) {
+            response.put("errorType", errorType);
+        }
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> notFound(String id) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", "Job not found or expired: " + id);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    @FunctionalInterface
+    private interface JobSubmission {
+        ParseJob submit() throws Exception;
+    }
+}
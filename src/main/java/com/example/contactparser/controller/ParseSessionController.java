@@ -0,0 +1,189 @@
+package com.example.contactparser.controller;
+
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.model.ParseSession;
+import com.example.contactparser.service.ParseSessionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sessions")
+public class ParseSessionController {
+
+    private final ParseSessionService sessionService;
+
+    public ParseSessionController(ParseSessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> create(@RequestBody Map<String, String> request) {
+        String filePath = request.get("filePath");
+        String xmlContent = request.get("xmlContent");
+
+        if (xmlContent != null && !xmlContent.trim().isEmpty()) {
+            return create(() -> sessionService.createFromContent(xmlContent));
+        } else if (filePath != null && !filePath.trim().isEmpty()) {
+            return create(() -> sessionService.createFromPath(filePath));
+        }
+        return badRequest("Either file path or XML content is required", null);
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> createFromUpload(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return badRequest("File is empty", null);
+        }
+
+        return create(() -> {
+            try (InputStream inputStream = file.getInputStream()) {
+                return sessionService.createFromUpload(file.getOriginalFilename(), inputStream);
+            }
+        });
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String id) {
+        ParseSession session = sessionService.getSession(id);
+        if (session == null) {
+            return notFound(id);
+        }
+        return ResponseEntity.ok(describe(session));
+    }
+
+    @GetMapping("/{id}/contacts")
+    public ResponseEntity<Map<String, Object>> page(@PathVariable String id,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer limit) {
+        ParseSessionService.Page page;
+        try {
+            page = sessionService.getPage(id, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage(), "VALIDATION_ERROR");
+        }
+        if (page == null) {
+            return notFound(id);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("sessionId", id);
+        response.put("offset", page.offset());
+        response.put("contacts", page.contacts());
+        response.put("count", page.contacts().size());
+        response.put("rootCount", page.session().getRootCount());
+        response.put("nextCursor", page.nextCursor());
+        if (page.nextCursor() != null) {
+            response.put("nextUrl", "/api/sessions/" + id + "/contacts?cursor=" + page.nextCursor()
+                    + (limit != null ? "&limit=" + limit : ""));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/search")
+    public ResponseEntity<Map<String, Object>> search(@PathVariable String id,
+                                                      @RequestParam(name = "id", required = false) String contactId,
+                                                      @RequestParam(required = false) String name,
+                                                      @RequestParam(required = false) String lastName,
+                                                      @RequestParam(required = false) Integer limit) {
+        ParseSessionService.SearchResult result;
+        try {
+            result = sessionService.search(id, new ParseSessionService.Search(contactId, name, lastName), limit);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage(), "VALIDATION_ERROR");
+        }
+        if (result == null) {
+            return notFound(id);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("sessionId", id);
+        response.put("contacts", result.contacts());
+        response.put("count", result.contacts().size());
+        response.put("truncated", result.truncated());
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        return sessionService.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<Map<String, Object>> create(SessionCreation creation) {
+        try {
+            ParseSession session = creation.create();
+            Map<String, Object> response = describe(session);
+            response.put("success", true);
+            response.put("contactsUrl", "/api/sessions/" + session.getId() + "/contacts");
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (XmlParsingException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("errorType", e.getErrorType());
+            if (e.getLineNumber() != null) {
+                response.put("lineNumber", e.getLineNumber());
+            }
+            if (e.getColumnNumber() != null) {
+                response.put("columnNumber", e.getColumnNumber());
+            }
+            HttpStatus status = "SESSION_TOO_LARGE".equals(e.getErrorType())
+                    ? HttpStatus.PAYLOAD_TOO_LARGE
+                    : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(response);
+        } catch (FileNotFoundException e) {
+            return badRequest(e.getMessage(), "FILE_NOT_FOUND");
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage(), "VALIDATION_ERROR");
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "An unexpected error occurred: " + e.getMessage());
+            response.put("errorType", "INTERNAL_ERROR");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private Map<String, Object> describe(ParseSession session) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("sessionId", session.getId());
+        response.put("source", session.getSource());
+        response.put("rootCount", session.getRootCount());
+        response.put("contactCount", session.getContactCount());
+        response.put("retainedBytes", session.getRetainedBytes());
+        response.put("createdAt", session.getCreatedAt());
+        response.put("lastAccessedAt", session.getLastAccessedAt());
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> badRequest(String error, String errorType) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", error);
+        if (errorType != null) {
+            response.put("errorType", errorType);
+        }
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> notFound(String id) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", "Session not found or expired: " + id);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    @FunctionalInterface
+    private interface SessionCreation {
+        ParseSession create() throws Exception;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.contactparser.handler;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public record ContactProjection(int maxDepth, Set<Field> fields, Set<String> rootIds) {
+
+    public static final ContactProjection ALL = new ContactProjection(0, EnumSet.allOf(Field.class), null);
+
+    public enum Field {
+        NAME("name"),
+        LAST_NAME("lastName");
+
+        private final String elementName;
+
+        Field(String elementName) {
+            this.elementName = elementName;
+        }
+
+        public String getElementName() {
+            return elementName;
+        }
+
+        public static Field of(String elementName) {
+            for (Field field : values()) {
+                if (field.elementName.equals(elementName)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown contact field: " + elementName);
+        }
+    }
+
+    public ContactProjection {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Maximum depth must not be negative");
+        }
+        fields = fields == null ? EnumSet.allOf(Field.class) : Set.copyOf(fields);
+        rootIds = rootIds == null ? null : Set.copyOf(rootIds);
+    }
+
+    public boolean includesName() {
+        return fields.contains(Field.NAME);
+    }
+
+    public boolean includesLastName() {
+        return fields.contains(Field.LAST_NAME);
+    }
+}
@@ -1,57 +1,99 @@
 package com.example.contactparser.handler;
 
 import com.example.contactparser.model.Contact;
+import com.example.contactparser.exception.XmlParsingException;
 import org.xml.sax.Attributes;
+import org.xml.sax.Locator;
 import org.xml.sax.helpers.DefaultHandler;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
 import java.util.List;
 
 public class ContactSaxHandler extends DefaultHandler {
 
-    private final List<Contact> rootContacts = new ArrayList<>();
-    private final Deque<Contact> stack = new ArrayDeque<>();
-    private final StringBuilder content = new StringBuilder();
+    private final ContactSink sink;
+    private final ProjectionFilter filter;
+    private final ParseBudget budget;
+    private final ElementContent content = new ElementContent();
+    private Locator locator;
+    private int depth;
+
+    public ContactSaxHandler() {
+        this(new ContactTreeBuilder());
+    }
+
+    public ContactSaxHandler(ContactSink sink) {
+        this(sink, ContactProjection.ALL);
+    }
+
+    public ContactSaxHandler(ContactSink sink, ContactProjection projection) {
+        this(sink, projection, ParseBudget.unlimited());
+    }
+
+    public ContactSaxHandler(ContactSink sink, ContactProjection projection, ParseBudget budget) {
+        this.sink = sink;
+        this.filter = new ProjectionFilter(projection);
+        this.budget = budget;
+    }
 
     public List<Contact> getRootContacts() {
-        return rootContacts;
+        return sink.getRootContacts();
     }
 
     @Override
-    public void startElement(String uri, String localName, String qName, Attributes attributes) {
-        content.setLength(0);
+    public void setDocumentLocator(Locator locator) {
+        this.locator = locator;
+    }
 
-        if ("contact".equals(qName)) {
-            Contact contact = new Contact(attributes.getValue("id"));
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        content.reset();
+        budget.checkCancelled();
+        if (!budget.allowsDepth(++depth)) {
+            throw limitExceeded(ParseBudget.Limit.DEPTH);
+        }
 
-            if (stack.isEmpty()) {
-                rootContacts.add(contact);
-            } else {
-                stack.peek().addSubContact(contact);
+        if ("contact".equals(qName) && filter.enterContact()) {
+            String id = attributes.getValue("id");
+            if (filter.acceptRoot(id)) {
+                if (!budget.acquireContact()) {
+                    throw limitExceeded(ParseBudget.Limit.CONTACTS);
+                }
+                sink.startContact(id);
             }
-
-            stack.push(contact);
         }
     }
 
     @Override
     public void characters(char[] ch, int start, int length) {
-        content.append(ch, start, length);
+        if (filter.collectsText()) {
+            content.append(ch, start, length);
+            if (!budget.allowsText(content.length())) {
+                throw limitExceeded(ParseBudget.Limit.TEXT_LENGTH);
+            }
+        }
     }
 
     @Override
     public void endElement(String uri, String localName, String qName) {
-        if (stack.isEmpty()) return;
-
-        Contact current = stack.peek();
-        String value = content.toString().trim();
-
+        depth--;
         switch (qName) {
-            case "name" -> current.setName(value);
-            case "lastName" -> current.setLastName(value);
-            case "contact" -> stack.pop();
+            case "name" -> {
+                if (filter.collectsName() && sink.isInsideContact()) content.name(sink);
+            }
+            case "lastName" -> {
+                if (filter.collectsLastName() && sink.isInsideContact()) content.lastName(sink);
+            }
+            case "contact" -> {
+                if (filter.exitContact()) sink.endContact();
+            }
+        }
+        content.reset();
+    }
+
+    private XmlParsingException limitExceeded(ParseBudget.Limit limit) {
+        if (locator == null) {
+            return budget.exceeded(limit, null, null);
         }
+        return budget.exceeded(limit, locator.getLineNumber(), locator.getColumnNumber());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.example.contactparser.handler;
+
+import com.example.contactparser.model.Contact;
+
+import java.util.List;
+
+public interface ContactSink {
+
+    boolean isInsideContact();
+
+    void startContact(String id);
+
+    void name(CharSequence text, int start, int end);
+
+    void lastName(CharSequence text, int start, int end);
+
+    void endContact();
+
+    List<Contact> getRootContacts();
+
+    int getRootContactCount();
+
+    int getContactCount();
+
+    int getMaxDepth();
+}
@@ -0,0 +1,155 @@
+package com.example.contactparser.handler;
+
+import com.example.contactparser.exception.XmlParsingException;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+public class ContactStaxReader {
+
+    private final XMLInputFactory inputFactory;
+    private final ContactSink sink;
+    private final ProjectionFilter filter;
+    private final ParseBudget budget;
+    private final ElementContent content = new ElementContent();
+    private int depth;
+
+    public ContactStaxReader(XMLInputFactory inputFactory, ContactSink sink) {
+        this(inputFactory, sink, ContactProjection.ALL);
+    }
+
+    public ContactStaxReader(XMLInputFactory inputFactory, ContactSink sink, ContactProjection projection) {
+        this(inputFactory, sink, projection, ParseBudget.unlimited());
+    }
+
+    public ContactStaxReader(XMLInputFactory inputFactory, ContactSink sink, ContactProjection projection,
+                             ParseBudget budget) {
+        this.inputFactory = inputFactory;
+        this.sink = sink;
+        this.filter = new ProjectionFilter(projection);
+        this.budget = budget;
+    }
+
+    public static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    public void read(InputSource source) throws SAXParseException, IOException {
+        if (source.getCharacterStream() != null || source.getByteStream() != null) {
+            read(createReader(source), source);
+            return;
+        }
+
+        try (InputStream in = URI.create(source.getSystemId()).toURL().openStream()) {
+            source.setByteStream(in);
+            read(createReader(source), source);
+        }
+    }
+
+    private XMLStreamReader createReader(InputSource source) throws SAXParseException {
+        try {
+            if (source.getCharacterStream() != null) {
+                return inputFactory.createXMLStreamReader(source.getSystemId(), source.getCharacterStream());
+            }
+            if (source.getEncoding() != null) {
+                return inputFactory.createXMLStreamReader(source.getByteStream(), source.getEncoding());
+            }
+            return inputFactory.createXMLStreamReader(source.getSystemId(), source.getByteStream());
+        } catch (XMLStreamException e) {
+            throw toParseException(e, source);
+        }
+    }
+
+    private void read(XMLStreamReader reader, InputSource source) throws SAXParseException {
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> startElement(reader);
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        if (filter.collectsText()) {
+                            content.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                            if (!budget.allowsText(content.length())) {
+                                throw limitExceeded(ParseBudget.Limit.TEXT_LENGTH, reader);
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> endElement(reader.getLocalName());
+                    default -> {
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw toParseException(e, source);
+        } finally {
+            try {
+                reader.close();
+            } catch (XMLStreamException ignored) {
+            }
+        }
+    }
+
+    private void startElement(XMLStreamReader reader) {
+        content.reset();
+        budget.checkCancelled();
+        if (!budget.allowsDepth(++depth)) {
+            throw limitExceeded(ParseBudget.Limit.DEPTH, reader);
+        }
+
+        if ("contact".equals(reader.getLocalName()) && filter.enterContact()) {
+            String id = reader.getAttributeValue(null, "id");
+            if (filter.acceptRoot(id)) {
+                if (!budget.acquireContact()) {
+                    throw limitExceeded(ParseBudget.Limit.CONTACTS, reader);
+                }
+                sink.startContact(id);
+            }
+        }
+    }
+
+    private void endElement(String name) {
+        depth--;
+        switch (name) {
+            case "name" -> {
+                if (filter.collectsName() && sink.isInsideContact()) content.name(sink);
+            }
+            case "lastName" -> {
+                if (filter.collectsLastName() && sink.isInsideContact()) content.lastName(sink);
+            }
+            case "contact" -> {
+                if (filter.exitContact()) sink.endContact();
+            }
+        }
+        content.reset();
+    }
+
+    private SAXParseException toParseException(XMLStreamException e, InputSource source) {
+        String message = e.getMessage();
+        if (message != null && message.contains("Message: ")) {
+            message = message.substring(message.indexOf("Message: ") + "Message: ".length());
+        }
+
+        Location location = e.getLocation();
+        int line = location != null ? location.getLineNumber() : -1;
+        int column = location != null ? location.getColumnNumber() : -1;
+
+        return new SAXParseException(message, source.getPublicId(), source.getSystemId(), line, column, e);
+    }
+
+    private XmlParsingException limitExceeded(ParseBudget.Limit limit, XMLStreamReader reader) {
+        Location location = reader.getLocation();
+        return budget.exceeded(limit, location.getLineNumber(), location.getColumnNumber());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.contactparser.handler;
+
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ContactIndex;
+import com.example.contactparser.model.ContactTable;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ContactTableBuilder implements ContactSink {
+
+    public static final String TOO_LARGE_ERROR_TYPE = "RESULT_TOO_LARGE";
+
+    private final ContactTable table = new ContactTable();
+    private final long maxRetainedBytes;
+    private int[] stack = new int[16];
+    private int depth;
+    private int maxDepth;
+
+    public ContactTableBuilder() {
+        this(0);
+    }
+
+    // Stops the parse once the table and its index would retain more than maxRetainedBytes; 0 means no limit.
+    public ContactTableBuilder(long maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    public ContactTable getTable() {
+        return table;
+    }
+
+    @Override
+    public boolean isInsideContact() {
+        return depth > 0;
+    }
+
+    @Override
+    public void startContact(String id) {
+        int parent = depth == 0 ? ContactTable.NO_VALUE : stack[depth - 1];
+        int row = table.addContact(parent, table.addString(id));
+
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = row;
+        maxDepth = Math.max(maxDepth, depth);
+        checkSize();
+    }
+
+    @Override
+    public void name(CharSequence text, int start, int end) {
+        table.setNameRef(stack[depth - 1], table.addString(text, start, end));
+        checkSize();
+    }
+
+    @Override
+    public void lastName(CharSequence text, int start, int end) {
+        table.setLastNameRef(stack[depth - 1], table.addString(text, start, end));
+        checkSize();
+    }
+
+    @Override
+    public void endContact() {
+        table.endContact(stack[--depth]);
+    }
+
+    @Override
+    public List<Contact> getRootContacts() {
+        return table.getRootContacts();
+    }
+
+    @Override
+    public int getRootContactCount() {
+        return table.getRootCount();
+    }
+
+    @Override
+    public int getContactCount() {
+        return table.size();
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    private void checkSize() {
+        if (maxRetainedBytes <= 0) {
+            return;
+        }
+        long retainedBytes = table.dataBytes() + ContactIndex.estimateRetainedBytes(table.size());
+        if (retainedBytes > maxRetainedBytes) {
+            throw new XmlParsingException(
+                    "Parse result needs more than " + maxRetainedBytes + " bytes after " + table.size() + " contacts",
+                    TOO_LARGE_ERROR_TYPE
+            );
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.contactparser.handler;
+
+import com.example.contactparser.model.Contact;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class ContactTreeBuilder implements ContactSink {
+
+    private final List<Contact> rootContacts = new ArrayList<>();
+    private final Deque<Contact> stack = new ArrayDeque<>();
+    private final Consumer<Contact> rootContactConsumer;
+    private final StringDictionary dictionary;
+    private int rootContactCount;
+    private int contactCount;
+    private int maxDepth;
+    private long stringLookups;
+    private long stringHits;
+
+    public ContactTreeBuilder() {
+        this(null, null);
+    }
+
+    public ContactTreeBuilder(Consumer<Contact> rootContactConsumer) {
+        this(rootContactConsumer, null);
+    }
+
+    public ContactTreeBuilder(Consumer<Contact> rootContactConsumer, StringDictionary dictionary) {
+        this.rootContactConsumer = rootContactConsumer;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public List<Contact> getRootContacts() {
+        return rootContacts;
+    }
+
+    @Override
+    public int getRootContactCount() {
+        return rootContactCount;
+    }
+
+    @Override
+    public int getContactCount() {
+        return contactCount;
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    // Streamed roots are handed to the consumer and not kept.
+    public boolean isStreaming() {
+        return rootContactConsumer != null;
+    }
+
+    public long getStringLookups() {
+        return stringLookups;
+    }
+
+    public long getStringHits() {
+        return stringHits;
+    }
+
+    @Override
+    public boolean isInsideContact() {
+        return !stack.isEmpty();
+    }
+
+    @Override
+    public void startContact(String id) {
+        Contact contact = new Contact(id == null ? null : value(id, 0, id.length()));
+
+        if (stack.isEmpty()) {
+            rootContactCount++;
+            if (rootContactConsumer == null) {
+                rootContacts.add(contact);
+            }
+        } else {
+            stack.peek().addSubContact(contact);
+        }
+
+        stack.push(contact);
+        contactCount++;
+        maxDepth = Math.max(maxDepth, stack.size());
+    }
+
+    @Override
+    public void name(CharSequence text, int start, int end) {
+        stack.peek().setName(value(text, start, end));
+    }
+
+    @Override
+    public void lastName(CharSequence text, int start, int end) {
+        stack.peek().setLastName(value(text, start, end));
+    }
+
+    @Override
+    public void endContact() {
+        Contact contact = stack.pop();
+
+        if (stack.isEmpty() && rootContactConsumer != null) {
+            rootContactConsumer.accept(contact);
+        }
+    }
+
+    private String value(CharSequence text, int start, int end) {
+        if (dictionary == null) {
+            return text.subSequence(start, end).toString();
+        }
+
+        stringLookups++;
+        String value = dictionary.lookup(text, start, end);
+        if (value != null) {
+            stringHits++;
+            return value;
+        }
+        return dictionary.add(text.subSequence(start, end).toString());
+    }
+}
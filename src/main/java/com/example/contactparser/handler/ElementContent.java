@@ -0,0 +1,48 @@
+package com.example.contactparser.handler;
+
+final class ElementContent {
+
+    private final StringBuilder text = new StringBuilder();
+
+    void reset() {
+        text.setLength(0);
+    }
+
+    void append(char[] ch, int start, int length) {
+        text.append(ch, start, length);
+    }
+
+    int length() {
+        return text.length();
+    }
+
+    CharSequence text() {
+        return text;
+    }
+
+    int trimmedStart() {
+        int start = 0;
+        while (start < text.length() && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    int trimmedEnd() {
+        int end = text.length();
+        while (end > 0 && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    void name(ContactSink sink) {
+        int start = trimmedStart();
+        sink.name(text, start, Math.max(start, trimmedEnd()));
+    }
+
+    void lastName(ContactSink sink) {
+        int start = trimmedStart();
+        sink.lastName(text, start, Math.max(start, trimmedEnd()));
+    }
+}
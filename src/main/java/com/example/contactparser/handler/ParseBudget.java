@@ -0,0 +1,90 @@
+package com.example.contactparser.handler;
+
+import com.example.contactparser.exception.XmlParsingException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class ParseBudget {
+
+    public static final String ERROR_TYPE = "RESOURCE_LIMIT_EXCEEDED";
+
+    public enum Limit {
+        INPUT_SIZE("input size", "bytes"),
+        DEPTH("element nesting depth", "levels"),
+        CONTACTS("number of contacts", "contacts"),
+        TEXT_LENGTH("text length of an element", "characters");
+
+        private final String description;
+        private final String unit;
+
+        Limit(String description, String unit) {
+            this.description = description;
+            this.unit = unit;
+        }
+    }
+
+    private final int maxDepth;
+    private final long maxContacts;
+    private final int maxTextLength;
+    private final AtomicLong contacts = new AtomicLong();
+    private volatile boolean cancelled;
+
+    public ParseBudget(int maxDepth, long maxContacts, int maxTextLength) {
+        this.maxDepth = maxDepth > 0 ? maxDepth : Integer.MAX_VALUE;
+        this.maxContacts = maxContacts > 0 ? maxContacts : Long.MAX_VALUE;
+        this.maxTextLength = maxTextLength > 0 ? maxTextLength : Integer.MAX_VALUE;
+    }
+
+    public static ParseBudget unlimited() {
+        return new ParseBudget(0, 0, 0);
+    }
+
+    public long getContactCount() {
+        return contacts.get();
+    }
+
+    // Parallel chunks share one budget, so a failed chunk can stop its siblings at their next element.
+    public void cancel() {
+        cancelled = true;
+    }
+
+    void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Parsing was cancelled");
+        }
+    }
+
+    boolean allowsDepth(int depth) {
+        return depth <= maxDepth;
+    }
+
+    boolean allowsText(int length) {
+        return length <= maxTextLength;
+    }
+
+    boolean acquireContact() {
+        return maxContacts == Long.MAX_VALUE || contacts.incrementAndGet() <= maxContacts;
+    }
+
+    XmlParsingException exceeded(Limit limit, Integer line, Integer column) {
+        long max = switch (limit) {
+            case DEPTH -> maxDepth;
+            case CONTACTS -> maxContacts;
+            case TEXT_LENGTH -> maxTextLength;
+            case INPUT_SIZE -> throw new IllegalArgumentException("Input size is checked by the caller");
+        };
+        return exceeded(limit, max, line, column);
+    }
+
+    public static XmlParsingException exceeded(Limit limit, long max, Integer line, Integer column) {
+        String location = line != null ? " at line " + line + ", column " + column : "";
+        return new XmlParsingException(
+                "Resource limit exceeded: the " + limit.description + " is limited to " + max + " " + limit.unit
+                        + ". Parsing was stopped" + location + ".",
+                ERROR_TYPE,
+                line,
+                column
+        );
+    }
+}
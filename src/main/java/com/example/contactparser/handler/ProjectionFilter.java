@@ -0,0 +1,62 @@
+package com.example.contactparser.handler;
+
+import java.util.Set;
+
+final class ProjectionFilter {
+
+    private final int maxDepth;
+    private final boolean names;
+    private final boolean lastNames;
+    private final Set<String> rootIds;
+
+    private int depth;
+    private int skipDepth;
+
+    ProjectionFilter(ContactProjection projection) {
+        this.maxDepth = projection.maxDepth();
+        this.names = projection.includesName();
+        this.lastNames = projection.includesLastName();
+        this.rootIds = projection.rootIds();
+    }
+
+    boolean enterContact() {
+        depth++;
+        if (skipDepth > 0) {
+            return false;
+        }
+        if (maxDepth > 0 && depth > maxDepth) {
+            skipDepth = depth;
+            return false;
+        }
+        return true;
+    }
+
+    boolean acceptRoot(String id) {
+        if (depth == 1 && rootIds != null && !rootIds.contains(id)) {
+            skipDepth = depth;
+            return false;
+        }
+        return true;
+    }
+
+    boolean exitContact() {
+        boolean emitted = skipDepth == 0;
+        if (skipDepth == depth) {
+            skipDepth = 0;
+        }
+        depth--;
+        return emitted;
+    }
+
+    boolean collectsText() {
+        return skipDepth == 0 && (names || lastNames);
+    }
+
+    boolean collectsName() {
+        return skipDepth == 0 && names;
+    }
+
+    boolean collectsLastName() {
+        return skipDepth == 0 && lastNames;
+    }
+}
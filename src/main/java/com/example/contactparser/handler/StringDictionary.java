@@ -0,0 +1,129 @@
+package com.example.contactparser.handler;
+
+import java.util.Arrays;
+
+public class StringDictionary {
+
+    private final int maxEntries;
+    private String[] entries;
+    private int size;
+
+    private long lookups;
+    private long hits;
+    private long resets;
+
+    public StringDictionary(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("String dictionary size must be at least 1");
+        }
+
+        this.maxEntries = maxEntries;
+        this.entries = new String[Math.min(tableSizeFor(maxEntries), 1024)];
+    }
+
+    public synchronized String lookup(CharSequence text, int start, int end) {
+        lookups++;
+
+        int mask = entries.length - 1;
+        for (int slot = hash(text, start, end) & mask; entries[slot] != null; slot = (slot + 1) & mask) {
+            if (contentEquals(entries[slot], text, start, end)) {
+                hits++;
+                return entries[slot];
+            }
+        }
+
+        return null;
+    }
+
+    public String intern(CharSequence text, int start, int end) {
+        String value = lookup(text, start, end);
+        return value != null ? value : add(text.subSequence(start, end).toString());
+    }
+
+    public String intern(String value) {
+        return value == null ? null : intern(value, 0, value.length());
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(maxEntries, size, lookups, hits, resets);
+    }
+
+    public synchronized String add(String value) {
+        int mask = entries.length - 1;
+        int slot = value.hashCode() & mask;
+        for (; entries[slot] != null; slot = (slot + 1) & mask) {
+            if (entries[slot].equals(value)) {
+                return entries[slot];
+            }
+        }
+
+        if (size >= maxEntries) {
+            Arrays.fill(entries, null);
+            size = 0;
+            resets++;
+            slot = value.hashCode() & mask;
+        } else if ((size + 1) * 2 > entries.length) {
+            rehash(entries.length * 2);
+            mask = entries.length - 1;
+            slot = value.hashCode() & mask;
+            while (entries[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        entries[slot] = value;
+        size++;
+        return value;
+    }
+
+    private void rehash(int capacity) {
+        String[] old = entries;
+        entries = new String[capacity];
+        int mask = capacity - 1;
+
+        for (String entry : old) {
+            if (entry != null) {
+                int slot = entry.hashCode() & mask;
+                while (entries[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                entries[slot] = entry;
+            }
+        }
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash;
+    }
+
+    private static boolean contentEquals(String entry, CharSequence text, int start, int end) {
+        if (entry.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < entry.length(); i++) {
+            if (entry.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int tableSizeFor(int entries) {
+        return Integer.highestOneBit(Math.max(entries * 2 - 1, 1)) << 1;
+    }
+
+    public record Stats(int maxEntries, int size, long lookups, long hits, long resets) {
+
+        public double getHitRatio() {
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.contactparser.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 
+@JsonSerialize(using = ContactJsonWriter.Serializer.class)
 public class Contact {
 
     private String id;
@@ -44,11 +50,32 @@ public class Contact {
 
     @Override
     public String toString() {
-        return "Contact{" +
-                "id='" + id + '\'' +
-                ", name='" + name + '\'' +
-                ", lastName='" + lastName + '\'' +
-                ", contacts=" + contacts +
-                '}';
+        StringBuilder text = new StringBuilder();
+        Deque<Iterator<Contact>> stack = new ArrayDeque<>();
+        appendStart(text, this);
+        stack.push(getContacts().iterator());
+
+        while (!stack.isEmpty()) {
+            Iterator<Contact> children = stack.peek();
+            if (children.hasNext()) {
+                if (text.charAt(text.length() - 1) != '[') {
+                    text.append(", ");
+                }
+                Contact child = children.next();
+                appendStart(text, child);
+                stack.push(child.getContacts().iterator());
+            } else {
+                stack.pop();
+                text.append("]}");
+            }
+        }
+        return text.toString();
+    }
+
+    private static void appendStart(StringBuilder text, Contact contact) {
+        text.append("Contact{id='").append(contact.getId())
+                .append("', name='").append(contact.getName())
+                .append("', lastName='").append(contact.getLastName())
+                .append("', contacts=[");
     }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+package com.example.contactparser.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+public final class ContactIndex {
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        boolean visit(int row);
+    }
+
+    @FunctionalInterface
+    private interface RowComparator {
+        int compare(int row, int otherRow);
+    }
+
+    private static final IntBuffer RELEASED = IntBuffer.allocate(0);
+    private static final IntBuffer RELEASED_BUCKETS = IntBuffer.wrap(new int[] {ContactTable.NO_VALUE}).asReadOnlyBuffer();
+
+    private final ContactTable table;
+    private IntBuffer idBuckets;
+    private IntBuffer nextInBucket;
+    private IntBuffer byName;
+    private IntBuffer byLastName;
+
+    private ContactIndex(ContactTable table, int[] idBuckets, int[] nextInBucket, int[] byName, int[] byLastName) {
+        this.table = table;
+        this.idBuckets = store(idBuckets, table.isOffHeap());
+        this.nextInBucket = store(nextInBucket, table.isOffHeap());
+        this.byName = store(byName, table.isOffHeap());
+        this.byLastName = store(byLastName, table.isOffHeap());
+    }
+
+    public static ContactIndex build(ContactTable table) {
+        int size = table.size();
+        int[] idBuckets = new int[bucketCount(size)];
+        int[] nextInBucket = new int[size];
+        Arrays.fill(idBuckets, ContactTable.NO_VALUE);
+
+        // Rows are chained in reverse so that each bucket lists them in document order.
+        for (int row = size - 1; row >= 0; row--) {
+            int idRef = table.getIdRef(row);
+            if (idRef != ContactTable.NO_VALUE) {
+                int bucket = bucket(table.hashString(idRef), idBuckets.length);
+                nextInBucket[row] = idBuckets[bucket];
+                idBuckets[bucket] = row;
+            }
+        }
+
+        int[] byName = sortedRows(table, size, true);
+        int[] byLastName = sortedRows(table, size, false);
+        return new ContactIndex(table, idBuckets, nextInBucket, byName, byLastName);
+    }
+
+    public ContactTable getTable() {
+        return table;
+    }
+
+    public void findById(String id, RowVisitor visitor) {
+        if (id == null) {
+            return;
+        }
+        for (int row = idBuckets.get(bucket(id.hashCode(), idBuckets.capacity())); row != ContactTable.NO_VALUE; row = nextInBucket.get(row)) {
+            if (table.stringEquals(table.getIdRef(row), id) && !visitor.visit(row)) {
+                return;
+            }
+        }
+    }
+
+    public void findByNamePrefix(String prefix, RowVisitor visitor) {
+        findByPrefix(byName, true, prefix, visitor);
+    }
+
+    public void findByLastNamePrefix(String prefix, RowVisitor visitor) {
+        findByPrefix(byLastName, false, prefix, visitor);
+    }
+
+    public int countByNamePrefix(String prefix) {
+        return upperBound(byName, true, prefix) - lowerBound(byName, true, prefix);
+    }
+
+    public int countByLastNamePrefix(String prefix) {
+        return upperBound(byLastName, false, prefix) - lowerBound(byLastName, false, prefix);
+    }
+
+    // An upper bound for the index of a table with this many rows, before the index is built.
+    public static long estimateRetainedBytes(int rows) {
+        return 4L * (bucketCount(rows) + 3L * rows);
+    }
+
+    public long estimateRetainedBytes() {
+        return 4L * (idBuckets.capacity() + nextInBucket.capacity() + byName.capacity() + byLastName.capacity());
+    }
+
+    // Drops the index buffers together with those of an off-heap table, see ContactTable.release().
+    public void release() {
+        if (!table.isOffHeap()) {
+            return;
+        }
+        idBuckets = RELEASED_BUCKETS;
+        nextInBucket = RELEASED;
+        byName = RELEASED;
+        byLastName = RELEASED;
+    }
+
+    private void findByPrefix(IntBuffer sorted, boolean name, String prefix, RowVisitor visitor) {
+        if (prefix == null) {
+            return;
+        }
+        int end = upperBound(sorted, name, prefix);
+        for (int position = lowerBound(sorted, name, prefix); position < end; position++) {
+            if (!visitor.visit(sorted.get(position))) {
+                return;
+            }
+        }
+    }
+
+    private int lowerBound(IntBuffer sorted, boolean name, String prefix) {
+        int low = 0;
+        int high = sorted.capacity();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (table.comparePrefixIgnoreCase(ref(table, sorted.get(middle), name), prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(IntBuffer sorted, boolean name, String prefix) {
+        int low = 0;
+        int high = sorted.capacity();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (table.comparePrefixIgnoreCase(ref(table, sorted.get(middle), name), prefix) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int[] sortedRows(ContactTable table, int size, boolean name) {
+        int count = 0;
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            if (ref(table, row, name) != ContactTable.NO_VALUE) {
+                rows[count++] = row;
+            }
+        }
+        rows = Arrays.copyOf(rows, count);
+        sort(rows, (row, otherRow) -> table.compareStringsIgnoreCase(ref(table, row, name), ref(table, otherRow, name)));
+        return rows;
+    }
+
+    // Bottom-up merge sort: stable, so equal strings keep document order.
+    private static void sort(int[] rows, RowComparator comparator) {
+        int[] source = rows;
+        int[] target = new int[rows.length];
+        for (int width = 1; width < rows.length; width *= 2) {
+            for (int start = 0; start < rows.length; start += 2 * width) {
+                int middle = Math.min(start + width, rows.length);
+                int end = Math.min(start + 2 * width, rows.length);
+                int left = start;
+                int right = middle;
+                for (int i = start; i < end; i++) {
+                    if (left < middle && (right >= end || comparator.compare(source[left], source[right]) <= 0)) {
+                        target[i] = source[left++];
+                    } else {
+                        target[i] = source[right++];
+                    }
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != rows) {
+            System.arraycopy(source, 0, rows, 0, rows.length);
+        }
+    }
+
+    private static IntBuffer store(int[] values, boolean offHeap) {
+        if (!offHeap) {
+            return IntBuffer.wrap(values);
+        }
+        IntBuffer buffer = ByteBuffer.allocateDirect(4 * values.length).order(ByteOrder.nativeOrder()).asIntBuffer();
+        return buffer.put(0, values);
+    }
+
+    private static int ref(ContactTable table, int row, boolean name) {
+        return name ? table.getNameRef(row) : table.getLastNameRef(row);
+    }
+
+    private static int bucketCount(int rows) {
+        return Integer.highestOneBit(Math.max(1, rows) * 2 - 1) << 1;
+    }
+
+    private static int bucket(int hash, int buckets) {
+        return (hash ^ (hash >>> 16)) & (buckets - 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.contactparser.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+public final class ContactJsonWriter {
+
+    private ContactJsonWriter() {
+    }
+
+    public static void write(JsonGenerator generator, List<? extends Contact> contacts) throws IOException {
+        generator.writeStartArray();
+        writeAll(generator, contacts);
+        generator.writeEndArray();
+    }
+
+    public static void write(JsonGenerator generator, Contact contact) throws IOException {
+        writeStart(generator, contact);
+        List<Contact> children = contact.getContacts();
+        if (!children.isEmpty()) {
+            writeAll(generator, children);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    // Depth-first walk over an explicit stack of sibling lists and positions instead of recursion.
+    private static void writeAll(JsonGenerator generator, List<? extends Contact> contacts) throws IOException {
+        List<?>[] levels = new List<?>[8];
+        int[] positions = new int[8];
+        int top = 0;
+        levels[0] = contacts;
+
+        while (top >= 0) {
+            List<?> siblings = levels[top];
+            int position = positions[top];
+            if (position < siblings.size()) {
+                positions[top] = position + 1;
+                Contact contact = (Contact) siblings.get(position);
+                writeStart(generator, contact);
+                if (++top == levels.length) {
+                    levels = Arrays.copyOf(levels, top * 2);
+                    positions = Arrays.copyOf(positions, top * 2);
+                }
+                levels[top] = contact.getContacts();
+                positions[top] = 0;
+            } else {
+                levels[top] = null;
+                if (top-- > 0) {
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+            }
+        }
+    }
+
+    private static void writeStart(JsonGenerator generator, Contact contact) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", contact.getId());
+        generator.writeStringField("name", contact.getName());
+        generator.writeStringField("lastName", contact.getLastName());
+        generator.writeArrayFieldStart("contacts");
+    }
+
+    public static class Serializer extends StdSerializer<Contact> {
+
+        public Serializer() {
+            super(Contact.class);
+        }
+
+        @Override
+        public void serialize(Contact contact, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            write(generator, contact);
+        }
+    }
+}
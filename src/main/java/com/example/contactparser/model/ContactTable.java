@@ -0,0 +1,531 @@
+package com.example.contactparser.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ContactTable {
+
+    public static final int NO_VALUE = -1;
+
+    private static final int ROW_INTS = 5;
+    private static final int PARENT = 0;
+    private static final int SUBTREE_END = 1;
+    private static final int ID = 2;
+    private static final int NAME = 3;
+    private static final int LAST_NAME = 4;
+
+    private static final IntBuffer RELEASED_INTS = IntBuffer.allocate(0);
+    private static final IntBuffer RELEASED_OFFSETS = IntBuffer.allocate(1).asReadOnlyBuffer();
+    private static final CharBuffer RELEASED_CHARS = CharBuffer.allocate(0);
+
+    private int size;
+    private int[] parents = new int[16];
+    private int[] subtreeEnds = new int[16];
+    private int[] ids = new int[16];
+    private int[] names = new int[16];
+    private int[] lastNames = new int[16];
+
+    private int rootCount;
+    private int[] roots = new int[16];
+
+    private int stringCount;
+    private int[] stringOffsets = new int[17];
+    private char[] arena = new char[256];
+
+    // Direct buffers that replace the arrays above in a table copied off the heap.
+    private IntBuffer rowData;
+    private IntBuffer rootData;
+    private IntBuffer offsetData;
+    private CharBuffer charData;
+    private boolean released;
+
+    public ContactTable() {
+    }
+
+    // A read-only table over buffers laid out like an off-heap copy, for example the sections of a mapped snapshot.
+    private ContactTable(int size, int rootCount, int stringCount, IntBuffer rowData, IntBuffer rootData,
+                         IntBuffer offsetData, CharBuffer charData) {
+        parents = subtreeEnds = ids = names = lastNames = null;
+        roots = stringOffsets = null;
+        arena = null;
+        this.size = size;
+        this.rootCount = rootCount;
+        this.stringCount = stringCount;
+        this.rowData = rowData;
+        this.rootData = rootData;
+        this.offsetData = offsetData;
+        this.charData = charData;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getRootCount() {
+        return rootCount;
+    }
+
+    public int getRootRow(int index) {
+        checkIndex(index, rootCount);
+        return rootData == null ? roots[index] : rootData.get(index);
+    }
+
+    public int getParentRow(int row) {
+        checkIndex(row, size);
+        return column(row, PARENT, parents);
+    }
+
+    public int getSubtreeEnd(int row) {
+        checkIndex(row, size);
+        return column(row, SUBTREE_END, subtreeEnds);
+    }
+
+    public int getIdRef(int row) {
+        checkIndex(row, size);
+        return column(row, ID, ids);
+    }
+
+    public int getNameRef(int row) {
+        checkIndex(row, size);
+        return column(row, NAME, names);
+    }
+
+    public int getLastNameRef(int row) {
+        checkIndex(row, size);
+        return column(row, LAST_NAME, lastNames);
+    }
+
+    public String getId(int row) {
+        return getString(getIdRef(row));
+    }
+
+    public String getName(int row) {
+        return getString(getNameRef(row));
+    }
+
+    public String getLastName(int row) {
+        return getString(getLastNameRef(row));
+    }
+
+    public int getStringCount() {
+        return stringCount;
+    }
+
+    public int getArenaLength() {
+        return stringStart(stringCount);
+    }
+
+    public boolean isOffHeap() {
+        return rowData != null;
+    }
+
+    public String getString(int ref) {
+        if (ref == NO_VALUE) {
+            return null;
+        }
+        checkIndex(ref, stringCount);
+        int offset = stringStart(ref);
+        int length = stringStart(ref + 1) - offset;
+        if (charData == null) {
+            return new String(arena, offset, length);
+        }
+        char[] chars = new char[length];
+        charData.get(offset, chars);
+        return new String(chars);
+    }
+
+    public int hashString(int ref) {
+        checkIndex(ref, stringCount);
+        int hash = 0;
+        for (int i = stringStart(ref); i < stringStart(ref + 1); i++) {
+            hash = 31 * hash + charAt(i);
+        }
+        return hash;
+    }
+
+    public boolean stringEquals(int ref, String value) {
+        if (ref == NO_VALUE || value == null) {
+            return ref == NO_VALUE && value == null;
+        }
+        checkIndex(ref, stringCount);
+        int offset = stringStart(ref);
+        if (stringStart(ref + 1) - offset != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (charAt(offset + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int compareStringsIgnoreCase(int ref, int otherRef) {
+        checkIndex(ref, stringCount);
+        checkIndex(otherRef, stringCount);
+        int offset = stringStart(ref);
+        int length = stringStart(ref + 1) - offset;
+        int otherOffset = stringStart(otherRef);
+        int otherLength = stringStart(otherRef + 1) - otherOffset;
+        for (int i = 0; i < Math.min(length, otherLength); i++) {
+            int difference = foldCase(charAt(offset + i)) - foldCase(charAt(otherOffset + i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - otherLength;
+    }
+
+    // Zero when the string starts with the prefix, otherwise its order relative to all such strings.
+    public int comparePrefixIgnoreCase(int ref, String prefix) {
+        checkIndex(ref, stringCount);
+        int offset = stringStart(ref);
+        int length = stringStart(ref + 1) - offset;
+        for (int i = 0; i < Math.min(length, prefix.length()); i++) {
+            int difference = foldCase(charAt(offset + i)) - foldCase(prefix.charAt(i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length < prefix.length() ? -1 : 0;
+    }
+
+    private static char foldCase(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    public int addString(String value) {
+        return value == null ? NO_VALUE : addString(value, 0, value.length());
+    }
+
+    public int addString(CharSequence text, int start, int end) {
+        checkWritable();
+        int offset = stringOffsets[stringCount];
+        int length = end - start;
+
+        if (offset + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, offset + length));
+        }
+        if (stringCount + 2 > stringOffsets.length) {
+            stringOffsets = Arrays.copyOf(stringOffsets, stringOffsets.length * 2);
+        }
+
+        if (text instanceof String string) {
+            string.getChars(start, end, arena, offset);
+        } else if (text instanceof StringBuilder builder) {
+            builder.getChars(start, end, arena, offset);
+        } else {
+            for (int i = start; i < end; i++) {
+                arena[offset + i - start] = text.charAt(i);
+            }
+        }
+
+        stringOffsets[++stringCount] = offset + length;
+        return stringCount - 1;
+    }
+
+    public int addContact(int parentRow, int idRef) {
+        checkWritable();
+        if (size == parents.length) {
+            int capacity = size * 2;
+            parents = Arrays.copyOf(parents, capacity);
+            subtreeEnds = Arrays.copyOf(subtreeEnds, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+        }
+
+        int row = size++;
+        parents[row] = parentRow;
+        subtreeEnds[row] = size;
+        ids[row] = idRef;
+        names[row] = NO_VALUE;
+        lastNames[row] = NO_VALUE;
+
+        if (parentRow == NO_VALUE) {
+            if (rootCount == roots.length) {
+                roots = Arrays.copyOf(roots, rootCount * 2);
+            }
+            roots[rootCount++] = row;
+        }
+
+        return row;
+    }
+
+    public void setNameRef(int row, int ref) {
+        checkWritable();
+        checkIndex(row, size);
+        names[row] = ref;
+    }
+
+    public void setLastNameRef(int row, int ref) {
+        checkWritable();
+        checkIndex(row, size);
+        lastNames[row] = ref;
+    }
+
+    public void endContact(int row) {
+        checkWritable();
+        checkIndex(row, size);
+        subtreeEnds[row] = size;
+    }
+
+    public Contact getContact(int row) {
+        checkIndex(row, size);
+        return new RowContact(row);
+    }
+
+    // Builds plain contacts for the subtree at row, so that they stay readable after the table is released.
+    public Contact copyContact(int row) {
+        checkIndex(row, size);
+        int end = getSubtreeEnd(row);
+        Contact[] copies = new Contact[end - row];
+        for (int current = row; current < end; current++) {
+            Contact copy = new Contact(getId(current));
+            copy.setName(getName(current));
+            copy.setLastName(getLastName(current));
+            copies[current - row] = copy;
+            if (current > row) {
+                copies[getParentRow(current) - row].addSubContact(copy);
+            }
+        }
+        return copies[0];
+    }
+
+    public List<Contact> getRootContacts() {
+        return new AbstractList<>() {
+            @Override
+            public Contact get(int index) {
+                return new RowContact(getRootRow(index));
+            }
+
+            @Override
+            public int size() {
+                return rootCount;
+            }
+        };
+    }
+
+    public long estimateRetainedBytes() {
+        if (released) {
+            return 0;
+        }
+        if (rowData != null) {
+            return 4L * rowData.capacity() + 4L * rootData.capacity() + 4L * offsetData.capacity() + 2L * charData.capacity();
+        }
+        return 5L * 4 * parents.length + 4L * roots.length + 4L * stringOffsets.length + 2L * arena.length;
+    }
+
+    // Copies the table into direct buffers, so that it no longer counts against the heap. The copy is read-only.
+    public ContactTable copyOffHeap() {
+        int arenaLength = getArenaLength();
+        if ((long) size * ROW_INTS > Integer.MAX_VALUE / 4 || arenaLength > Integer.MAX_VALUE / 2) {
+            throw new IllegalStateException("Contact table is too large to store off the heap");
+        }
+
+        IntBuffer rowCopy = allocateInts(size * ROW_INTS);
+        for (int row = 0; row < size; row++) {
+            int base = row * ROW_INTS;
+            rowCopy.put(base + PARENT, getParentRow(row));
+            rowCopy.put(base + SUBTREE_END, getSubtreeEnd(row));
+            rowCopy.put(base + ID, getIdRef(row));
+            rowCopy.put(base + NAME, getNameRef(row));
+            rowCopy.put(base + LAST_NAME, getLastNameRef(row));
+        }
+        IntBuffer rootCopy = allocateInts(rootCount);
+        for (int index = 0; index < rootCount; index++) {
+            rootCopy.put(index, getRootRow(index));
+        }
+        IntBuffer offsetCopy = allocateInts(stringCount + 1);
+        for (int ref = 0; ref <= stringCount; ref++) {
+            offsetCopy.put(ref, stringStart(ref));
+        }
+        CharBuffer charCopy = ByteBuffer.allocateDirect(2 * arenaLength).order(ByteOrder.nativeOrder()).asCharBuffer();
+        if (charData == null) {
+            charCopy.put(0, arena, 0, arenaLength);
+        } else {
+            charCopy.put(0, charData, 0, arenaLength);
+        }
+        return new ContactTable(size, rootCount, stringCount, rowCopy, rootCopy, offsetCopy, charCopy);
+    }
+
+    // The exact bytes of rows, roots, string offsets and characters, which is what an off-heap copy retains.
+    public long dataBytes() {
+        return dataBytes(size, rootCount, stringCount, getArenaLength());
+    }
+
+    static long dataBytes(int size, int rootCount, int stringCount, int arenaLength) {
+        return 4L * ((long) size * ROW_INTS + rootCount + stringCount + 1) + 2L * arenaLength;
+    }
+
+    // Writes rows, roots, string offsets and characters in the section layout that wrap() reads back.
+    void writeTo(ByteBuffer out) {
+        for (int row = 0; row < size; row++) {
+            out.putInt(getParentRow(row));
+            out.putInt(getSubtreeEnd(row));
+            out.putInt(getIdRef(row));
+            out.putInt(getNameRef(row));
+            out.putInt(getLastNameRef(row));
+        }
+        for (int index = 0; index < rootCount; index++) {
+            out.putInt(getRootRow(index));
+        }
+        for (int ref = 0; ref <= stringCount; ref++) {
+            out.putInt(stringStart(ref));
+        }
+        int arenaLength = getArenaLength();
+        for (int i = 0; i < arenaLength; i++) {
+            out.putChar(charAt(i));
+        }
+    }
+
+    static ContactTable wrap(ByteBuffer data, int size, int rootCount, int stringCount, int arenaLength) {
+        int position = 0;
+        IntBuffer rowData = ints(data, position, size * ROW_INTS);
+        position += 4 * rowData.capacity();
+        IntBuffer rootData = ints(data, position, rootCount);
+        position += 4 * rootCount;
+        IntBuffer offsetData = ints(data, position, stringCount + 1);
+        position += 4 * offsetData.capacity();
+        CharBuffer charData = data.slice(position, 2 * arenaLength).order(data.order()).asCharBuffer();
+
+        if (offsetData.get(0) != 0 || offsetData.get(stringCount) != arenaLength) {
+            throw new IllegalArgumentException("String offsets do not match the arena length");
+        }
+        return new ContactTable(size, rootCount, stringCount, rowData.asReadOnlyBuffer(), rootData.asReadOnlyBuffer(),
+                offsetData.asReadOnlyBuffer(), charData.asReadOnlyBuffer());
+    }
+
+    // Drops the direct buffers of an off-heap table. Views handed out earlier fail from then on, and the memory is
+    // returned once the garbage collector has cleared the buffers. Heap tables are left to the garbage collector.
+    public void release() {
+        if (rowData == null) {
+            return;
+        }
+        released = true;
+        size = 0;
+        rootCount = 0;
+        stringCount = 0;
+        rowData = RELEASED_INTS;
+        rootData = RELEASED_INTS;
+        offsetData = RELEASED_OFFSETS;
+        charData = RELEASED_CHARS;
+    }
+
+    private int column(int row, int column, int[] values) {
+        return rowData == null ? values[row] : rowData.get(row * ROW_INTS + column);
+    }
+
+    private int stringStart(int ref) {
+        return offsetData == null ? stringOffsets[ref] : offsetData.get(ref);
+    }
+
+    private char charAt(int index) {
+        return charData == null ? arena[index] : charData.get(index);
+    }
+
+    private int[] childRows(int row) {
+        checkIndex(row, size);
+        int end = column(row, SUBTREE_END, subtreeEnds);
+        int count = 0;
+        for (int child = row + 1; child < end; child = column(child, SUBTREE_END, subtreeEnds)) {
+            count++;
+        }
+
+        int[] children = new int[count];
+        int index = 0;
+        for (int child = row + 1; child < end; child = column(child, SUBTREE_END, subtreeEnds)) {
+            children[index++] = child;
+        }
+        return children;
+    }
+
+    private void checkWritable() {
+        if (rowData != null) {
+            throw new UnsupportedOperationException("Off-heap contact tables are read-only");
+        }
+    }
+
+    private void checkIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            if (released) {
+                throw new IllegalStateException("Contact table has been released");
+            }
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+    }
+
+    private static IntBuffer ints(ByteBuffer data, int position, int count) {
+        return data.slice(position, 4 * count).order(data.order()).asIntBuffer();
+    }
+
+    private static IntBuffer allocateInts(int count) {
+        return ByteBuffer.allocateDirect(4 * count).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    private final class RowContact extends Contact {
+
+        private final int row;
+        private List<Contact> children;
+
+        private RowContact(int row) {
+            super(null);
+            this.row = row;
+        }
+
+        @Override
+        public String getId() {
+            return ContactTable.this.getId(row);
+        }
+
+        @Override
+        public String getName() {
+            return ContactTable.this.getName(row);
+        }
+
+        @Override
+        public String getLastName() {
+            return ContactTable.this.getLastName(row);
+        }
+
+        @Override
+        public List<Contact> getContacts() {
+            if (children == null) {
+                int[] rows = childRows(row);
+                children = new AbstractList<>() {
+                    @Override
+                    public Contact get(int index) {
+                        checkIndex(index, rows.length);
+                        return new RowContact(rows[index]);
+                    }
+
+                    @Override
+                    public int size() {
+                        return rows.length;
+                    }
+                };
+            }
+            return children;
+        }
+
+        @Override
+        public void addSubContact(Contact contact) {
+            throw new UnsupportedOperationException("Contact table views are read-only");
+        }
+
+        @Override
+        public void setName(String name) {
+            throw new UnsupportedOperationException("Contact table views are read-only");
+        }
+
+        @Override
+        public void setLastName(String lastName) {
+            throw new UnsupportedOperationException("Contact table views are read-only");
+        }
+    }
+}
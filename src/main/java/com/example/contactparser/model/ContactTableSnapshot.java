@@ -0,0 +1,109 @@
+package com.example.contactparser.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+public final class ContactTableSnapshot {
+
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'C', 'T', 'S', 'N'};
+    private static final int HEADER_BYTES = 48;
+
+    private ContactTableSnapshot() {
+    }
+
+    // Header: magic, version, source size, source modification time in nanoseconds, row count, root count,
+    // string count, arena length and a CRC-32C of the sections that follow. All values are little-endian.
+    public static void write(ContactTable table, Path target, long sourceSize, FileTime sourceModified) throws IOException {
+        long length = HEADER_BYTES + table.dataBytes();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Contact table is too large for a snapshot: " + length + " bytes");
+        }
+
+        // Written next to the target and renamed, so readers never map a partly written snapshot.
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+                out.order(ByteOrder.LITTLE_ENDIAN).position(HEADER_BYTES);
+                table.writeTo(out);
+
+                CRC32C checksum = new CRC32C();
+                checksum.update(out.slice(HEADER_BYTES, (int) length - HEADER_BYTES));
+                out.put(0, MAGIC);
+                out.putInt(4, VERSION);
+                out.putLong(8, sourceSize);
+                out.putLong(16, sourceModified.to(TimeUnit.NANOSECONDS));
+                out.putInt(24, table.size());
+                out.putInt(28, table.getRootCount());
+                out.putInt(32, table.getStringCount());
+                out.putInt(36, table.getArenaLength());
+                out.putLong(40, checksum.getValue());
+                out.force();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // Maps a snapshot written for the given source. Returns null when it belongs to another version of the source or
+    // of the format, and throws when it is damaged. The table reads straight from the mapping.
+    public static ContactTable read(Path snapshot, long sourceSize, FileTime sourceModified) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a contact table snapshot: unexpected length " + length);
+            }
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (in.get(i) != MAGIC[i]) {
+                throw new IOException("Not a contact table snapshot: unexpected header");
+            }
+        }
+        if (in.getInt(4) != VERSION
+                || in.getLong(8) != sourceSize
+                || in.getLong(16) != sourceModified.to(TimeUnit.NANOSECONDS)) {
+            return null;
+        }
+
+        int size = in.getInt(24);
+        int rootCount = in.getInt(28);
+        int stringCount = in.getInt(32);
+        int arenaLength = in.getInt(36);
+        if (size < 0 || rootCount < 0 || stringCount < 0 || arenaLength < 0
+                || HEADER_BYTES + ContactTable.dataBytes(size, rootCount, stringCount, arenaLength) != in.capacity()) {
+            throw new IOException("Malformed contact table snapshot: section sizes do not match the file length");
+        }
+
+        ByteBuffer data = in.slice(HEADER_BYTES, in.capacity() - HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C checksum = new CRC32C();
+        checksum.update(data.duplicate());
+        if (checksum.getValue() != in.getLong(40)) {
+            throw new IOException("Corrupt contact table snapshot: checksum mismatch");
+        }
+
+        try {
+            return ContactTable.wrap(data, size, rootCount, stringCount, arenaLength);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed contact table snapshot: " + e.getMessage(), e);
+        }
+    }
+}
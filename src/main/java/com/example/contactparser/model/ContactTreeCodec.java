@@ -0,0 +1,178 @@
+package com.example.contactparser.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class ContactTreeCodec {
+
+    public static final String MEDIA_TYPE = "application/x-contact-tree";
+
+    private static final byte[] MAGIC = {'C', 'T', 'R', 1};
+
+    private ContactTreeCodec() {
+    }
+
+    public static byte[] encode(List<? extends Contact> contacts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            encode(contacts, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static void encode(List<? extends Contact> contacts, OutputStream out) throws IOException {
+        Map<String, Integer> stringRefs = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        ByteArrayOutputStream nodes = new ByteArrayOutputStream();
+
+        writeVarint(nodes, contacts.size());
+        Deque<Contact> pending = new ArrayDeque<>();
+        pushReversed(pending, contacts);
+        while (!pending.isEmpty()) {
+            Contact contact = pending.pop();
+            List<Contact> children = contact.getContacts();
+            writeVarint(nodes, stringRef(contact.getId(), stringRefs, strings));
+            writeVarint(nodes, stringRef(contact.getName(), stringRefs, strings));
+            writeVarint(nodes, stringRef(contact.getLastName(), stringRefs, strings));
+            writeVarint(nodes, children.size());
+            pushReversed(pending, children);
+        }
+
+        out.write(MAGIC);
+        writeVarint(out, strings.size());
+        for (byte[] string : strings) {
+            writeVarint(out, string.length);
+            out.write(string);
+        }
+        nodes.writeTo(out);
+    }
+
+    public static List<Contact> decode(byte[] bytes) throws IOException {
+        return decode(new ByteArrayInputStream(bytes));
+    }
+
+    public static List<Contact> decode(InputStream in) throws IOException {
+        for (byte expected : MAGIC) {
+            if (readByte(in) != (expected & 0xFF)) {
+                throw new IOException("Not a contact tree: unexpected header");
+            }
+        }
+
+        int stringCount = readVarint(in);
+        List<String> table = new ArrayList<>(Math.min(stringCount, 1024));
+        for (int i = 0; i < stringCount; i++) {
+            int length = readVarint(in);
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException("Truncated contact tree");
+            }
+            table.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        String[] strings = table.toArray(new String[0]);
+
+        int rootCount = readVarint(in);
+        List<Contact> roots = new ArrayList<>(Math.min(rootCount, 1024));
+        Deque<int[]> remaining = new ArrayDeque<>();
+        Deque<Contact> parents = new ArrayDeque<>();
+        int rootsLeft = rootCount;
+
+        while (rootsLeft > 0 || !remaining.isEmpty()) {
+            Contact contact = new Contact(string(strings, readVarint(in)));
+            contact.setName(string(strings, readVarint(in)));
+            contact.setLastName(string(strings, readVarint(in)));
+            int childCount = readVarint(in);
+
+            if (remaining.isEmpty()) {
+                roots.add(contact);
+                rootsLeft--;
+            } else {
+                parents.peek().addSubContact(contact);
+                remaining.peek()[0]--;
+            }
+
+            if (childCount > 0) {
+                parents.push(contact);
+                remaining.push(new int[] {childCount});
+            }
+            while (!remaining.isEmpty() && remaining.peek()[0] == 0) {
+                remaining.pop();
+                parents.pop();
+            }
+        }
+        return roots;
+    }
+
+    private static void pushReversed(Deque<Contact> pending, List<? extends Contact> contacts) {
+        for (int i = contacts.size() - 1; i >= 0; i--) {
+            pending.push(contacts.get(i));
+        }
+    }
+
+    private static int stringRef(String value, Map<String, Integer> stringRefs, List<byte[]> strings) {
+        if (value == null) {
+            return 0;
+        }
+        Integer ref = stringRefs.get(value);
+        if (ref == null) {
+            strings.add(value.getBytes(StandardCharsets.UTF_8));
+            ref = strings.size();
+            stringRefs.put(value, ref);
+        }
+        return ref;
+    }
+
+    private static String string(String[] strings, int ref) throws IOException {
+        if (ref == 0) {
+            return null;
+        }
+        if (ref > strings.length) {
+            throw new IOException("Malformed contact tree: string reference " + ref + " out of range");
+        }
+        return strings[ref - 1];
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte(in);
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("Malformed contact tree: negative length");
+                }
+                return value;
+            }
+        }
+        throw new IOException("Malformed contact tree: varint too long");
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            throw new EOFException("Truncated contact tree");
+        }
+        return b;
+    }
+}
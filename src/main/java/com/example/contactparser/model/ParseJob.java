@@ -0,0 +1,123 @@
+package com.example.contactparser.model;
+
+import java.time.Instant;
+import java.util.List;
+
+public class ParseJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final String source;
+    private final long totalBytes;
+    private final Instant submittedAt;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile int contactsParsed;
+    private volatile long bytesRead;
+
+    private volatile List<Contact> contacts;
+    private volatile String error;
+    private volatile String errorType;
+    private volatile Integer lineNumber;
+    private volatile Integer columnNumber;
+
+    public ParseJob(String id, String source, long totalBytes) {
+        this.id = id;
+        this.source = source;
+        this.totalBytes = totalBytes;
+        this.submittedAt = Instant.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public boolean isDone() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public int getContactsParsed() {
+        return contactsParsed;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public List<Contact> getContacts() {
+        return contacts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getErrorType() {
+        return errorType;
+    }
+
+    public Integer getLineNumber() {
+        return lineNumber;
+    }
+
+    public Integer getColumnNumber() {
+        return columnNumber;
+    }
+
+    public void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    public void progress(int contactsParsed, long bytesRead) {
+        this.contactsParsed = contactsParsed;
+        this.bytesRead = bytesRead;
+    }
+
+    public void complete(List<Contact> contacts) {
+        this.contacts = contacts;
+        completedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String error, String errorType, Integer lineNumber, Integer columnNumber) {
+        this.error = error;
+        this.errorType = errorType;
+        this.lineNumber = lineNumber;
+        this.columnNumber = columnNumber;
+        completedAt = Instant.now();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.contactparser.model;
+
+import java.util.List;
+
+public record ParseResult(List<Contact> contacts, int contactCount, int maxDepth, long stringLookups, long stringHits) {
+
+    public int getCount() {
+        return contacts.size();
+    }
+
+    public double getDedupRatio() {
+        return stringLookups == 0 ? 0 : (double) stringHits / stringLookups;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.contactparser.model;
+
+import java.time.Instant;
+
+public class ParseSession {
+
+    private final String id;
+    private final String source;
+    private final ContactTable table;
+    private final ContactIndex index;
+    private final int rootCount;
+    private final int contactCount;
+    private final long retainedBytes;
+    private final Instant createdAt;
+
+    private volatile Instant lastAccessedAt;
+    private boolean released;
+
+    public ParseSession(String id, String source, ContactTable table) {
+        this.id = id;
+        this.source = source;
+        this.table = table;
+        this.index = ContactIndex.build(table);
+        this.rootCount = table.getRootCount();
+        this.contactCount = table.size();
+        this.retainedBytes = table.estimateRetainedBytes() + index.estimateRetainedBytes();
+        this.createdAt = Instant.now();
+        this.lastAccessedAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public ContactTable getTable() {
+        return table;
+    }
+
+    public ContactIndex getIndex() {
+        return index;
+    }
+
+    public int getRootCount() {
+        return rootCount;
+    }
+
+    public int getContactCount() {
+        return contactCount;
+    }
+
+    public long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    public void touch() {
+        lastAccessedAt = Instant.now();
+    }
+
+    // Readers hold the session monitor while they copy contacts out of the table, so release waits for them.
+    public synchronized void release() {
+        released = true;
+        index.release();
+        table.release();
+    }
+
+    public synchronized boolean isReleased() {
+        return released;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.model.Contact;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class BatchParseService {
+
+    private final ContactXmlParserService parserService;
+    private final int maxItems;
+    private final ThreadPoolExecutor executor;
+
+    public BatchParseService(ContactXmlParserService parserService, ContactParserProperties properties) {
+        ContactParserProperties.Batch config = properties.getBatch();
+        this.parserService = parserService;
+        this.maxItems = config.getMaxItems();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                config.getThreads(),
+                config.getThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "batch-parse-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    public List<Result> parseAll(List<Item> items) throws InterruptedException {
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("At least one file or file path is required");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException(
+                    "A batch may contain at most " + maxItems + " items, got " + items.size());
+        }
+
+        List<Future<List<Contact>>> futures = new ArrayList<>(items.size());
+        try {
+            for (Item item : items) {
+                futures.add(executor.submit(() -> parse(item)));
+            }
+        } catch (RejectedExecutionException e) {
+            // A batch runs whole or not at all, so the items already queued are dropped and free their queue slots.
+            futures.forEach(future -> future.cancel(true));
+            executor.purge();
+            throw e;
+        }
+
+        List<Result> results = new ArrayList<>(items.size());
+        try {
+            for (int i = 0; i < items.size(); i++) {
+                results.add(await(items.get(i), futures.get(i)));
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<Contact> parse(Item item) throws Exception {
+        if (item.upload() == null) {
+            try {
+                return parserService.parse(item.filePath());
+            } catch (Exception e) {
+                XmlParsingException failure = parserService.describeFailure(e);
+                throw failure != null ? failure : e;
+            }
+        }
+        try (InputStream inputStream = item.upload().getInputStream()) {
+            return parserService.parseFromInputStream(inputStream);
+        }
+    }
+
+    private static Result await(Item item, Future<List<Contact>> future) throws InterruptedException {
+        try {
+            return new Result(item.source(), future.get(), null);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            return new Result(item.source(), null, cause instanceof Exception exception ? exception : e);
+        }
+    }
+
+    public record Item(String source, String filePath, InputStreamSource upload) {
+
+        public static Item path(String filePath) {
+            return new Item(filePath, filePath, null);
+        }
+
+        public static Item upload(String fileName, InputStreamSource upload) {
+            return new Item(fileName, null, upload);
+        }
+    }
+
+    public record Result(String source, List<Contact> contacts, Exception error) {
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
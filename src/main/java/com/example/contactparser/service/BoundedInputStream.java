@@ -0,0 +1,55 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.handler.ParseBudget;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+class BoundedInputStream extends FilterInputStream {
+
+    private final long limit;
+    private long count;
+
+    BoundedInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            consumed(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) {
+            consumed(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        consumed(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void consumed(long bytes) {
+        count += bytes;
+        if (count > limit) {
+            throw ParseBudget.exceeded(ParseBudget.Limit.INPUT_SIZE, limit, null, null);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.exception.XmlParsingException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+final class CompressedInput {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CompressedInput() {
+    }
+
+    static InputStream decode(InputStream in, String contentEncoding) throws IOException {
+        String encoding = normalize(contentEncoding);
+        PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        byte[] magic = new byte[2];
+        int read = pushback.readNBytes(magic, 0, 2);
+        pushback.unread(magic, 0, read);
+
+        if ("gzip".equals(encoding) || isGzip(magic, read)) {
+            return new GZIPInputStream(pushback, BUFFER_SIZE);
+        }
+        if (isZlib(magic, read)) {
+            return new InflatingInputStream(pushback, new Inflater());
+        }
+        if ("deflate".equals(encoding)) {
+            return new InflatingInputStream(pushback, new Inflater(true));
+        }
+        return pushback;
+    }
+
+    static boolean isCompressed(File file) throws IOException {
+        byte[] magic = new byte[2];
+        int read;
+        try (InputStream in = new FileInputStream(file)) {
+            read = in.readNBytes(magic, 0, 2);
+        }
+        return isGzip(magic, read) || isZlib(magic, read);
+    }
+
+    private static String normalize(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.isBlank()) {
+            return null;
+        }
+        String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> "gzip";
+            case "deflate" -> "deflate";
+            case "identity" -> null;
+            default -> throw new XmlParsingException(
+                    "Unsupported content encoding: " + contentEncoding + ". Supported encodings are gzip, deflate and identity.",
+                    "UNSUPPORTED_CONTENT_ENCODING"
+            );
+        };
+    }
+
+    private static boolean isGzip(byte[] magic, int read) {
+        return read == 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B;
+    }
+
+    private static boolean isZlib(byte[] magic, int read) {
+        int cmf = magic[0] & 0xFF;
+        int flg = magic[1] & 0xFF;
+        return read == 2 && (cmf & 0x0F) == 8 && (cmf >> 4) <= 7 && ((cmf << 8) | flg) % 31 == 0;
+    }
+
+    private static final class InflatingInputStream extends InflaterInputStream {
+
+        private InflatingInputStream(InputStream in, Inflater inflater) {
+            super(in, inflater, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.contactparser.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+public class ContactChunkScanner {
+
+    private static final Map<String, String> SUPPORTED_ENCODINGS = Map.of(
+            "UTF-8", "UTF-8",
+            "UTF8", "UTF-8",
+            "US-ASCII", "US-ASCII",
+            "ASCII", "US-ASCII",
+            "ISO-8859-1", "ISO-8859-1",
+            "LATIN1", "ISO-8859-1"
+    );
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[64 * 1024];
+    private int bufferLength;
+    private int bufferPosition;
+    private long position;
+
+    private ContactChunkScanner(InputStream in) {
+        this.in = in;
+    }
+
+    public static Layout scan(InputStream in) throws IOException {
+        return new ContactChunkScanner(in).scan();
+    }
+
+    private Layout scan() throws IOException {
+        String encoding = "UTF-8";
+        long[] contactStarts = new long[64];
+        int contactCount = 0;
+        long rootContentStart = -1;
+        long rootContentEnd = -1;
+        int depth = 0;
+        long declarationOffset = 0;
+        boolean bomChecked = false;
+
+        int b;
+        while ((b = next()) != -1) {
+            if (!bomChecked) {
+                bomChecked = true;
+                if (b == 0xEF) {
+                    if (next() != 0xBB || next() != 0xBF) {
+                        return null;
+                    }
+                    declarationOffset = position;
+                    continue;
+                }
+                if (b == 0xFE || b == 0xFF || b == 0x00) {
+                    return null;
+                }
+            }
+
+            if (b != '<') {
+                if (depth == 0 && !isWhitespace(b)) {
+                    return null;
+                }
+                continue;
+            }
+
+            long tagStart = position - 1;
+            int first = next();
+
+            if (first == '?') {
+                boolean declaration = tagStart == declarationOffset;
+                String instruction = skipTo("?>", declaration);
+                if (instruction == null) {
+                    return null;
+                }
+                if (declaration) {
+                    encoding = declaredEncoding(instruction, encoding);
+                    if (encoding == null) {
+                        return null;
+                    }
+                }
+            } else if (first == '!') {
+                int kind = next();
+                if (kind == '-' && matches("-")) {
+                    if (skipTo("-->", false) == null) {
+                        return null;
+                    }
+                } else if (kind == '[' && depth > 0 && matches("CDATA[")) {
+                    if (skipTo("]]>", false) == null) {
+                        return null;
+                    }
+                } else {
+                    return null;
+                }
+            } else if (first == '/') {
+                if (skipTag() < 0) {
+                    return null;
+                }
+                depth--;
+                if (depth < 0) {
+                    return null;
+                }
+                if (depth == 0) {
+                    rootContentEnd = tagStart;
+                }
+            } else if (first != -1) {
+                if (rootContentEnd >= 0) {
+                    return null;
+                }
+
+                String name = readName(first);
+                int end = skipTag();
+                if (end < 0) {
+                    return null;
+                }
+                boolean selfClosing = end == '/';
+
+                if (depth == 0) {
+                    if (!"contacts".equals(name) || selfClosing) {
+                        return null;
+                    }
+                    rootContentStart = position;
+                } else if (depth == 1 && "contact".equals(name)) {
+                    if (contactCount == contactStarts.length) {
+                        contactStarts = Arrays.copyOf(contactStarts, contactCount * 2);
+                    }
+                    contactStarts[contactCount++] = tagStart;
+                }
+
+                if (!selfClosing) {
+                    depth++;
+                }
+            } else {
+                return null;
+            }
+        }
+
+        if (depth != 0 || rootContentStart < 0 || rootContentEnd < 0) {
+            return null;
+        }
+
+        return new Layout(encoding, rootContentStart, rootContentEnd, Arrays.copyOf(contactStarts, contactCount));
+    }
+
+    private int next() throws IOException {
+        if (bufferPosition == bufferLength && !fill()) {
+            return -1;
+        }
+        position++;
+        return buffer[bufferPosition++] & 0xFF;
+    }
+
+    private boolean matches(String expected) throws IOException {
+        for (int i = 0; i < expected.length(); i++) {
+            if (next() != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String skipTo(String terminator, boolean capture) throws IOException {
+        StringBuilder captured = capture ? new StringBuilder() : null;
+        int length = terminator.length();
+        int[] window = new int[length];
+        long seen = 0;
+        int b;
+
+        while ((b = next()) != -1) {
+            if (captured != null && captured.length() < 256) {
+                captured.append((char) b);
+            }
+            window[(int) (seen++ % length)] = b;
+            if (seen >= length && endsWith(window, seen, terminator)) {
+                return captured != null ? captured.toString() : "";
+            }
+        }
+        return null;
+    }
+
+    private static boolean endsWith(int[] window, long seen, String terminator) {
+        int length = terminator.length();
+        for (int i = 0; i < length; i++) {
+            if (window[(int) ((seen - length + i) % length)] != terminator.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readName(int first) throws IOException {
+        StringBuilder name = new StringBuilder();
+        name.append((char) first);
+        while (bufferPosition < bufferLength || fill()) {
+            int b = buffer[bufferPosition] & 0xFF;
+            if (isWhitespace(b) || b == '/' || b == '>') {
+                break;
+            }
+            name.append((char) b);
+            bufferPosition++;
+            position++;
+            if (name.length() > 16) {
+                break;
+            }
+        }
+        return name.toString();
+    }
+
+    private boolean fill() throws IOException {
+        bufferLength = in.read(buffer, 0, buffer.length);
+        bufferPosition = 0;
+        if (bufferLength <= 0) {
+            bufferLength = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private int skipTag() throws IOException {
+        int quote = 0;
+        int previous = 0;
+        int b;
+
+        while ((b = next()) != -1) {
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                return previous;
+            }
+            previous = b;
+        }
+        return -1;
+    }
+
+    private static String declaredEncoding(String declaration, String defaultEncoding) {
+        int index = declaration.indexOf("encoding");
+        if (index < 0) {
+            return defaultEncoding;
+        }
+
+        int open = index + "encoding".length();
+        while (open < declaration.length() && declaration.charAt(open) != '"' && declaration.charAt(open) != '\'') {
+            open++;
+        }
+        if (open >= declaration.length()) {
+            return null;
+        }
+        int close = declaration.indexOf(declaration.charAt(open), open + 1);
+        if (close < 0) {
+            return null;
+        }
+
+        String encoding = declaration.substring(open + 1, close).toUpperCase(Locale.ROOT);
+        return SUPPORTED_ENCODINGS.get(encoding);
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    public record Layout(String encoding, long rootContentStart, long rootContentEnd, long[] contactStarts) {
+
+        public long[] chunkBoundaries(long chunkSize) {
+            long[] boundaries = new long[contactStarts.length + 2];
+            int count = 0;
+            boundaries[count++] = rootContentStart;
+
+            for (long start : contactStarts) {
+                if (start - boundaries[count - 1] >= chunkSize) {
+                    boundaries[count++] = start;
+                }
+            }
+
+            boundaries[count++] = rootContentEnd;
+            return Arrays.copyOf(boundaries, count);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.contactparser.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ContactParserMetrics {
+
+    public static final String PARSE_TIMER = "contactparser.parse";
+    public static final String INPUT_SIZE = "contactparser.parse.input.size";
+    public static final String CONTACTS = "contactparser.parse.contacts";
+    public static final String DEPTH = "contactparser.parse.depth";
+    public static final String FAILURES = "contactparser.parse.failures";
+    public static final String SNAPSHOTS = "contactparser.snapshots";
+
+    private final MeterRegistry registry;
+    private final Map<EntryPoint, Meters> meters = new EnumMap<>(EntryPoint.class);
+    private final Map<String, Counter> snapshotCounters = new ConcurrentHashMap<>();
+
+    public ContactParserMetrics(MeterRegistry registry, SaxParserPool saxParserPool) {
+        this.registry = registry;
+        for (EntryPoint entryPoint : EntryPoint.values()) {
+            meters.put(entryPoint, new Meters(registry, entryPoint.tag()));
+        }
+
+        // Several services can share one registry (tests, restarts); the pool meters keep following the first pool.
+        if (isRegistered("contactparser.sax.pool.idle")) {
+            return;
+        }
+        Gauge.builder("contactparser.sax.pool.idle", saxParserPool, pool -> pool.getStats().idle())
+                .description("SAX parsers waiting in the pool")
+                .register(registry);
+        FunctionCounter.builder("contactparser.sax.pool.borrows", saxParserPool, pool -> pool.getStats().borrows())
+                .description("SAX parsers borrowed from the pool")
+                .register(registry);
+        FunctionCounter.builder("contactparser.sax.pool.misses", saxParserPool, pool -> pool.getStats().misses())
+                .description("SAX parser borrows that had to create a new parser")
+                .register(registry);
+    }
+
+    public void bindContentCache(ContentResultCache cache) {
+        if (isRegistered("contactparser.content.cache.size")) {
+            return;
+        }
+        FunctionCounter.builder("contactparser.content.cache.hits", cache, c -> c.getStats().hits())
+                .description("Content parses answered from the result cache")
+                .register(registry);
+        FunctionCounter.builder("contactparser.content.cache.misses", cache, c -> c.getStats().misses())
+                .description("Content parses that missed the result cache")
+                .register(registry);
+        FunctionCounter.builder("contactparser.content.cache.evictions", cache, c -> c.getStats().evictions())
+                .description("Results evicted from the content cache")
+                .register(registry);
+        Gauge.builder("contactparser.content.cache.size", cache, c -> c.getStats().bytes())
+                .description("Estimated bytes retained by the content cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public void bindFileCache(FileResultCache cache) {
+        if (isRegistered("contactparser.file.cache.size")) {
+            return;
+        }
+        FunctionCounter.builder("contactparser.file.cache.hits", cache, c -> c.getStats().hits())
+                .description("Path parses answered from the file result cache")
+                .register(registry);
+        FunctionCounter.builder("contactparser.file.cache.misses", cache, c -> c.getStats().misses())
+                .description("Path parses that missed the file result cache")
+                .register(registry);
+        FunctionCounter.builder("contactparser.file.cache.invalidations", cache, c -> c.getStats().invalidations())
+                .description("File cache entries dropped because the file changed")
+                .register(registry);
+        Gauge.builder("contactparser.file.cache.size", cache, c -> c.getStats().bytes())
+                .description("Estimated bytes retained by the file cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public void snapshot(String outcome) {
+        snapshotCounters.computeIfAbsent(outcome, key -> Counter.builder(SNAPSHOTS)
+                .description("Snapshot loads and writes by outcome")
+                .tag("outcome", key)
+                .register(registry))
+                .increment();
+    }
+
+    private boolean isRegistered(String name) {
+        return registry.find(name).meter() != null;
+    }
+
+    // Results served from a cache are not timed as parses, but still count their contacts and depth.
+    public void cacheHit(EntryPoint entryPoint, int contactCount, int maxDepth) {
+        Meters entryMeters = meters.get(entryPoint);
+        entryMeters.contacts.increment(contactCount);
+        entryMeters.depth.record(maxDepth);
+    }
+
+    public Sample start(EntryPoint entryPoint) {
+        return new Sample(meters.get(entryPoint), Timer.start(registry));
+    }
+
+    public enum EntryPoint {
+        CONTENT,
+        UPLOAD,
+        PATH;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public final class Sample {
+
+        private final Meters meters;
+        private final Timer.Sample timerSample;
+
+        private Sample(Meters meters, Timer.Sample timerSample) {
+            this.meters = meters;
+            this.timerSample = timerSample;
+        }
+
+        public void inputSize(long bytes) {
+            meters.inputSize.record(bytes);
+        }
+
+        public void success(int contactCount, int maxDepth) {
+            timerSample.stop(meters.success);
+            meters.contacts.increment(contactCount);
+            meters.depth.record(maxDepth);
+        }
+
+        public void failure(String errorType) {
+            timerSample.stop(meters.failure);
+            meters.failures.computeIfAbsent(errorType == null ? "UNKNOWN_ERROR" : errorType, type -> Counter.builder(FAILURES)
+                    .description("Failed parses by error type")
+                    .tag("entryPoint", meters.entryPoint)
+                    .tag("errorType", type)
+                    .register(registry))
+                    .increment();
+        }
+    }
+
+    private static final class Meters {
+
+        private final String entryPoint;
+        private final Timer success;
+        private final Timer failure;
+        private final DistributionSummary inputSize;
+        private final Counter contacts;
+        private final DistributionSummary depth;
+        private final Map<String, Counter> failures = new ConcurrentHashMap<>();
+
+        private Meters(MeterRegistry registry, String entryPoint) {
+            this.entryPoint = entryPoint;
+            this.success = parseTimer(registry, entryPoint, "success");
+            this.failure = parseTimer(registry, entryPoint, "failure");
+            this.inputSize = DistributionSummary.builder(INPUT_SIZE)
+                    .description("Size of the XML input consumed by a parse")
+                    .baseUnit("bytes")
+                    .tag("entryPoint", entryPoint)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.contacts = Counter.builder(CONTACTS)
+                    .description("Contacts produced by successful parses")
+                    .baseUnit("contacts")
+                    .tag("entryPoint", entryPoint)
+                    .register(registry);
+            this.depth = DistributionSummary.builder(DEPTH)
+                    .description("Maximum contact nesting depth of a parsed document")
+                    .tag("entryPoint", entryPoint)
+                    .register(registry);
+        }
+
+        private static Timer parseTimer(MeterRegistry registry, String entryPoint, String outcome) {
+            return Timer.builder(PARSE_TIMER)
+                    .description("Time spent parsing an XML document")
+                    .tag("entryPoint", entryPoint)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+        }
+    }
+}
@@ -1,22 +1,183 @@
 package com.example.contactparser.service;
 
+import com.example.contactparser.config.ContactParserProperties;
 import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.handler.ContactProjection;
+import com.example.contactparser.handler.ContactSink;
+import com.example.contactparser.handler.ContactStaxReader;
+import com.example.contactparser.handler.ContactTableBuilder;
+import com.example.contactparser.handler.ContactTreeBuilder;
+import com.example.contactparser.handler.ParseBudget;
+import com.example.contactparser.handler.StringDictionary;
 import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ContactTable;
+import com.example.contactparser.model.ContactTableSnapshot;
+import com.example.contactparser.model.ParseResult;
 import com.example.contactparser.handler.ContactSaxHandler;
+import com.example.contactparser.service.ContactParserMetrics.EntryPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 @Service
 public class ContactXmlParserService {
 
+    private static final byte[] CHUNK_ROOT_START = "<contacts>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CHUNK_ROOT_END = "</contacts>".getBytes(StandardCharsets.US_ASCII);
+
+    private final ContactParserProperties properties;
+    private final XMLInputFactory xmlInputFactory = ContactStaxReader.newInputFactory();
+    private final SaxParserPool saxParserPool;
+    private final StringDictionary sharedStringDictionary;
+    private final ContentResultCache contentCache;
+    private final FileResultCache fileCache;
+    private final ContactParserMetrics metrics;
+    private ForkJoinPool parallelPool;
+
+    public ContactXmlParserService() {
+        this(new ContactParserProperties());
+    }
+
+    public ContactXmlParserService(ContactParserProperties properties) {
+        this(properties, new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public ContactXmlParserService(ContactParserProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.saxParserPool = new SaxParserPool(
+                properties.getSaxPool().getMaxSize(),
+                properties.getSaxPool().getBorrowTimeout()
+        );
+        this.sharedStringDictionary = properties.getStringDictionary().isShared()
+                ? new StringDictionary(properties.getStringDictionary().getMaxEntries())
+                : null;
+        this.contentCache = properties.getContentCache().isEnabled()
+                ? new ContentResultCache(properties.getContentCache().getMaxSize().toBytes())
+                : null;
+        this.fileCache = newFileCache(properties.getFileCache());
+        this.metrics = new ContactParserMetrics(meterRegistry, saxParserPool);
+        if (contentCache != null) {
+            metrics.bindContentCache(contentCache);
+        }
+        if (fileCache != null) {
+            metrics.bindFileCache(fileCache);
+        }
+    }
+
+    public ParserEngine getDefaultEngine() {
+        return properties.getEngine();
+    }
+
+    public SaxParserPool.Stats getSaxParserPoolStats() {
+        return saxParserPool.getStats();
+    }
+
+    public ContentResultCache.Stats getContentCacheStats() {
+        return contentCache != null ? contentCache.getStats() : null;
+    }
+
+    public FileResultCache.Stats getFileCacheStats() {
+        return fileCache != null ? fileCache.getStats() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        synchronized (this) {
+            if (parallelPool != null) {
+                parallelPool.shutdownNow();
+            }
+        }
+        if (fileCache != null) {
+            fileCache.close();
+        }
+    }
+
     public List<Contact> parse(String filePath) throws Exception {
+        return parse(filePath, (ParserEngine) null);
+    }
+
+    public List<Contact> parse(String filePath, ParserEngine engine) throws Exception {
+        ParseOptions options = new ParseOptions();
+        options.setEngine(engine);
+        if (isCached(filePath, options)) {
+            return parseCached(filePath, options);
+        }
+        return parse(filePath, options).contacts();
+    }
+
+    public ParseResult parse(String filePath, ParseOptions options) throws Exception {
+        ContactParserMetrics.Sample sample = metrics.start(EntryPoint.PATH);
+        try {
+            File file = checkFile(filePath);
+            sample.inputSize(file.length());
+            ParseResult result = parseFile(file, options);
+            sample.success(result.contactCount(), result.maxDepth());
+            return result;
+        } catch (Exception e) {
+            sample.failure(errorTypeOf(e));
+            throw e;
+        }
+    }
+
+    private ParseResult parseFile(File file, ParseOptions options) throws Exception {
+        if (isParallel(file, options)) {
+            ParseResult result = parseInParallel(file, options);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        ContactTreeBuilder builder = newTreeBuilder(null, options);
+        readFile(file, options, builder);
+        return toResult(builder);
+    }
+
+    public int stream(String filePath, Consumer<Contact> rootContactConsumer) throws Exception {
+        ContactTreeBuilder builder = newTreeBuilder(rootContactConsumer, null);
+        readPath(filePath, null, builder);
+        return builder.getRootContactCount();
+    }
+
+    public ContactTable parseTable(String filePath) throws Exception {
+        return parseTable(filePath, 0);
+    }
+
+    public ContactTable parseTable(String filePath, long maxRetainedBytes) throws Exception {
+        ContactTableBuilder builder = new ContactTableBuilder(maxRetainedBytes);
+        readPath(filePath, null, builder);
+        return builder.getTable();
+    }
+
+    private File checkFile(String filePath) throws FileNotFoundException {
         File file = new File(filePath);
 
         if (!file.exists()) {
@@ -31,18 +192,168 @@ public class ContactXmlParserService {
             throw new SecurityException("Cannot read file: " + filePath);
         }
 
+        checkInputSize(file.length());
+
+        return file;
+    }
+
+    // Files that are parsed in parallel, or that could never fit the file cache, skip it. Snapshots pay off for any size.
+    private boolean isCached(String filePath, ParseOptions options) {
+        if (properties.getSnapshots().isEnabled()) {
+            return true;
+        }
+        if (fileCache == null) {
+            return false;
+        }
+        File file = new File(filePath);
+        return file.length() <= fileCache.getMaxBytes() && !isParallel(file, options);
+    }
+
+    private List<Contact> parseCached(String filePath, ParseOptions options) throws Exception {
+        Path path;
+        BasicFileAttributes attributes;
+        try {
+            path = checkFile(filePath).toPath().toRealPath();
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (Exception e) {
+            metrics.start(EntryPoint.PATH).failure(errorTypeOf(e));
+            throw e;
+        }
+
+        ContactTable table = fileCache != null ? fileCache.get(path, attributes.lastModifiedTime(), attributes.size()) : null;
+        Path snapshot = properties.getSnapshots().isEnabled()
+                ? path.resolveSibling(path.getFileName() + properties.getSnapshots().getSuffix())
+                : null;
+        boolean fromCache = table != null;
+        if (!fromCache && snapshot != null) {
+            table = readSnapshot(snapshot, attributes);
+        }
+        boolean parsed = table == null;
+        List<Contact> contacts = null;
+        if (parsed && isParallel(path.toFile(), options)) {
+            // Snapshots must not cost large files their parallel parse, so the table is built from the parsed tree.
+            contacts = parse(filePath, options).contacts();
+            table = tableOf(contacts);
+            writeSnapshot(table, snapshot, attributes);
+        } else if (parsed) {
+            table = loadTable(filePath, options, snapshot, attributes);
+        }
+        if (!fromCache && fileCache != null) {
+            fileCache.put(path, attributes.lastModifiedTime(), attributes.size(), table);
+        }
+        if (contacts != null) {
+            return contacts;
+        }
+
+        // The table may be held by the file cache or backed by a snapshot mapping; the caller gets a tree of its own.
+        ContactTreeBuilder builder = newTreeBuilder(null, options);
+        replay(table, builder);
+        if (!parsed) {
+            metrics.cacheHit(EntryPoint.PATH, builder.getContactCount(), builder.getMaxDepth());
+        }
+        return builder.getRootContacts();
+    }
+
+    private ContactTable loadTable(String filePath, ParseOptions options, Path snapshot, BasicFileAttributes attributes) throws Exception {
+        ContactTableBuilder builder = new ContactTableBuilder();
+        readPath(filePath, options, builder);
+        ContactTable table = builder.getTable();
+        writeSnapshot(table, snapshot, attributes);
+        return table;
+    }
+
+    private void writeSnapshot(ContactTable table, Path snapshot, BasicFileAttributes attributes) {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            ContactTableSnapshot.write(table, snapshot, attributes.size(), attributes.lastModifiedTime());
+            metrics.snapshot("written");
+        } catch (IOException | RuntimeException e) {
+            // A directory we cannot write to only means the next load parses the XML again.
+            metrics.snapshot("write_failed");
+        }
+    }
+
+    // Feeds a contact tree into a table builder in document order, the reverse of replay().
+    private static ContactTable tableOf(List<Contact> rootContacts) {
+        ContactTableBuilder builder = new ContactTableBuilder();
+        Deque<Iterator<Contact>> open = new ArrayDeque<>();
+        open.push(rootContacts.iterator());
+        while (!open.isEmpty()) {
+            Iterator<Contact> siblings = open.peek();
+            if (!siblings.hasNext()) {
+                open.pop();
+                if (!open.isEmpty()) {
+                    builder.endContact();
+                }
+                continue;
+            }
+            Contact contact = siblings.next();
+            builder.startContact(contact.getId());
+            if (contact.getName() != null) {
+                builder.name(contact.getName(), 0, contact.getName().length());
+            }
+            if (contact.getLastName() != null) {
+                builder.lastName(contact.getLastName(), 0, contact.getLastName().length());
+            }
+            open.push(contact.getContacts().iterator());
+        }
+        return builder.getTable();
+    }
+
+    private ContactTable readSnapshot(Path snapshot, BasicFileAttributes attributes) {
         try {
-            SAXParserFactory factory = SAXParserFactory.newInstance();
-            factory.setNamespaceAware(false);
-            factory.setValidating(false);
-            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            ContactTable table = ContactTableSnapshot.read(snapshot, attributes.size(), attributes.lastModifiedTime());
+            long maxContacts = properties.getLimits().getMaxContacts();
+            if (table == null || (maxContacts > 0 && table.size() > maxContacts)) {
+                metrics.snapshot("stale");
+                return null;
+            }
+            metrics.snapshot("loaded");
+            return table;
+        } catch (NoSuchFileException e) {
+            metrics.snapshot("missing");
+        } catch (IOException | RuntimeException e) {
+            metrics.snapshot("corrupt");
+        }
+        return null;
+    }
 
-            SAXParser parser = factory.newSAXParser();
-            ContactSaxHandler handler = new ContactSaxHandler();
+    private void readPath(String filePath, ParseOptions options, ContactSink sink) throws Exception {
+        ContactParserMetrics.Sample sample = metrics.start(EntryPoint.PATH);
+        try {
+            File file = checkFile(filePath);
+            sample.inputSize(file.length());
+            readFile(file, options, sink);
+            sample.success(sink.getContactCount(), sink.getMaxDepth());
+        } catch (Exception e) {
+            sample.failure(errorTypeOf(e));
+            throw e;
+        }
+    }
 
-            parser.parse(file, handler);
-            return handler.getRootContacts();
+    private void readFile(File file, ParseOptions options, ContactSink sink) throws Exception {
+        ParseBudget budget = newBudget(sink);
+        try {
+            if (CompressedInput.isCompressed(file)) {
+                try (InputStream in = boundedInput(CompressedInput.decode(new FileInputStream(file), null))) {
+                    InputSource source = new InputSource(in);
+                    source.setSystemId(file.toURI().toASCIIString());
+                    parseSource(source, engineFor(options), projectionFor(options), budget, sink);
+                }
+            } else if (isMappedInput(options)) {
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    InputSource source = new InputSource(new MappedFileInputStream(channel, 0, channel.size(), mappingWindowSize()));
+                    source.setSystemId(file.toURI().toASCIIString());
+                    parseSource(source, engineFor(options), projectionFor(options), budget, sink);
+                }
+            } else {
+                parseSource(new InputSource(file.toURI().toASCIIString()), engineFor(options), projectionFor(options), budget, sink);
+            }
 
+        } catch (XmlParsingException e) {
+            throw e;
         } catch (SAXParseException e) {
             String errorType = determineErrorType(e.getMessage());
             String userFriendlyMessage = formatParseError(e, errorType);
@@ -59,45 +370,93 @@ public class ContactXmlParserService {
     }
 
     public List<Contact> parseFromContent(String xmlContent) {
+        return parseFromContent(xmlContent, getDefaultEngine());
+    }
+
+    public List<Contact> parseFromContent(String xmlContent, ParserEngine engine) {
+        if (contentCache != null && xmlContent != null) {
+            String key = ContentResultCache.keyOf(xmlContent);
+            ContactTable table = contentCache.get(key);
+            boolean hit = table != null;
+            if (!hit) {
+                ContactTableBuilder tableBuilder = new ContactTableBuilder();
+                readContent(xmlContent, engine, ContactProjection.ALL, tableBuilder);
+                table = tableBuilder.getTable();
+                contentCache.put(key, table);
+            }
+
+            // The cached table is shared, so every caller gets its own mutable contacts.
+            ContactTreeBuilder builder = newTreeBuilder(null, null);
+            replay(table, builder);
+            if (hit) {
+                metrics.cacheHit(EntryPoint.CONTENT, builder.getContactCount(), builder.getMaxDepth());
+            }
+            return builder.getRootContacts();
+        }
+
+        ContactTreeBuilder builder = newTreeBuilder(null, null);
+        readContent(xmlContent, engine, ContactProjection.ALL, builder);
+        return builder.getRootContacts();
+    }
+
+    public ParseResult parseFromContent(String xmlContent, ParseOptions options) {
+        ContactTreeBuilder builder = newTreeBuilder(null, options);
+        readContent(xmlContent, engineFor(options), projectionFor(options), builder);
+        return toResult(builder);
+    }
+
+    public int streamFromContent(String xmlContent, Consumer<Contact> rootContactConsumer) {
+        ContactTreeBuilder builder = newTreeBuilder(rootContactConsumer, null);
+        readContent(xmlContent, getDefaultEngine(), ContactProjection.ALL, builder);
+        return builder.getRootContactCount();
+    }
+
+    public ContactTable parseTableFromContent(String xmlContent) {
+        return parseTableFromContent(xmlContent, 0);
+    }
+
+    public ContactTable parseTableFromContent(String xmlContent, long maxRetainedBytes) {
+        ContactTableBuilder builder = new ContactTableBuilder(maxRetainedBytes);
+        readContent(xmlContent, getDefaultEngine(), ContactProjection.ALL, builder);
+        return builder.getTable();
+    }
+
+    private void readContent(String xmlContent, ParserEngine engine, ContactProjection projection, ContactSink sink) {
+        ContactParserMetrics.Sample sample = metrics.start(EntryPoint.CONTENT);
+        try {
+            sample.inputSize(xmlContent == null ? 0 : xmlContent.length());
+            parseContent(xmlContent, engine, projection, sink);
+            sample.success(sink.getContactCount(), sink.getMaxDepth());
+        } catch (RuntimeException e) {
+            sample.failure(errorTypeOf(e));
+            throw e;
+        }
+    }
+
+    private void parseContent(String xmlContent, ParserEngine engine, ContactProjection projection, ContactSink sink) {
         if (xmlContent == null || xmlContent.trim().isEmpty()) {
-            throw new XmlParsingException(
-                "Invalid XML: The XML content is empty or null. Please provide valid XML content.",
-                "EMPTY_CONTENT"
-            );
+            throw RootElementCheck.emptyContent();
         }
 
         String trimmedContent = xmlContent.trim();
         
         if (!trimmedContent.startsWith("<")) {
-            throw new XmlParsingException(
-                "Invalid XML format: XML content must start with '<' character. The provided content does not appear to be valid XML.",
-                "INVALID_XML_START"
-            );
+            throw RootElementCheck.invalidStart();
         }
 
         if (!trimmedContent.contains("<contacts>") && !trimmedContent.contains("<contacts ")) {
-            throw new XmlParsingException(
-                "Invalid XML structure: The root element must be '<contacts>'. Expected format: <contacts>...</contacts>",
-                "MISSING_ROOT_ELEMENT"
-            );
+            throw RootElementCheck.missingRoot();
         }
 
-        try {
-            SAXParserFactory factory = SAXParserFactory.newInstance();
-            factory.setNamespaceAware(false);
-            factory.setValidating(false);
-            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-
-            SAXParser parser = factory.newSAXParser();
-            ContactSaxHandler handler = new ContactSaxHandler();
+        checkInputSize(xmlContent.length());
 
+        try {
             try (StringReader reader = new StringReader(xmlContent)) {
-                InputSource inputSource = new InputSource(reader);
-                parser.parse(inputSource, handler);
+                parseSource(new InputSource(reader), engine, projection, newBudget(sink), sink);
             }
 
-            return handler.getRootContacts();
-
+        } catch (XmlParsingException e) {
+            throw e;
         } catch (SAXParseException e) {
             String errorType = determineErrorType(e.getMessage());
             String userFriendlyMessage = formatParseError(e, errorType);
@@ -128,6 +487,77 @@ public class ContactXmlParserService {
     }
 
     public List<Contact> parseFromInputStream(InputStream inputStream) {
+        return parseFromInputStream(inputStream, getDefaultEngine());
+    }
+
+    public List<Contact> parseFromInputStream(InputStream inputStream, ParserEngine engine) {
+        ContactTreeBuilder builder = newTreeBuilder(null, null);
+        readInputStream(inputStream, engine, null, ContactProjection.ALL, builder);
+        return builder.getRootContacts();
+    }
+
+    public List<Contact> parseFromInputStream(InputStream inputStream, String contentEncoding) {
+        ContactTreeBuilder builder = newTreeBuilder(null, null);
+        readInputStream(inputStream, getDefaultEngine(), contentEncoding, ContactProjection.ALL, builder);
+        return builder.getRootContacts();
+    }
+
+    public ParseResult parseFromInputStream(InputStream inputStream, ParseOptions options) {
+        ContactTreeBuilder builder = newTreeBuilder(null, options);
+        readInputStream(inputStream, engineFor(options), contentEncodingOf(options), isRootChecked(options),
+                projectionFor(options), builder);
+        return toResult(builder);
+    }
+
+    public int streamFromInputStream(InputStream inputStream, Consumer<Contact> rootContactConsumer) {
+        return streamFromInputStream(inputStream, (String) null, rootContactConsumer);
+    }
+
+    public int streamFromInputStream(InputStream inputStream, String contentEncoding, Consumer<Contact> rootContactConsumer) {
+        ContactTreeBuilder builder = newTreeBuilder(rootContactConsumer, null);
+        readInputStream(inputStream, getDefaultEngine(), contentEncoding, ContactProjection.ALL, builder);
+        return builder.getRootContactCount();
+    }
+
+    public int streamFromInputStream(InputStream inputStream, ParseOptions options, Consumer<Contact> rootContactConsumer) {
+        ContactTreeBuilder builder = newTreeBuilder(rootContactConsumer, options);
+        readInputStream(inputStream, engineFor(options), contentEncodingOf(options), isRootChecked(options),
+                projectionFor(options), builder);
+        return builder.getRootContactCount();
+    }
+
+    public ContactTable parseTableFromInputStream(InputStream inputStream) {
+        return parseTableFromInputStream(inputStream, 0);
+    }
+
+    public ContactTable parseTableFromInputStream(InputStream inputStream, long maxRetainedBytes) {
+        ContactTableBuilder builder = new ContactTableBuilder(maxRetainedBytes);
+        readInputStream(inputStream, getDefaultEngine(), null, ContactProjection.ALL, builder);
+        return builder.getTable();
+    }
+
+    private void readInputStream(InputStream inputStream, ParserEngine engine, String contentEncoding,
+                                 ContactProjection projection, ContactSink sink) {
+        readInputStream(inputStream, engine, contentEncoding, false, projection, sink);
+    }
+
+    private void readInputStream(InputStream inputStream, ParserEngine engine, String contentEncoding, boolean checkRoot,
+                                 ContactProjection projection, ContactSink sink) {
+        ContactParserMetrics.Sample sample = metrics.start(EntryPoint.UPLOAD);
+        CountingInputStream countingStream = inputStream == null ? null : new CountingInputStream(inputStream);
+        try {
+            parseInputStream(countingStream, engine, contentEncoding, checkRoot, projection, sink);
+            sample.success(sink.getContactCount(), sink.getMaxDepth());
+        } catch (RuntimeException e) {
+            sample.failure(errorTypeOf(e));
+            throw e;
+        } finally {
+            sample.inputSize(countingStream == null ? 0 : countingStream.getCount());
+        }
+    }
+
+    private void parseInputStream(InputStream inputStream, ParserEngine engine, String contentEncoding, boolean checkRoot,
+                                  ContactProjection projection, ContactSink sink) {
         if (inputStream == null) {
             throw new XmlParsingException(
                 "Invalid input: InputStream cannot be null. Please provide a valid file or XML content.",
@@ -136,17 +566,14 @@ public class ContactXmlParserService {
         }
 
         try {
-            SAXParserFactory factory = SAXParserFactory.newInstance();
-            factory.setNamespaceAware(false);
-            factory.setValidating(false);
-            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-
-            SAXParser parser = factory.newSAXParser();
-            ContactSaxHandler handler = new ContactSaxHandler();
-
-            parser.parse(inputStream, handler);
-            return handler.getRootContacts();
+            InputStream decoded = boundedInput(CompressedInput.decode(inputStream, contentEncoding));
+            if (checkRoot) {
+                decoded = RootElementCheck.check(decoded);
+            }
+            parseSource(new InputSource(decoded), engine, projection, newBudget(sink), sink);
 
+        } catch (XmlParsingException e) {
+            throw e;
         } catch (SAXParseException e) {
             String errorType = determineErrorType(e.getMessage());
             String userFriendlyMessage = formatParseError(e, errorType);
@@ -176,6 +603,256 @@ public class ContactXmlParserService {
         }
     }
 
+    private boolean isParallel(File file, ParseOptions options) {
+        if (options != null && options.getParallel() != null) {
+            return options.getParallel();
+        }
+        ContactParserProperties.Parallel config = properties.getParallel();
+        return config.isEnabled() && file.length() >= config.getMinFileSize().toBytes();
+    }
+
+    private ParseResult parseInParallel(File file, ParseOptions options) throws IOException, InterruptedException {
+        ContactChunkScanner.Layout layout;
+        try (InputStream in = new FileInputStream(file)) {
+            layout = ContactChunkScanner.scan(in);
+        }
+        if (layout == null) {
+            return null;
+        }
+
+        long[] boundaries = layout.chunkBoundaries(properties.getParallel().getChunkSize().toBytes());
+        if (boundaries.length < 3) {
+            return null;
+        }
+
+        ParserEngine engine = engineFor(options);
+        boolean mapped = isMappedInput(options);
+        ParseBudget budget = newBudget(null);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            List<ForkJoinTask<ContactTreeBuilder>> tasks = new ArrayList<>(boundaries.length - 1);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                long start = boundaries[i];
+                long end = boundaries[i + 1];
+                tasks.add(parallelPool().submit(() -> parseChunk(channel, start, end, mapped, layout.encoding(), engine, options, budget)));
+            }
+
+            List<Contact> contacts = new ArrayList<>(layout.contactStarts().length);
+            int contactCount = 0;
+            int maxDepth = 0;
+            long stringLookups = 0;
+            long stringHits = 0;
+            for (ForkJoinTask<ContactTreeBuilder> task : tasks) {
+                ContactTreeBuilder builder;
+                try {
+                    builder = task.get();
+                } catch (ExecutionException e) {
+                    // Chunk locations are relative to the chunk, so every failure, budget ones included, is reported
+                    // by the sequential parse.
+                    tasks.forEach(t -> t.cancel(false));
+                    return null;
+                }
+                contacts.addAll(builder.getRootContacts());
+                contactCount += builder.getContactCount();
+                maxDepth = Math.max(maxDepth, builder.getMaxDepth());
+                stringLookups += builder.getStringLookups();
+                stringHits += builder.getStringHits();
+            }
+            return new ParseResult(contacts, contactCount, maxDepth, stringLookups, stringHits);
+        }
+    }
+
+    private ContactTreeBuilder parseChunk(FileChannel channel, long start, long end, boolean mapped, String encoding,
+                                          ParserEngine engine, ParseOptions options, ParseBudget budget) throws Exception {
+        InputStream region = mapped
+                ? new MappedFileInputStream(channel, start, end, mappingWindowSize())
+                : new FileRegionInputStream(channel, start, end);
+        InputStream in = new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(CHUNK_ROOT_START),
+                region,
+                new ByteArrayInputStream(CHUNK_ROOT_END)
+        )));
+        InputSource source = new InputSource(in);
+        source.setEncoding(encoding);
+
+        ContactTreeBuilder builder = newTreeBuilder(null, options);
+        try {
+            parseSource(source, engine, projectionFor(options), budget, builder);
+        } catch (Exception e) {
+            // Task cancellation does not interrupt running chunks; the shared budget stops them at their next element.
+            budget.cancel();
+            throw e;
+        }
+        return builder;
+    }
+
+    // max-contacts bounds what a parse keeps in memory, so it does not apply to roots streamed to a consumer.
+    private ParseBudget newBudget(ContactSink sink) {
+        ContactParserProperties.Limits limits = properties.getLimits();
+        boolean streaming = sink instanceof ContactTreeBuilder builder && builder.isStreaming();
+        return new ParseBudget(limits.getMaxDepth(), streaming ? 0 : limits.getMaxContacts(), limits.getMaxTextLength());
+    }
+
+    private void checkInputSize(long size) {
+        long maxInputSize = properties.getLimits().getMaxInputSize().toBytes();
+        if (maxInputSize > 0 && size > maxInputSize) {
+            throw ParseBudget.exceeded(ParseBudget.Limit.INPUT_SIZE, maxInputSize, null, null);
+        }
+    }
+
+    private InputStream boundedInput(InputStream in) {
+        long maxInputSize = properties.getLimits().getMaxInputSize().toBytes();
+        return maxInputSize > 0 ? new BoundedInputStream(in, maxInputSize) : in;
+    }
+
+    private static ContactProjection projectionFor(ParseOptions options) {
+        if (options == null || (options.getMaxDepth() == null && options.getFields() == null && options.getIds() == null)) {
+            return ContactProjection.ALL;
+        }
+        return new ContactProjection(
+                options.getMaxDepth() != null ? options.getMaxDepth() : 0,
+                options.getFields(),
+                options.getIds()
+        );
+    }
+
+    private static String contentEncodingOf(ParseOptions options) {
+        return options != null ? options.getContentEncoding() : null;
+    }
+
+    private static boolean isRootChecked(ParseOptions options) {
+        return options != null && Boolean.TRUE.equals(options.getCheckRootElement());
+    }
+
+    private boolean isMappedInput(ParseOptions options) {
+        if (options != null && options.getMappedInput() != null) {
+            return options.getMappedInput();
+        }
+        return properties.getMappedInput().isEnabled();
+    }
+
+    private int mappingWindowSize() {
+        return (int) Math.min(Integer.MAX_VALUE, properties.getMappedInput().getWindowSize().toBytes());
+    }
+
+    private synchronized ForkJoinPool parallelPool() {
+        if (parallelPool == null) {
+            parallelPool = new ForkJoinPool(properties.getParallel().getParallelism());
+        }
+        return parallelPool;
+    }
+
+    private static FileResultCache newFileCache(ContactParserProperties.FileCache config) {
+        return config.isEnabled() ? new FileResultCache(config.getMaxSize().toBytes(), config.isWatch()) : null;
+    }
+
+    // Feeds a parsed table back through a sink in document order, without recursion.
+    private static void replay(ContactTable table, ContactSink sink) {
+        int[] openEnds = new int[16];
+        int open = 0;
+        for (int row = 0; row < table.size(); row++) {
+            while (open > 0 && row >= openEnds[open - 1]) {
+                open--;
+                sink.endContact();
+            }
+
+            sink.startContact(table.getId(row));
+            String name = table.getName(row);
+            if (name != null) {
+                sink.name(name, 0, name.length());
+            }
+            String lastName = table.getLastName(row);
+            if (lastName != null) {
+                sink.lastName(lastName, 0, lastName.length());
+            }
+
+            if (open == openEnds.length) {
+                openEnds = Arrays.copyOf(openEnds, open * 2);
+            }
+            openEnds[open++] = table.getSubtreeEnd(row);
+        }
+        while (open-- > 0) {
+            sink.endContact();
+        }
+    }
+
+    private ContactTreeBuilder newTreeBuilder(Consumer<Contact> rootContactConsumer, ParseOptions options) {
+        ContactParserProperties.StringDictionary config = properties.getStringDictionary();
+        boolean deduplicate = options != null && options.getDeduplicateStrings() != null
+                ? options.getDeduplicateStrings()
+                : config.isEnabled();
+
+        StringDictionary dictionary = null;
+        if (deduplicate) {
+            if (options != null && options.getStringDictionary() != null) {
+                dictionary = options.getStringDictionary();
+            } else if (sharedStringDictionary != null) {
+                dictionary = sharedStringDictionary;
+            } else {
+                dictionary = new StringDictionary(config.getMaxEntries());
+            }
+        }
+
+        return new ContactTreeBuilder(rootContactConsumer, dictionary);
+    }
+
+    private ParserEngine engineFor(ParseOptions options) {
+        return options != null && options.getEngine() != null ? options.getEngine() : getDefaultEngine();
+    }
+
+    private ParseResult toResult(ContactTreeBuilder builder) {
+        return new ParseResult(
+                builder.getRootContacts(),
+                builder.getContactCount(),
+                builder.getMaxDepth(),
+                builder.getStringLookups(),
+                builder.getStringHits()
+        );
+    }
+
+    private void parseSource(InputSource source, ParserEngine engine, ContactProjection projection, ParseBudget budget,
+                             ContactSink sink) throws SAXException, IOException, ParserConfigurationException {
+        switch (engine) {
+            case SAX -> {
+                SAXParser parser = saxParserPool.borrow();
+                try {
+                    parser.parse(source, new ContactSaxHandler(sink, projection, budget));
+                } finally {
+                    saxParserPool.release(parser);
+                }
+            }
+            case STAX -> new ContactStaxReader(xmlInputFactory, sink, projection, budget).read(source);
+        }
+    }
+
+    XmlParsingException describeFailure(Exception e) {
+        if (e instanceof XmlParsingException parsingException) {
+            return parsingException;
+        }
+        if (e.getCause() instanceof SAXParseException cause) {
+            return new XmlParsingException(e.getMessage(), cause, errorTypeOf(e), cause.getLineNumber(), cause.getColumnNumber());
+        }
+        if (e.getCause() instanceof SAXException || e.getCause() instanceof IOException) {
+            return new XmlParsingException(e.getMessage(), e.getCause(), errorTypeOf(e), null, null);
+        }
+        return null;
+    }
+
+    private String errorTypeOf(Exception e) {
+        if (e instanceof XmlParsingException parsingException) {
+            return parsingException.getErrorType();
+        }
+        if (e instanceof FileNotFoundException) {
+            return "FILE_NOT_FOUND";
+        }
+        if (e.getCause() instanceof SAXException cause) {
+            return determineErrorType(cause.getMessage());
+        }
+        if (e.getCause() instanceof IOException) {
+            return "IO_ERROR";
+        }
+        return "UNEXPECTED_ERROR";
+    }
+
     private String determineErrorType(String errorMessage) {
         if (errorMessage == null) {
             return "UNKNOWN_ERROR";
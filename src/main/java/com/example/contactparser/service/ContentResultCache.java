@@ -0,0 +1,102 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.model.ContactTable;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+public class ContentResultCache {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 224;
+    private static final int DIGEST_CHUNK_CHARS = 4096;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ContentResultCache(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Content cache size must be at least 1 byte");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    // SHA-256 of the UTF-16 content. Callers compute it before taking the cache lock, and the content itself is not kept.
+    public static String keyOf(String content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        ByteBuffer chunk = ByteBuffer.allocate(2 * DIGEST_CHUNK_CHARS);
+        CharBuffer chars = chunk.asCharBuffer();
+        for (int start = 0; start < content.length(); start += DIGEST_CHUNK_CHARS) {
+            int end = Math.min(content.length(), start + DIGEST_CHUNK_CHARS);
+            chars.clear();
+            chars.put(content, start, end);
+            digest.update(chunk.array(), 0, 2 * (end - start));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public synchronized ContactTable get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits++;
+            return entry.table;
+        }
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(String key, ContactTable table) {
+        long weight = ENTRY_OVERHEAD_BYTES + table.estimateRetainedBytes();
+        if (weight > maxBytes) {
+            return;
+        }
+
+        Entry previous = entries.put(key, new Entry(table, weight));
+        if (previous != null) {
+            bytes -= previous.weight;
+        }
+        bytes += weight;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(maxBytes, entries.size(), bytes, hits, misses, evictions);
+    }
+
+    private record Entry(ContactTable table, long weight) {
+    }
+
+    public record Stats(long maxBytes, int entries, long bytes, long hits, long misses, long evictions) {
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
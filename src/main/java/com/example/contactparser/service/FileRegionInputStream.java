@@ -0,0 +1,44 @@
+package com.example.contactparser.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+class FileRegionInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private final long end;
+    private long position;
+
+    FileRegionInputStream(FileChannel channel, long start, long end) {
+        this.channel = channel;
+        this.position = start;
+        this.end = end;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (position >= end) {
+            return -1;
+        }
+
+        int length = (int) Math.min(len, end - position);
+        int read = channel.read(ByteBuffer.wrap(b, off, length), position);
+        if (read > 0) {
+            position += read;
+        }
+        return read;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, end - position);
+    }
+}
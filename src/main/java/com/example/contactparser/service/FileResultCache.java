@@ -0,0 +1,197 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.model.ContactTable;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class FileResultCache implements AutoCloseable {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Path, CachedFile> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<Path> watchedDirectories = new HashSet<>();
+    private final boolean watch;
+    private WatchService watchService;
+    private boolean closed;
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public FileResultCache(long maxBytes, boolean watch) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("File cache size must be at least 1 byte");
+        }
+        this.maxBytes = maxBytes;
+        this.watch = watch;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized ContactTable get(Path path, FileTime lastModified, long size) {
+        CachedFile entry = entries.get(path);
+        if (entry != null && entry.size == size && entry.lastModified.equals(lastModified)) {
+            hits++;
+            return entry.table;
+        }
+        if (entry != null) {
+            remove(path);
+            invalidations++;
+        }
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(Path path, FileTime lastModified, long size, ContactTable table) {
+        long weight = ENTRY_OVERHEAD_BYTES + table.estimateRetainedBytes();
+        if (weight > maxBytes) {
+            return;
+        }
+        watchDirectory(path.getParent());
+
+        CachedFile previous = entries.put(path, new CachedFile(lastModified, size, table, weight));
+        if (previous != null) {
+            bytes -= previous.weight;
+        }
+        bytes += weight;
+
+        Iterator<CachedFile> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(Path path) {
+        if (remove(path)) {
+            invalidations++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(maxBytes, entries.size(), bytes, hits, misses, evictions, invalidations);
+    }
+
+    public synchronized boolean isWatching() {
+        return watchService != null;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private boolean remove(Path path) {
+        CachedFile removed = entries.remove(path);
+        if (removed == null) {
+            return false;
+        }
+        bytes -= removed.weight;
+        return true;
+    }
+
+    private synchronized void invalidateDirectory(Path directory) {
+        Iterator<Map.Entry<Path, CachedFile>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, CachedFile> entry = iterator.next();
+            if (directory.equals(entry.getKey().getParent())) {
+                bytes -= entry.getValue().weight;
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    private synchronized void forgetDirectory(Path directory) {
+        watchedDirectories.remove(directory);
+        invalidateDirectory(directory);
+    }
+
+    private void watchDirectory(Path directory) {
+        if (!watch || closed || directory == null || watchedDirectories.contains(directory)) {
+            return;
+        }
+        try {
+            if (watchService == null) {
+                startWatcher();
+            }
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watchedDirectories.add(directory);
+        } catch (IOException | ClosedWatchServiceException e) {
+            // Entries in unwatched directories are still validated against size and modification time.
+        }
+    }
+
+    // The watcher thread starts with the first cached file, so caches that are never filled hold no WatchService.
+    private void startWatcher() throws IOException {
+        WatchService service = FileSystems.getDefault().newWatchService();
+        Thread watcher = new Thread(() -> watch(service), "file-cache-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        watchService = service;
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        invalidateDirectory(directory);
+                    } else {
+                        invalidate(directory.resolve((Path) event.context()));
+                    }
+                }
+
+                if (!key.reset()) {
+                    forgetDirectory(directory);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private record CachedFile(FileTime lastModified, long size, ContactTable table, long weight) {
+    }
+
+    public record Stats(long maxBytes, int entries, long bytes, long hits, long misses, long evictions,
+                        long invalidations) {
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.exception.XmlParsingException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@ConditionalOnProperty(prefix = "contact-parser.ingest", name = "enabled", havingValue = "true")
+public class InboxIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(InboxIngestionService.class);
+
+    private final ContactXmlParserService parserService;
+    private final ObjectMapper objectMapper;
+    private final ContactParserProperties.Ingest config;
+    private final PathMatcher fileMatcher;
+
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    private final Map<Path, FileTime> stranded = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService scheduler;
+    private WatchService watchService;
+    private long startedAt;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder contacts = new LongAdder();
+
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter bytesCounter;
+    private final Counter contactsCounter;
+    private final Counter moveFailuresCounter;
+    private final Timer fileTimer;
+
+    public InboxIngestionService(ContactXmlParserService parserService, ObjectMapper objectMapper,
+                                 ContactParserProperties properties, MeterRegistry meterRegistry) {
+        this.parserService = parserService;
+        this.objectMapper = objectMapper;
+        this.config = properties.getIngest();
+        if (config.getInbox() == null) {
+            throw new IllegalStateException("contact-parser.ingest.inbox must be set when ingestion is enabled");
+        }
+        this.fileMatcher = FileSystems.getDefault().getPathMatcher("glob:" + config.getFilePattern());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                config.getThreads(),
+                config.getThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ingest-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ingest-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.processedCounter = Counter.builder("contactparser.ingest.files")
+                .description("Inbox files ingested")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("contactparser.ingest.files")
+                .description("Inbox files ingested")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.bytesCounter = Counter.builder("contactparser.ingest.bytes")
+                .description("Bytes of inbox files ingested")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.contactsCounter = Counter.builder("contactparser.ingest.contacts")
+                .description("Root contacts written by inbox ingestion")
+                .register(meterRegistry);
+        this.moveFailuresCounter = Counter.builder("contactparser.ingest.move.failures")
+                .description("Ingested inbox files that could not be moved out of the inbox")
+                .register(meterRegistry);
+        this.fileTimer = Timer.builder("contactparser.ingest.duration")
+                .description("Time to parse and write one inbox file")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("contactparser.ingest.backlog", pending, Set::size)
+                .description("Inbox files found but not yet ingested")
+                .register(meterRegistry);
+        Gauge.builder("contactparser.ingest.active", workers, ThreadPoolExecutor::getActiveCount)
+                .description("Inbox files being ingested right now")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(config.getInbox());
+        Files.createDirectories(config.getOutputDirectory());
+        Files.createDirectories(config.getProcessedDirectory());
+        Files.createDirectories(config.getFailedDirectory());
+
+        startedAt = System.nanoTime();
+        watchService = FileSystems.getDefault().newWatchService();
+        config.getInbox().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread watcher = new Thread(this::watch, "ingest-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+
+        long rescanMillis = Math.max(1, config.getRescanInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::rescan, 0, rescanMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    public Stats getStats() {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startedAt) / 1e9);
+        long files = processed.sum() + failed.sum();
+        return new Stats(
+                processed.sum(),
+                failed.sum(),
+                bytes.sum(),
+                contacts.sum(),
+                pending.size(),
+                stranded.size(),
+                workers.getActiveCount(),
+                files / seconds,
+                bytes.sum() / seconds
+        );
+    }
+
+    public void rescan() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(config.getInbox())) {
+            for (Path file : files) {
+                discover(file);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        scheduler.execute(this::rescan);
+                    } else {
+                        discover(config.getInbox().resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private void discover(Path file) {
+        if (!fileMatcher.matches(file.getFileName()) || !Files.isRegularFile(file) || isStranded(file) || !pending.add(file)) {
+            return;
+        }
+        scheduleSettleCheck(file, null, -1);
+    }
+
+    // A file that was ingested but could not be moved out is left alone until it is replaced or touched.
+    private boolean isStranded(Path file) {
+        FileTime strandedAt = stranded.get(file);
+        if (strandedAt == null) {
+            return false;
+        }
+        try {
+            if (Files.getLastModifiedTime(file).equals(strandedAt)) {
+                return true;
+            }
+        } catch (IOException e) {
+            return true;
+        }
+        stranded.remove(file);
+        return false;
+    }
+
+    private void scheduleSettleCheck(Path file, FileTime lastModified, long size) {
+        try {
+            scheduler.schedule(() -> settle(file, lastModified, size),
+                    config.getSettleTime().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            pending.remove(file);
+        }
+    }
+
+    private void settle(Path file, FileTime lastModified, long size) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            pending.remove(file);
+            return;
+        }
+
+        if (attributes.size() != size || !attributes.lastModifiedTime().equals(lastModified)) {
+            scheduleSettleCheck(file, attributes.lastModifiedTime(), attributes.size());
+            return;
+        }
+        workers.execute(() -> ingest(file, attributes.lastModifiedTime(), attributes.size()));
+    }
+
+    private void ingest(Path file, FileTime lastModified, long size) {
+        String baseName = baseName(file);
+        Path result = config.getOutputDirectory().resolve(baseName + ".json");
+        Path partial = config.getOutputDirectory().resolve(baseName + ".json.part");
+        long start = System.nanoTime();
+        Path destination = config.getFailedDirectory();
+
+        try {
+            int count;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file));
+                 OutputStream out = Files.newOutputStream(partial);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeStringField("source", file.getFileName().toString());
+                generator.writeArrayFieldStart("contacts");
+                count = parserService.streamFromInputStream(in, contact -> {
+                    try {
+                        objectMapper.writeValue(generator, contact);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeBooleanField("success", true);
+                generator.writeNumberField("count", count);
+                generator.writeEndObject();
+            }
+            Files.move(partial, result, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            destination = config.getProcessedDirectory();
+
+            processed.increment();
+            processedCounter.increment();
+            contacts.add(count);
+            contactsCounter.increment(count);
+        } catch (XmlParsingException e) {
+            fail(file, baseName, partial, e.getMessage(), e.getErrorType(), e.getLineNumber(), e.getColumnNumber());
+        } catch (Exception e) {
+            fail(file, baseName, partial, "An unexpected error occurred: " + e.getMessage(), "INTERNAL_ERROR", null, null);
+        } finally {
+            moveAside(file, lastModified, destination);
+            bytes.add(size);
+            bytesCounter.increment(size);
+            fileTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            pending.remove(file);
+        }
+    }
+
+    private void fail(Path file, String baseName, Path partial, String error, String errorType,
+                      Integer lineNumber, Integer columnNumber) {
+        failed.increment();
+        failedCounter.increment();
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("source", file.getFileName().toString());
+        report.put("success", false);
+        report.put("error", error);
+        report.put("errorType", errorType);
+        if (lineNumber != null) {
+            report.put("lineNumber", lineNumber);
+        }
+        if (columnNumber != null) {
+            report.put("columnNumber", columnNumber);
+        }
+
+        try {
+            Files.deleteIfExists(partial);
+            objectMapper.writeValue(config.getOutputDirectory().resolve(baseName + ".error.json").toFile(), report);
+        } catch (IOException e) {
+            log.warn("Cannot write error report for {}: {}", file, e.toString());
+        }
+    }
+
+    // Runs after the outcome has been counted and published, so a failed move never turns into a parse failure.
+    private void moveAside(Path file, FileTime lastModified, Path directory) {
+        Path target = directory.resolve(file.getFileName());
+        if (Files.exists(target)) {
+            target = directory.resolve(System.currentTimeMillis() + "-" + file.getFileName());
+        }
+        try {
+            try {
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // The processed or failed directory is on another file system.
+                Files.move(file, target);
+            }
+        } catch (IOException e) {
+            stranded.put(file, lastModified);
+            moveFailuresCounter.increment();
+            log.warn("Cannot move {} to {}; it stays in the inbox until it changes: {}", file, directory, e.toString());
+        }
+    }
+
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    public record Stats(
+            long processed,
+            long failed,
+            long bytes,
+            long contacts,
+            int backlog,
+            int stranded,
+            int active,
+            double filesPerSecond,
+            double bytesPerSecond) {
+    }
+}
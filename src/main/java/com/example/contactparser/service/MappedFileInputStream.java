@@ -0,0 +1,85 @@
+package com.example.contactparser.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class MappedFileInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private final long end;
+    private final int windowSize;
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    public MappedFileInputStream(FileChannel channel, long start, long end, int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Mapping window size must be at least 1 byte");
+        }
+
+        this.channel = channel;
+        this.end = end;
+        this.windowSize = windowSize;
+        this.windowStart = start;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureWindow()) {
+            return -1;
+        }
+        return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureWindow()) {
+            return -1;
+        }
+
+        int length = Math.min(len, window.remaining());
+        window.get(b, off, length);
+        return length;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && ensureWindow()) {
+            int step = (int) Math.min(n - skipped, window.remaining());
+            window.position(window.position() + step);
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        long remaining = end - windowStart + (window != null ? window.remaining() : 0);
+        return (int) Math.min(Integer.MAX_VALUE, remaining);
+    }
+
+    @Override
+    public void close() {
+        window = null;
+    }
+
+    private boolean ensureWindow() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        if (windowStart >= end) {
+            window = null;
+            return false;
+        }
+
+        long size = Math.min(windowSize, end - windowStart);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+        windowStart += size;
+        return true;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.handler.ParseBudget;
+import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ParseJob;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class ParseJobService {
+
+    private final ContactXmlParserService parserService;
+    private final Duration resultTtl;
+    private final long maxContacts;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService evictor;
+    private final Map<String, ParseJob> jobs = new ConcurrentHashMap<>();
+
+    public ParseJobService(ContactXmlParserService parserService, ContactParserProperties properties) {
+        ContactParserProperties.Jobs config = properties.getJobs();
+        this.parserService = parserService;
+        this.resultTtl = config.getResultTtl();
+        this.maxContacts = properties.getLimits().getMaxContacts();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                config.getThreads(),
+                config.getThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "parse-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "parse-job-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = Math.max(1, Math.min(resultTtl.toMillis(), Duration.ofMinutes(1).toMillis()));
+        this.evictor.scheduleWithFixedDelay(this::evictExpired, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public ParseJob submitPath(String filePath) {
+        File file = new File(filePath);
+        if (!file.isFile()) {
+            throw new IllegalArgumentException("Path is not a file: " + filePath);
+        }
+
+        ParseJob job = new ParseJob(UUID.randomUUID().toString(), filePath, file.length());
+        submit(job, () -> {
+            List<Contact> contacts = new ArrayList<>();
+            int[] contactCount = {0};
+            try {
+                parserService.stream(filePath, contact -> {
+                    contacts.add(contact);
+                    contactCount[0] += countContacts(contact);
+                    checkContactLimit(contactCount[0]);
+                    job.progress(contactCount[0], 0);
+                });
+            } catch (Exception e) {
+                XmlParsingException failure = parserService.describeFailure(e);
+                throw failure != null ? failure : e;
+            }
+            job.progress(contactCount[0], job.getTotalBytes());
+            return contacts;
+        }, null);
+        return job;
+    }
+
+    public ParseJob submitUpload(String fileName, InputStream inputStream) throws IOException {
+        return submitUpload(fileName, inputStream, null);
+    }
+
+    // The upload is kept as sent, so totalBytes and bytesRead count encoded bytes; decoding happens while parsing.
+    public ParseJob submitUpload(String fileName, InputStream inputStream, String contentEncoding) throws IOException {
+        Path tempFile = Files.createTempFile("contact-parser-job-", ".xml");
+        try {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        ParseJob job = new ParseJob(UUID.randomUUID().toString(), fileName, Files.size(tempFile));
+        submit(job, () -> {
+            List<Contact> contacts = new ArrayList<>();
+            int[] contactCount = {0};
+            try (CountingInputStream in = new CountingInputStream(Files.newInputStream(tempFile))) {
+                parserService.streamFromInputStream(in, contentEncoding, contact -> {
+                    contacts.add(contact);
+                    contactCount[0] += countContacts(contact);
+                    checkContactLimit(contactCount[0]);
+                    job.progress(contactCount[0], in.getCount());
+                });
+                job.progress(contactCount[0], in.getCount());
+            }
+            return contacts;
+        }, tempFile);
+        return job;
+    }
+
+    public ParseJob getJob(String id) {
+        ParseJob job = jobs.get(id);
+        if (job != null && isExpired(job, Instant.now())) {
+            jobs.remove(id, job);
+            return null;
+        }
+        return job;
+    }
+
+    public int getQueuedJobCount() {
+        return executor.getQueue().size();
+    }
+
+    public void evictExpired() {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> isExpired(job, now));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void submit(ParseJob job, JobTask task, Path tempFile) {
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, task, tempFile));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteQuietly(tempFile);
+            throw e;
+        }
+    }
+
+    private void run(ParseJob job, JobTask task, Path tempFile) {
+        job.start();
+        try {
+            job.complete(task.run());
+        } catch (XmlParsingException e) {
+            job.fail(e.getMessage(), e.getErrorType(), e.getLineNumber(), e.getColumnNumber());
+        } catch (IllegalArgumentException e) {
+            job.fail(e.getMessage(), "VALIDATION_ERROR", null, null);
+        } catch (Exception e) {
+            job.fail("An unexpected error occurred: " + e.getMessage(), "INTERNAL_ERROR", null, null);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private boolean isExpired(ParseJob job, Instant now) {
+        Instant completedAt = job.getCompletedAt();
+        return completedAt != null && completedAt.plus(resultTtl).isBefore(now);
+    }
+
+    // Jobs keep every streamed root for their result, so they apply max-contacts that streaming parses leave out.
+    private void checkContactLimit(int contactCount) {
+        if (maxContacts > 0 && contactCount > maxContacts) {
+            throw ParseBudget.exceeded(ParseBudget.Limit.CONTACTS, maxContacts, null, null);
+        }
+    }
+
+    // Progress counts every contact like ParseResult.contactCount does, not only the roots handed to the consumer.
+    private static int countContacts(Contact root) {
+        int count = 0;
+        Deque<Contact> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Contact contact = pending.pop();
+            count++;
+            contact.getContacts().forEach(pending::push);
+        }
+        return count;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    @FunctionalInterface
+    private interface JobTask {
+        List<Contact> run() throws Exception;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.handler.ContactProjection;
+import com.example.contactparser.handler.StringDictionary;
+
+import java.util.Set;
+
+public class ParseOptions {
+
+    private ParserEngine engine;
+    private Boolean deduplicateStrings;
+    private StringDictionary stringDictionary;
+    private Boolean parallel;
+    private Boolean mappedInput;
+    private String contentEncoding;
+    private Integer maxDepth;
+    private Set<ContactProjection.Field> fields;
+    private Set<String> ids;
+    private Boolean checkRootElement;
+
+    public ParserEngine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(ParserEngine engine) {
+        this.engine = engine;
+    }
+
+    public Boolean getDeduplicateStrings() {
+        return deduplicateStrings;
+    }
+
+    public void setDeduplicateStrings(Boolean deduplicateStrings) {
+        this.deduplicateStrings = deduplicateStrings;
+    }
+
+    public StringDictionary getStringDictionary() {
+        return stringDictionary;
+    }
+
+    public void setStringDictionary(StringDictionary stringDictionary) {
+        this.stringDictionary = stringDictionary;
+    }
+
+    public Boolean getParallel() {
+        return parallel;
+    }
+
+    public void setParallel(Boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public Boolean getMappedInput() {
+        return mappedInput;
+    }
+
+    public void setMappedInput(Boolean mappedInput) {
+        this.mappedInput = mappedInput;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public void setContentEncoding(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    public Integer getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMaxDepth(Integer maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public Set<ContactProjection.Field> getFields() {
+        return fields;
+    }
+
+    public void setFields(Set<ContactProjection.Field> fields) {
+        this.fields = fields;
+    }
+
+    public Set<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(Set<String> ids) {
+        this.ids = ids;
+    }
+
+    public Boolean getCheckRootElement() {
+        return checkRootElement;
+    }
+
+    public void setCheckRootElement(Boolean checkRootElement) {
+        this.checkRootElement = checkRootElement;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.handler.ContactTableBuilder;
+import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ContactIndex;
+import com.example.contactparser.model.ContactTable;
+import com.example.contactparser.model.ParseSession;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ParseSessionService {
+
+    private final ContactXmlParserService parserService;
+    private final ContactParserProperties.Sessions config;
+    private final ScheduledExecutorService evictor;
+    private final LinkedHashMap<String, ParseSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ParseSessionService(ContactXmlParserService parserService, ContactParserProperties properties) {
+        this.parserService = parserService;
+        this.config = properties.getSessions();
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "parse-session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = Math.max(1, Math.min(config.getTtl().toMillis(), Duration.ofMinutes(1).toMillis()));
+        this.evictor.scheduleWithFixedDelay(this::evictExpired, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public ParseSession createFromPath(String filePath) throws Exception {
+        ContactTable table;
+        try {
+            table = parserService.parseTable(filePath, config.getMaxSessionSize().toBytes());
+        } catch (Exception e) {
+            XmlParsingException failure = parserService.describeFailure(e);
+            throw failure != null ? sessionFailure(failure) : e;
+        }
+        return store(filePath, table);
+    }
+
+    public ParseSession createFromContent(String xmlContent) {
+        try {
+            return store("xmlContent", parserService.parseTableFromContent(xmlContent, config.getMaxSessionSize().toBytes()));
+        } catch (XmlParsingException e) {
+            throw sessionFailure(e);
+        }
+    }
+
+    public ParseSession createFromUpload(String fileName, InputStream inputStream) {
+        try {
+            return store(fileName, parserService.parseTableFromInputStream(inputStream, config.getMaxSessionSize().toBytes()));
+        } catch (XmlParsingException e) {
+            throw sessionFailure(e);
+        }
+    }
+
+    public synchronized ParseSession getSession(String id) {
+        ParseSession session = sessions.get(id);
+        if (session == null) {
+            return null;
+        }
+        if (isExpired(session, Instant.now())) {
+            remove(id);
+            return null;
+        }
+        session.touch();
+        return session;
+    }
+
+    public Page getPage(String id, String cursor, Integer limit) {
+        ParseSession session = getSession(id);
+        if (session == null) {
+            return null;
+        }
+
+        int pageSize = limit != null ? limit : config.getDefaultPageSize();
+        if (pageSize < 1 || pageSize > config.getMaxPageSize()) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + config.getMaxPageSize());
+        }
+
+        int rootCount = session.getRootCount();
+        int offset = cursor == null || cursor.isEmpty() ? 0 : decodeCursor(session.getId(), cursor, rootCount);
+        int end = (int) Math.min(rootCount, (long) offset + pageSize);
+        List<Contact> contacts = new ArrayList<>(end - offset);
+        // Pages are copied under the session monitor: a delete or eviction may release the table right after.
+        synchronized (session) {
+            if (session.isReleased()) {
+                return null;
+            }
+            ContactTable table = session.getTable();
+            for (int index = offset; index < end; index++) {
+                contacts.add(table.copyContact(table.getRootRow(index)));
+            }
+        }
+        String nextCursor = end < rootCount ? encodeCursor(session.getId(), end) : null;
+        return new Page(session, offset, contacts, nextCursor);
+    }
+
+    public SearchResult search(String id, Search search, Integer limit) {
+        ParseSession session = getSession(id);
+        if (session == null) {
+            return null;
+        }
+        if (search.id() == null && search.name() == null && search.lastName() == null) {
+            throw new IllegalArgumentException("At least one of id, name or lastName is required");
+        }
+
+        int maxResults = limit != null ? limit : config.getDefaultPageSize();
+        if (maxResults < 1 || maxResults > config.getMaxPageSize()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + config.getMaxPageSize());
+        }
+
+        ContactIndex index = session.getIndex();
+        ContactTable table = index.getTable();
+        List<Contact> contacts = new ArrayList<>();
+        boolean[] truncated = {false};
+        ContactIndex.RowVisitor collector = row -> {
+            if (!search.matches(table, row)) {
+                return true;
+            }
+            if (contacts.size() == maxResults) {
+                truncated[0] = true;
+                return false;
+            }
+            contacts.add(table.copyContact(row));
+            return true;
+        };
+
+        synchronized (session) {
+            if (session.isReleased()) {
+                return null;
+            }
+            if (search.id() != null) {
+                index.findById(search.id(), collector);
+            } else if (search.name() != null && search.lastName() != null) {
+                // Walk whichever prefix range is shorter; the other field is checked per row.
+                if (index.countByLastNamePrefix(search.lastName()) <= index.countByNamePrefix(search.name())) {
+                    index.findByLastNamePrefix(search.lastName(), collector);
+                } else {
+                    index.findByNamePrefix(search.name(), collector);
+                }
+            } else if (search.lastName() != null) {
+                index.findByLastNamePrefix(search.lastName(), collector);
+            } else {
+                index.findByNamePrefix(search.name(), collector);
+            }
+        }
+        return new SearchResult(session, contacts, truncated[0]);
+    }
+
+    public synchronized boolean delete(String id) {
+        return remove(id) != null;
+    }
+
+    public synchronized int getSessionCount() {
+        return sessions.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized void evictExpired() {
+        Instant now = Instant.now();
+        Iterator<ParseSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            ParseSession session = iterator.next();
+            if (isExpired(session, now)) {
+                iterator.remove();
+                totalBytes -= session.getRetainedBytes();
+                session.release();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        evictor.shutdownNow();
+        synchronized (this) {
+            sessions.values().forEach(ParseSession::release);
+            sessions.clear();
+            totalBytes = 0;
+        }
+    }
+
+    private ParseSession store(String source, ContactTable table) {
+        // The parse already stopped at the data and index bytes; heap tables also count their spare capacity.
+        long maxSessionBytes = config.getMaxSessionSize().toBytes();
+        long heapBytes = table.estimateRetainedBytes() + ContactIndex.estimateRetainedBytes(table.size());
+        if (config.getStorage() == SessionStorage.HEAP && heapBytes > maxSessionBytes) {
+            throw sessionTooLarge(heapBytes);
+        }
+        // The parsed table may be shared with the result caches, so off-heap sessions keep their own copy.
+        ContactTable stored = config.getStorage() == SessionStorage.OFF_HEAP ? table.copyOffHeap() : table;
+        ParseSession session = new ParseSession(UUID.randomUUID().toString(), source, stored);
+        if (session.getRetainedBytes() > maxSessionBytes) {
+            session.release();
+            throw sessionTooLarge(session.getRetainedBytes());
+        }
+
+        synchronized (this) {
+            evictExpired();
+            long maxTotalBytes = config.getMaxTotalSize().toBytes();
+            Iterator<Map.Entry<String, ParseSession>> eldest = sessions.entrySet().iterator();
+            while (totalBytes + session.getRetainedBytes() > maxTotalBytes && eldest.hasNext()) {
+                ParseSession evicted = eldest.next().getValue();
+                eldest.remove();
+                totalBytes -= evicted.getRetainedBytes();
+                evicted.release();
+            }
+            sessions.put(session.getId(), session);
+            totalBytes += session.getRetainedBytes();
+        }
+        return session;
+    }
+
+    private XmlParsingException sessionFailure(XmlParsingException e) {
+        if (ContactTableBuilder.TOO_LARGE_ERROR_TYPE.equals(e.getErrorType())) {
+            return sessionTooLarge(null);
+        }
+        return e;
+    }
+
+    private XmlParsingException sessionTooLarge(Long neededBytes) {
+        long maxSessionBytes = config.getMaxSessionSize().toBytes();
+        String needed = neededBytes != null ? "about " + neededBytes + " bytes, more than" : "more than";
+        return new XmlParsingException(
+                "Parse result needs " + needed + " the " + maxSessionBytes
+                        + " bytes allowed for one session. Use /api/parse/stream instead.",
+                "SESSION_TOO_LARGE"
+        );
+    }
+
+    private ParseSession remove(String id) {
+        ParseSession session = sessions.remove(id);
+        if (session != null) {
+            totalBytes -= session.getRetainedBytes();
+            session.release();
+        }
+        return session;
+    }
+
+    private boolean isExpired(ParseSession session, Instant now) {
+        return session.getLastAccessedAt().plus(config.getTtl()).isBefore(now);
+    }
+
+    private static String encodeCursor(String sessionId, int offset) {
+        byte[] cursor = (sessionId + ":" + offset).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor);
+    }
+
+    private static int decodeCursor(String sessionId, String cursor, int rootCount) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(':');
+            if (separator > 0 && decoded.substring(0, separator).equals(sessionId)) {
+                int offset = Integer.parseInt(decoded.substring(separator + 1));
+                if (offset >= 0 && offset <= rootCount) {
+                    return offset;
+                }
+            }
+        } catch (IllegalArgumentException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid cursor for session " + sessionId);
+    }
+
+    public record Page(ParseSession session, int offset, List<Contact> contacts, String nextCursor) {
+    }
+
+    public record Search(String id, String name, String lastName) {
+
+        boolean matches(ContactTable table, int row) {
+            return (id == null || table.stringEquals(table.getIdRef(row), id))
+                    && (name == null || matchesPrefix(table, table.getNameRef(row), name))
+                    && (lastName == null || matchesPrefix(table, table.getLastNameRef(row), lastName));
+        }
+
+        private static boolean matchesPrefix(ContactTable table, int ref, String prefix) {
+            return ref != ContactTable.NO_VALUE && table.comparePrefixIgnoreCase(ref, prefix) == 0;
+        }
+    }
+
+    public record SearchResult(ParseSession session, List<Contact> contacts, boolean truncated) {
+    }
+}
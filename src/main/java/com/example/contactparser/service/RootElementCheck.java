@@ -0,0 +1,159 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.exception.XmlParsingException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+
+// Checks that a document starts with a <contacts> root element by looking at a bounded prefix only.
+final class RootElementCheck {
+
+    static final int PREFIX_BYTES = 8 * 1024;
+
+    private static final byte[] ROOT_NAME = "contacts".getBytes(StandardCharsets.US_ASCII);
+
+    private RootElementCheck() {
+    }
+
+    static InputStream check(InputStream in) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(in, PREFIX_BYTES);
+        byte[] prefix = new byte[PREFIX_BYTES];
+        int length = pushback.readNBytes(prefix, 0, PREFIX_BYTES);
+        pushback.unread(prefix, 0, length);
+        check(prefix, length, length < PREFIX_BYTES);
+        return pushback;
+    }
+
+    // Anything the prefix cannot decide, such as a root element past the prefix or a non-ASCII-compatible encoding,
+    // is left to the XML parser.
+    static void check(byte[] prefix, int length, boolean complete) {
+        if (length >= 2 && (prefix[0] == 0 || prefix[1] == 0 || (prefix[0] & 0xFE) == 0xFE)) {
+            return;
+        }
+        int position = length >= 3 && (prefix[0] & 0xFF) == 0xEF && (prefix[1] & 0xFF) == 0xBB && (prefix[2] & 0xFF) == 0xBF ? 3 : 0;
+        position = skipWhitespace(prefix, position, length);
+        if (position == length) {
+            if (complete) {
+                throw emptyContent();
+            }
+            return;
+        }
+        if (prefix[position] != '<') {
+            throw invalidStart();
+        }
+
+        while (position < length) {
+            if (prefix[position] != '<') {
+                if (!isWhitespace(prefix[position])) {
+                    return;
+                }
+                position++;
+            } else if (startsWith(prefix, position, length, "<?")) {
+                position = indexAfter(prefix, position + 2, length, "?>");
+            } else if (startsWith(prefix, position, length, "<!--")) {
+                position = indexAfter(prefix, position + 4, length, "-->");
+            } else if (startsWith(prefix, position, length, "<!")) {
+                position = afterDeclaration(prefix, position + 2, length);
+            } else {
+                checkRootName(prefix, position + 1, length);
+                return;
+            }
+        }
+    }
+
+    static XmlParsingException emptyContent() {
+        return new XmlParsingException(
+            "Invalid XML: The XML content is empty or null. Please provide valid XML content.",
+            "EMPTY_CONTENT"
+        );
+    }
+
+    static XmlParsingException invalidStart() {
+        return new XmlParsingException(
+            "Invalid XML format: XML content must start with '<' character. The provided content does not appear to be valid XML.",
+            "INVALID_XML_START"
+        );
+    }
+
+    static XmlParsingException missingRoot() {
+        return new XmlParsingException(
+            "Invalid XML structure: The root element must be '<contacts>'. Expected format: <contacts>...</contacts>",
+            "MISSING_ROOT_ELEMENT"
+        );
+    }
+
+    private static void checkRootName(byte[] prefix, int start, int length) {
+        int end = start;
+        while (end < length && !isWhitespace(prefix[end]) && prefix[end] != '>' && prefix[end] != '/') {
+            end++;
+        }
+        if (end == length) {
+            return;
+        }
+        if (end - start != ROOT_NAME.length) {
+            throw missingRoot();
+        }
+        for (int i = 0; i < ROOT_NAME.length; i++) {
+            if (prefix[start + i] != ROOT_NAME[i]) {
+                throw missingRoot();
+            }
+        }
+    }
+
+    // Skips a DOCTYPE or other declaration, including an internal subset in brackets and quoted literals.
+    private static int afterDeclaration(byte[] prefix, int position, int length) {
+        int depth = 0;
+        byte quote = 0;
+        for (; position < length; position++) {
+            byte b = prefix[position];
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '[') {
+                depth++;
+            } else if (b == ']') {
+                depth--;
+            } else if (b == '>' && depth <= 0) {
+                return position + 1;
+            }
+        }
+        return length;
+    }
+
+    private static int indexAfter(byte[] prefix, int position, int length, String terminator) {
+        for (; position <= length - terminator.length(); position++) {
+            if (startsWith(prefix, position, length, terminator)) {
+                return position + terminator.length();
+            }
+        }
+        return length;
+    }
+
+    private static boolean startsWith(byte[] prefix, int position, int length, String value) {
+        if (length - position < value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (prefix[position + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(byte[] prefix, int position, int length) {
+        while (position < length && isWhitespace(prefix[position])) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+}
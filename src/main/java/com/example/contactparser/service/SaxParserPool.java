@@ -0,0 +1,113 @@
+package com.example.contactparser.service;
+
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SaxParserPool {
+
+    private final SAXParserFactory factory;
+    private final BlockingQueue<SAXParser> idle;
+    private final int maxSize;
+    private final long borrowTimeoutNanos;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public SaxParserPool(int maxSize, Duration borrowTimeout) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("SAX parser pool size must be at least 1");
+        }
+
+        this.maxSize = maxSize;
+        this.borrowTimeoutNanos = borrowTimeout.toNanos();
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+        this.factory = SAXParserFactory.newInstance();
+        this.factory.setNamespaceAware(false);
+        this.factory.setValidating(false);
+        try {
+            this.factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IllegalStateException("Cannot configure SAX parser factory: " + e.getMessage(), e);
+        }
+    }
+
+    public SAXParser borrow() throws SAXException, ParserConfigurationException {
+        long start = System.nanoTime();
+        borrows.increment();
+
+        SAXParser parser = idle.poll();
+        if (parser == null && borrowTimeoutNanos > 0) {
+            try {
+                parser = idle.poll(borrowTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        if (parser == null) {
+            misses.increment();
+            parser = newParser();
+        }
+
+        return parser;
+    }
+
+    public void release(SAXParser parser) {
+        try {
+            parser.reset();
+        } catch (RuntimeException e) {
+            discarded.increment();
+            return;
+        }
+
+        if (!idle.offer(parser)) {
+            discarded.increment();
+        }
+    }
+
+    public Stats getStats() {
+        long borrowCount = borrows.sum();
+        long waitNanos = totalWaitNanos.sum();
+        return new Stats(
+                maxSize,
+                idle.size(),
+                borrowCount,
+                misses.sum(),
+                discarded.sum(),
+                borrowCount == 0 ? 0 : waitNanos / borrowCount,
+                maxWaitNanos.get()
+        );
+    }
+
+    private SAXParser newParser() throws SAXException, ParserConfigurationException {
+        synchronized (factory) {
+            return factory.newSAXParser();
+        }
+    }
+
+    public record Stats(
+            int maxSize,
+            int idle,
+            long borrows,
+            long misses,
+            long discarded,
+            long averageBorrowWaitNanos,
+            long maxBorrowWaitNanos) {
+    }
+}
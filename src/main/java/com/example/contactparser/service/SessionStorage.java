@@ -0,0 +1,6 @@
+package com.example.contactparser.service;
+
+public enum SessionStorage {
+    HEAP,
+    OFF_HEAP
+}
@@ -1,4 +1,5 @@
 document.addEventListener('DOMContentLoaded', () => {
+    const ACCEPT = `${ContactTree.MEDIA_TYPE}, application/json;q=0.9`;
     const filePathInput = document.getElementById('filePath');
     const parseBtn = document.getElementById('parseBtn');
     const fileInput = document.getElementById('fileInput');
@@ -74,11 +75,12 @@ document.addEventListener('DOMContentLoaded', () => {
                 method: 'POST',
                 headers: {
                     'Content-Type': 'application/json',
+                    'Accept': ACCEPT,
                 },
                 body: JSON.stringify({ filePath: filePath })
             });
 
-            const data = await response.json();
+            const data = await readResponse(response);
             handleResponse(data);
         } catch (err) {
             hideLoading();
@@ -97,10 +99,13 @@ document.addEventListener('DOMContentLoaded', () => {
 
             const response = await fetch('/api/parse/upload', {
                 method: 'POST',
+                headers: {
+                    'Accept': ACCEPT,
+                },
                 body: formData
             });
 
-            const data = await response.json();
+            const data = await readResponse(response);
             handleResponse(data);
         } catch (err) {
             hideLoading();
@@ -118,11 +123,12 @@ document.addEventListener('DOMContentLoaded', () => {
                 method: 'POST',
                 headers: {
                     'Content-Type': 'application/json',
+                    'Accept': ACCEPT,
                 },
                 body: JSON.stringify({ xmlContent: content })
             });
 
-            const data = await response.json();
+            const data = await readResponse(response);
             handleResponse(data);
         } catch (err) {
             hideLoading();
@@ -130,6 +136,15 @@ document.addEventListener('DOMContentLoaded', () => {
         }
     }
 
+    async function readResponse(response) {
+        const contentType = response.headers.get('Content-Type') || '';
+        if (contentType.startsWith(ContactTree.MEDIA_TYPE)) {
+            const contacts = ContactTree.decode(await response.arrayBuffer());
+            return { success: true, contacts: contacts, count: contacts.length };
+        }
+        return response.json();
+    }
+
     function handleResponse(data) {
         hideLoading();
 
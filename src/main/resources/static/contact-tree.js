@@ -0,0 +1,83 @@
+const ContactTree = (() => {
+    const MEDIA_TYPE = 'application/x-contact-tree';
+    const MAGIC = [0x43, 0x54, 0x52, 0x01];
+
+    function decode(buffer) {
+        const bytes = new Uint8Array(buffer);
+        const decoder = new TextDecoder('utf-8');
+        let position = 0;
+
+        function readByte() {
+            if (position >= bytes.length) {
+                throw new Error('Truncated contact tree');
+            }
+            return bytes[position++];
+        }
+
+        function readVarint() {
+            let value = 0;
+            for (let shift = 0; shift < 35; shift += 7) {
+                const b = readByte();
+                value += (b & 0x7f) * 2 ** shift;
+                if ((b & 0x80) === 0) {
+                    return value;
+                }
+            }
+            throw new Error('Malformed contact tree: varint too long');
+        }
+
+        MAGIC.forEach(expected => {
+            if (readByte() !== expected) {
+                throw new Error('Not a contact tree: unexpected header');
+            }
+        });
+
+        const strings = [];
+        const stringCount = readVarint();
+        for (let i = 0; i < stringCount; i++) {
+            const length = readVarint();
+            if (position + length > bytes.length) {
+                throw new Error('Truncated contact tree');
+            }
+            strings.push(decoder.decode(bytes.subarray(position, position + length)));
+            position += length;
+        }
+
+        function readString() {
+            const ref = readVarint();
+            if (ref > strings.length) {
+                throw new Error(`Malformed contact tree: string reference ${ref} out of range`);
+            }
+            return ref === 0 ? null : strings[ref - 1];
+        }
+
+        const roots = [];
+        const stack = [];
+        let rootsLeft = readVarint();
+
+        while (rootsLeft > 0 || stack.length > 0) {
+            const contact = { id: readString(), name: readString(), lastName: readString(), contacts: [] };
+            const childCount = readVarint();
+
+            if (stack.length === 0) {
+                roots.push(contact);
+                rootsLeft--;
+            } else {
+                const parent = stack[stack.length - 1];
+                parent.contact.contacts.push(contact);
+                parent.remaining--;
+            }
+
+            if (childCount > 0) {
+                stack.push({ contact, remaining: childCount });
+            }
+            while (stack.length > 0 && stack[stack.length - 1].remaining === 0) {
+                stack.pop();
+            }
+        }
+
+        return roots;
+    }
+
+    return { MEDIA_TYPE, decode };
+})();
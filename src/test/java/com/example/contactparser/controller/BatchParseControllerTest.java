@@ -0,0 +1,115 @@
+package com.example.contactparser.controller;
+
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.model.Contact;
+import com.example.contactparser.service.BatchParseService;
+import com.example.contactparser.service.ContactXmlParserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BatchParseController.class)
+class BatchParseControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BatchParseService batchService;
+
+    @MockBean
+    private ContactXmlParserService parserService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testPathBatchReportsPerItemResults() throws Exception {
+        Contact contact = new Contact("1");
+        contact.setName("John");
+        when(batchService.parseAll(any())).thenReturn(List.of(
+                new BatchParseService.Result("a.xml", List.of(contact), null),
+                new BatchParseService.Result("b.xml", null,
+                        new XmlParsingException("Unclosed tag", "UNCLOSED_TAG", 3, 7)),
+                new BatchParseService.Result("c.xml", null, new FileNotFoundException("File not found: c.xml"))
+        ));
+
+        mockMvc.perform(post("/api/parse/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Map.of("filePaths", List.of("a.xml", "b.xml", "c.xml")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].success").value(true))
+                .andExpect(jsonPath("$.results[0].contacts[0].name").value("John"))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].errorType").value("UNCLOSED_TAG"))
+                .andExpect(jsonPath("$.results[1].lineNumber").value(3))
+                .andExpect(jsonPath("$.results[2].errorType").value("FILE_NOT_FOUND"));
+    }
+
+    @Test
+    void testMultipartBatchMixesUploadsAndPaths() throws Exception {
+        MockMultipartFile first = new MockMultipartFile(
+                "files", "one.xml", MediaType.APPLICATION_XML_VALUE, "<contacts/>".getBytes());
+        MockMultipartFile second = new MockMultipartFile(
+                "files", "two.xml", MediaType.APPLICATION_XML_VALUE, "<contacts/>".getBytes());
+        when(batchService.parseAll(argThat(items -> items.size() == 3
+                && "one.xml".equals(items.get(0).source())
+                && items.get(0).upload() != null
+                && "three.xml".equals(items.get(2).filePath()))))
+                .thenReturn(List.of(
+                        new BatchParseService.Result("one.xml", List.of(), null),
+                        new BatchParseService.Result("two.xml", List.of(), null),
+                        new BatchParseService.Result("three.xml", List.of(), null)
+                ));
+
+        mockMvc.perform(multipart("/api/parse/batch").file(first).file(second).param("filePath", "three.xml"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.results[2].source").value("three.xml"));
+    }
+
+    @Test
+    void testRejectedBatchIsBadRequest() throws Exception {
+        when(batchService.parseAll(any())).thenThrow(new IllegalArgumentException("A batch may contain at most 64 items"));
+
+        mockMvc.perform(post("/api/parse/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.errorType").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    void testBatchIsServiceUnavailableWhenQueueIsFull() throws Exception {
+        when(batchService.parseAll(any())).thenThrow(new RejectedExecutionException("queue full"));
+
+        mockMvc.perform(post("/api/parse/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filePaths\": [\"a.xml\"]}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.errorType").value("QUEUE_FULL"));
+    }
+}
@@ -1,23 +1,37 @@
 package com.example.contactparser.controller;
 
 import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.handler.ContactProjection;
 import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ContactTreeCodec;
+import com.example.contactparser.model.ParseResult;
 import com.example.contactparser.service.ContactXmlParserService;
+import com.example.contactparser.service.ContentResultCache;
+import com.example.contactparser.service.FileResultCache;
+import com.example.contactparser.service.ParseOptions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockPart;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -86,6 +100,44 @@ class ContactParserControllerTest {
                 .andExpect(jsonPath("$.count").value(2));
     }
 
+    @Test
+    void testParseWithProjectionParameters() throws Exception {
+        ArgumentCaptor<ParseOptions> options = ArgumentCaptor.forClass(ParseOptions.class);
+        when(parserService.parseFromContent(anyString(), options.capture()))
+                .thenReturn(new ParseResult(testContacts.subList(0, 1), 1, 1, 0, 0));
+
+        String requestBody = objectMapper.writeValueAsString(
+                java.util.Map.of("xmlContent", "<contacts></contacts>")
+        );
+
+        mockMvc.perform(post("/api/parse")
+                        .param("maxDepth", "1")
+                        .param("fields", "name")
+                        .param("ids", "1,7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1));
+
+        assertEquals(1, options.getValue().getMaxDepth());
+        assertEquals(Set.of(ContactProjection.Field.NAME), options.getValue().getFields());
+        assertEquals(Set.of("1", "7"), options.getValue().getIds());
+    }
+
+    @Test
+    void testParseWithUnknownProjectionField() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(
+                java.util.Map.of("xmlContent", "<contacts></contacts>")
+        );
+
+        mockMvc.perform(post("/api/parse")
+                        .param("fields", "email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorType").value("VALIDATION_ERROR"));
+    }
+
     @Test
     void testParseWithEmptyRequest() throws Exception {
         String requestBody = objectMapper.writeValueAsString(
@@ -175,7 +227,7 @@ class ContactParserControllerTest {
         );
 
         List<Contact> contacts = List.of(testContacts.get(0));
-        when(parserService.parseFromInputStream(any())).thenReturn(contacts);
+        when(parserService.parseFromInputStream(any(), nullable(String.class))).thenReturn(contacts);
 
         mockMvc.perform(multipart("/api/parse/upload")
                         .file(file))
@@ -211,7 +263,7 @@ class ContactParserControllerTest {
                 "invalid xml".getBytes()
         );
 
-        when(parserService.parseFromInputStream(any())).thenThrow(new IllegalArgumentException("XML parsing failed"));
+        when(parserService.parseFromInputStream(any(), nullable(String.class))).thenThrow(new IllegalArgumentException("XML parsing failed"));
 
         mockMvc.perform(multipart("/api/parse/upload")
                         .file(file))
@@ -237,7 +289,7 @@ class ContactParserControllerTest {
                 12
         );
 
-        when(parserService.parseFromInputStream(any())).thenThrow(exception);
+        when(parserService.parseFromInputStream(any(), nullable(String.class))).thenThrow(exception);
 
         mockMvc.perform(multipart("/api/parse/upload")
                         .file(file))
@@ -266,4 +318,228 @@ class ContactParserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamXmlContentAsNdjson() throws Exception {
+        when(parserService.streamFromContent(anyString(), any())).thenAnswer(invocation -> {
+            java.util.function.Consumer<Contact> consumer = invocation.getArgument(1);
+            testContacts.forEach(consumer);
+            return testContacts.size();
+        });
+
+        String requestBody = objectMapper.writeValueAsString(
+                java.util.Map.of("xmlContent", "<contacts></contacts>")
+        );
+
+        String body = mockMvc.perform(post("/api/parse/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("1", objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals("Jane", objectMapper.readTree(lines[1]).get("name").asText());
+        assertTrue(objectMapper.readTree(lines[2]).get("success").asBoolean());
+        assertEquals(2, objectMapper.readTree(lines[2]).get("count").asInt());
+    }
+
+    @Test
+    void testParseRawXmlBody() throws Exception {
+        ArgumentCaptor<ParseOptions> options = ArgumentCaptor.forClass(ParseOptions.class);
+        ArgumentCaptor<InputStream> body = ArgumentCaptor.forClass(InputStream.class);
+        List<String> bodies = new ArrayList<>();
+        when(parserService.parseFromInputStream(body.capture(), options.capture())).thenAnswer(invocation -> {
+            bodies.add(new String(body.getValue().readAllBytes(), StandardCharsets.UTF_8));
+            return new ParseResult(testContacts, 2, 1, 0, 0);
+        });
+
+        mockMvc.perform(post("/api/parse")
+                        .param("maxDepth", "1")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .header("Content-Encoding", "gzip")
+                        .content("<contacts/>"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.contacts[1].name").value("Jane"));
+
+        assertEquals(List.of("<contacts/>"), bodies);
+        assertTrue(options.getValue().getCheckRootElement());
+        assertEquals("gzip", options.getValue().getContentEncoding());
+        assertEquals(1, options.getValue().getMaxDepth());
+    }
+
+    @Test
+    void testRawXmlBodyErrors() throws Exception {
+        when(parserService.parseFromInputStream(any(InputStream.class), any(ParseOptions.class)))
+                .thenThrow(new XmlParsingException("Invalid XML structure", "MISSING_ROOT_ELEMENT"));
+
+        mockMvc.perform(post("/api/parse")
+                        .contentType(MediaType.TEXT_XML)
+                        .content("<people/>"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorType").value("MISSING_ROOT_ELEMENT"));
+    }
+
+    @Test
+    void testStreamRawXmlBodyAsNdjson() throws Exception {
+        when(parserService.streamFromInputStream(any(InputStream.class), any(ParseOptions.class), any()))
+                .thenAnswer(invocation -> {
+                    java.util.function.Consumer<Contact> consumer = invocation.getArgument(2);
+                    testContacts.forEach(consumer);
+                    return testContacts.size();
+                });
+
+        String body = mockMvc.perform(post("/api/parse/stream")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<contacts/>"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("2", objectMapper.readTree(lines[1]).get("id").asText());
+        assertEquals(2, objectMapper.readTree(lines[2]).get("count").asInt());
+    }
+
+    @Test
+    void testUploadPassesPartContentEncoding() throws Exception {
+        MockPart part = new MockPart("file", "test.xml.gz", new byte[] {0x1f, (byte) 0x8b, 0});
+        part.getHeaders().set("Content-Encoding", "gzip");
+        when(parserService.parseFromInputStream(any(), eq("gzip"))).thenReturn(testContacts);
+
+        mockMvc.perform(multipart("/api/parse/upload")
+                        .part(part))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.fileName").value("test.xml.gz"));
+    }
+
+    @Test
+    void testParseNegotiatesBinaryContactTree() throws Exception {
+        when(parserService.parse(anyString())).thenReturn(testContacts);
+
+        byte[] body = mockMvc.perform(post("/api/parse")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(ContactTreeCodec.MEDIA_TYPE + ", application/json;q=0.9")
+                        .content("{\"filePath\": \"test.xml\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ContactTreeCodec.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(testContacts.toString(), ContactTreeCodec.decode(body).toString());
+    }
+
+    @Test
+    void testJsonStaysPreferredUnlessBinaryRanksHigher() throws Exception {
+        when(parserService.parse(anyString())).thenReturn(testContacts);
+
+        mockMvc.perform(post("/api/parse")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON_VALUE + ", " + ContactTreeCodec.MEDIA_TYPE + ";q=0.5")
+                        .content("{\"filePath\": \"test.xml\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success").value(true));
+    }
+
+    @Test
+    void testBinaryRequestStillGetsJsonErrors() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.xml", "text/xml", "<contacts>".getBytes());
+        when(parserService.parseFromInputStream(any(), nullable(String.class)))
+                .thenThrow(new XmlParsingException("XML Format Error: Premature end", "PREMATURE_END", 1, 11));
+
+        mockMvc.perform(multipart("/api/parse/upload")
+                        .file(file)
+                        .accept(ContactTreeCodec.MEDIA_TYPE))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.errorType").value("PREMATURE_END"));
+    }
+
+    @Test
+    void testStreamUploadReportsErrorAsLastRecord() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "test.xml",
+                "text/xml",
+                "<contacts><contact id=\"1\">".getBytes()
+        );
+
+        when(parserService.streamFromInputStream(any(), nullable(String.class), any())).thenAnswer(invocation -> {
+            java.util.function.Consumer<Contact> consumer = invocation.getArgument(2);
+            consumer.accept(testContacts.get(0));
+            throw new XmlParsingException("XML Format Error: Premature end", "PREMATURE_END", 1, 28);
+        });
+
+        String body = mockMvc.perform(multipart("/api/parse/stream")
+                        .file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("1", objectMapper.readTree(lines[0]).get("id").asText());
+        assertFalse(objectMapper.readTree(lines[1]).get("success").asBoolean());
+        assertEquals("PREMATURE_END", objectMapper.readTree(lines[1]).get("errorType").asText());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("lineNumber").asInt());
+    }
+
+    @Test
+    void testStreamWithEmptyRequest() throws Exception {
+        mockMvc.perform(post("/api/parse/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error").value("Either file path or XML content is required"));
+    }
+
+    @Test
+    void testSaxParserPoolStats() throws Exception {
+        when(parserService.getSaxParserPoolStats())
+                .thenReturn(new com.example.contactparser.service.SaxParserPool.Stats(8, 3, 120, 5, 1, 900, 20000));
+
+        mockMvc.perform(get("/api/parse/pool"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxSize").value(8))
+                .andExpect(jsonPath("$.idle").value(3))
+                .andExpect(jsonPath("$.misses").value(5))
+                .andExpect(jsonPath("$.averageBorrowWaitNanos").value(900));
+    }
+
+    @Test
+    void testContentCacheStats() throws Exception {
+        when(parserService.getContentCacheStats())
+                .thenReturn(new ContentResultCache.Stats(1024, 2, 512, 3, 1, 0));
+
+        mockMvc.perform(get("/api/parse/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries").value(2))
+                .andExpect(jsonPath("$.hits").value(3))
+                .andExpect(jsonPath("$.hitRatio").value(0.75));
+    }
+
+    @Test
+    void testContentCacheStatsWhenDisabled() throws Exception {
+        mockMvc.perform(get("/api/parse/cache"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testFileCacheStats() throws Exception {
+        when(parserService.getFileCacheStats())
+                .thenReturn(new FileResultCache.Stats(4096, 1, 1024, 4, 1, 0, 1));
+
+        mockMvc.perform(get("/api/parse/file-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries").value(1))
+                .andExpect(jsonPath("$.invalidations").value(1))
+                .andExpect(jsonPath("$.hitRatio").value(0.8));
+    }
 }
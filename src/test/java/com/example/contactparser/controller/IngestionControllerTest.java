@@ -0,0 +1,40 @@
+package com.example.contactparser.controller;
+
+import com.example.contactparser.service.ContactXmlParserService;
+import com.example.contactparser.service.InboxIngestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = IngestionController.class, properties = "contact-parser.ingest.enabled=true")
+class IngestionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private InboxIngestionService ingestionService;
+
+    @MockBean
+    private ContactXmlParserService parserService;
+
+    @Test
+    void testStatsReportThroughputAndBacklog() throws Exception {
+        when(ingestionService.getStats())
+                .thenReturn(new InboxIngestionService.Stats(10, 2, 4096, 120, 3, 0, 1, 2.5, 1024.0));
+
+        mockMvc.perform(get("/api/ingest/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(10))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.backlog").value(3))
+                .andExpect(jsonPath("$.filesPerSecond").value(2.5));
+    }
+}
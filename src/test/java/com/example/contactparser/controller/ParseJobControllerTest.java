@@ -0,0 +1,162 @@
+package com.example.contactparser.controller;
+
+import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ParseJob;
+import com.example.contactparser.service.ContactXmlParserService;
+import com.example.contactparser.service.ParseJobService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockPart;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ParseJobController.class)
+class ParseJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ParseJobService jobService;
+
+    @MockBean
+    private ContactXmlParserService parserService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testSubmitPathReturnsAccepted() throws Exception {
+        ParseJob job = new ParseJob("job-1", "test.xml", 100);
+        when(jobService.submitPath("test.xml")).thenReturn(job);
+
+        mockMvc.perform(post("/api/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("filePath", "test.xml"))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.totalBytes").value(100))
+                .andExpect(jsonPath("$.statusUrl").value("/api/jobs/job-1"));
+    }
+
+    @Test
+    void testSubmitUploadReturnsAccepted() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "contacts.xml", MediaType.APPLICATION_XML_VALUE, "<contacts></contacts>".getBytes());
+        when(jobService.submitUpload(anyString(), any(), any())).thenReturn(new ParseJob("job-2", "contacts.xml", 21));
+
+        mockMvc.perform(multipart("/api/jobs").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("job-2"))
+                .andExpect(jsonPath("$.source").value("contacts.xml"));
+    }
+
+    @Test
+    void testSubmitUploadPassesPartContentEncoding() throws Exception {
+        MockPart part = new MockPart("file", "contacts.xml.gz", new byte[] {0x1f, (byte) 0x8b, 0});
+        part.getHeaders().set("Content-Encoding", "gzip");
+        when(jobService.submitUpload(anyString(), any(), eq("gzip"))).thenReturn(new ParseJob("job-3", "contacts.xml.gz", 3));
+
+        mockMvc.perform(multipart("/api/jobs").part(part))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("job-3"));
+    }
+
+    @Test
+    void testSubmitWithoutPathIsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testSubmitWhenQueueIsFull() throws Exception {
+        when(jobService.submitPath(anyString())).thenThrow(new RejectedExecutionException("full"));
+
+        mockMvc.perform(post("/api/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("filePath", "test.xml"))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.errorType").value("QUEUE_FULL"));
+    }
+
+    @Test
+    void testStatusReportsProgress() throws Exception {
+        ParseJob job = new ParseJob("job-3", "test.xml", 1000);
+        job.start();
+        job.progress(5, 400);
+        when(jobService.getJob("job-3")).thenReturn(job);
+
+        mockMvc.perform(get("/api/jobs/job-3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.contactsParsed").value(5))
+                .andExpect(jsonPath("$.bytesRead").value(400))
+                .andExpect(jsonPath("$.contacts").doesNotExist());
+    }
+
+    @Test
+    void testResultOfRunningJobIsConflict() throws Exception {
+        ParseJob job = new ParseJob("job-4", "test.xml", 1000);
+        job.start();
+        when(jobService.getJob("job-4")).thenReturn(job);
+
+        mockMvc.perform(get("/api/jobs/job-4/result"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testResultOfCompletedJob() throws Exception {
+        Contact contact = new Contact("1");
+        contact.setName("John");
+        ParseJob job = new ParseJob("job-5", "test.xml", 1000);
+        job.start();
+        job.complete(List.of(contact));
+        when(jobService.getJob("job-5")).thenReturn(job);
+
+        mockMvc.perform(get("/api/jobs/job-5/result"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.contacts[0].name").value("John"));
+    }
+
+    @Test
+    void testResultOfFailedJob() throws Exception {
+        ParseJob job = new ParseJob("job-6", "test.xml", 1000);
+        job.start();
+        job.fail("XML Format Error", "UNCLOSED_TAG", 3, 12);
+        when(jobService.getJob("job-6")).thenReturn(job);
+
+        mockMvc.perform(get("/api/jobs/job-6/result"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.errorType").value("UNCLOSED_TAG"))
+                .andExpect(jsonPath("$.lineNumber").value(3));
+    }
+
+    @Test
+    void testUnknownJobIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/jobs/missing"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.contactparser.controller;
+
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ContactTable;
+import com.example.contactparser.model.ParseSession;
+import com.example.contactparser.service.ContactXmlParserService;
+import com.example.contactparser.service.ParseSessionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ParseSessionController.class)
+class ParseSessionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ParseSessionService sessionService;
+
+    @MockBean
+    private ContactXmlParserService parserService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testCreateSessionFromPath() throws Exception {
+        ParseSession session = session("session-1");
+        when(sessionService.createFromPath("test.xml")).thenReturn(session);
+
+        mockMvc.perform(post("/api/sessions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("filePath", "test.xml"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.sessionId").value("session-1"))
+                .andExpect(jsonPath("$.rootCount").value(2))
+                .andExpect(jsonPath("$.contactCount").value(3))
+                .andExpect(jsonPath("$.contactsUrl").value("/api/sessions/session-1/contacts"));
+    }
+
+    @Test
+    void testCreateSessionFromUpload() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "contacts.xml", MediaType.APPLICATION_XML_VALUE, "<contacts></contacts>".getBytes());
+        when(sessionService.createFromUpload(anyString(), any())).thenReturn(session("session-2"));
+
+        mockMvc.perform(multipart("/api/sessions").file(file))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.sessionId").value("session-2"));
+    }
+
+    @Test
+    void testOversizedSessionIsPayloadTooLarge() throws Exception {
+        when(sessionService.createFromContent(anyString()))
+                .thenThrow(new XmlParsingException("Parse result too large", "SESSION_TOO_LARGE"));
+
+        mockMvc.perform(post("/api/sessions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("xmlContent", "<contacts/>"))))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.errorType").value("SESSION_TOO_LARGE"));
+    }
+
+    @Test
+    void testPageReturnsContactsAndNextCursor() throws Exception {
+        ParseSession session = session("session-1");
+        List<Contact> contacts = session.getTable().getRootContacts().subList(0, 1);
+        when(sessionService.getPage("session-1", null, 1))
+                .thenReturn(new ParseSessionService.Page(session, 0, contacts, "next"));
+
+        mockMvc.perform(get("/api/sessions/session-1/contacts").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.contacts[0].name").value("David"))
+                .andExpect(jsonPath("$.contacts[0].contacts[0].id").value("2"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.nextUrl").value("/api/sessions/session-1/contacts?cursor=next&limit=1"));
+    }
+
+    @Test
+    void testInvalidCursorIsBadRequest() throws Exception {
+        when(sessionService.getPage("session-1", "bogus", null))
+                .thenThrow(new IllegalArgumentException("Invalid cursor for session session-1"));
+
+        mockMvc.perform(get("/api/sessions/session-1/contacts").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorType").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    void testUnknownSession() throws Exception {
+        mockMvc.perform(get("/api/sessions/missing"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/sessions/missing/contacts"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/sessions/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testDeleteSession() throws Exception {
+        when(sessionService.delete("session-1")).thenReturn(true);
+
+        mockMvc.perform(delete("/api/sessions/session-1"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void testSearchReturnsMatchingContacts() throws Exception {
+        ParseSession session = session("session-1");
+        when(sessionService.search(eq("session-1"), eq(new ParseSessionService.Search(null, "da", null)), eq(10)))
+                .thenReturn(new ParseSessionService.SearchResult(
+                        session, List.of(session.getTable().getContact(0)), true));
+
+        mockMvc.perform(get("/api/sessions/session-1/search").param("name", "da").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.truncated").value(true))
+                .andExpect(jsonPath("$.contacts[0].name").value("David"))
+                .andExpect(jsonPath("$.contacts[0].contacts[0].id").value("2"));
+    }
+
+    @Test
+    void testSearchWithoutCriteriaIsBadRequest() throws Exception {
+        when(sessionService.search(eq("session-1"), any(), any()))
+                .thenThrow(new IllegalArgumentException("At least one of id, name or lastName is required"));
+
+        mockMvc.perform(get("/api/sessions/session-1/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorType").value("VALIDATION_ERROR"));
+    }
+
+    private static ParseSession session(String id) {
+        ContactTable table = new ContactTable();
+        int david = table.addContact(ContactTable.NO_VALUE, table.addString("1"));
+        table.setNameRef(david, table.addString("David"));
+        int mary = table.addContact(david, table.addString("2"));
+        table.endContact(mary);
+        table.endContact(david);
+        int john = table.addContact(ContactTable.NO_VALUE, table.addString("3"));
+        table.endContact(john);
+        return new ParseSession(id, "test.xml", table);
+    }
+}
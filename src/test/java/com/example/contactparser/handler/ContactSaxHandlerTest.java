@@ -1,5 +1,6 @@
 package com.example.contactparser.handler;
 
+import com.example.contactparser.exception.XmlParsingException;
 import com.example.contactparser.model.Contact;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,7 +11,10 @@ import org.xml.sax.InputSource;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import java.io.StringReader;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -212,4 +216,171 @@ class ContactSaxHandlerTest {
         Contact level3 = level2.getContacts().get(0);
         assertEquals("Level3", level3.getName());
     }
+
+    @Test
+    void testMaxDepthSkipsDeeperContacts() throws Exception {
+        String xml = """
+                <contacts>
+                    <contact id="1">
+                        <name>Level1</name>
+                        <contact id="2">
+                            <name>Level2</name>
+                            <contact id="3"><name>Level3</name></contact>
+                        </contact>
+                    </contact>
+                    <contact id="4"><name>Other</name></contact>
+                </contacts>
+                """;
+
+        ContactTreeBuilder builder = new ContactTreeBuilder();
+        handler = new ContactSaxHandler(builder, new ContactProjection(2, null, null));
+        parser.parse(new InputSource(new StringReader(xml)), handler);
+        List<Contact> contacts = handler.getRootContacts();
+
+        assertEquals(2, contacts.size());
+        Contact level2 = contacts.get(0).getContacts().get(0);
+        assertEquals("Level2", level2.getName());
+        assertTrue(level2.getContacts().isEmpty());
+        assertEquals("Other", contacts.get(1).getName());
+        assertEquals(3, builder.getContactCount());
+    }
+
+    @Test
+    void testFieldProjectionLeavesOtherFieldsUnset() throws Exception {
+        String xml = """
+                <contacts>
+                    <contact id="1">
+                        <name>John</name>
+                        <lastName>DOE</lastName>
+                        <contact id="2"><name>Jane</name><lastName>ROE</lastName></contact>
+                    </contact>
+                </contacts>
+                """;
+
+        handler = new ContactSaxHandler(new ContactTreeBuilder(),
+                new ContactProjection(0, EnumSet.of(ContactProjection.Field.LAST_NAME), null));
+        parser.parse(new InputSource(new StringReader(xml)), handler);
+        Contact contact = handler.getRootContacts().get(0);
+
+        assertNull(contact.getName());
+        assertEquals("DOE", contact.getLastName());
+        assertNull(contact.getContacts().get(0).getName());
+        assertEquals("ROE", contact.getContacts().get(0).getLastName());
+    }
+
+    @Test
+    void testRootIdsSkipWholeSubtrees() throws Exception {
+        String xml = """
+                <contacts>
+                    <contact id="1">
+                        <name>First</name>
+                        <contact id="2"><name>Child</name></contact>
+                    </contact>
+                    <contact id="3">
+                        <name>Second</name>
+                        <contact id="1"><name>Nested</name></contact>
+                    </contact>
+                </contacts>
+                """;
+
+        ContactTreeBuilder builder = new ContactTreeBuilder();
+        handler = new ContactSaxHandler(builder, new ContactProjection(0, null, Set.of("3")));
+        parser.parse(new InputSource(new StringReader(xml)), handler);
+        List<Contact> contacts = handler.getRootContacts();
+
+        assertEquals(1, contacts.size());
+        assertEquals("Second", contacts.get(0).getName());
+        assertEquals("Nested", contacts.get(0).getContacts().get(0).getName());
+        assertEquals(2, builder.getContactCount());
+    }
+
+    @Test
+    void testNegativeMaxDepthIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ContactProjection(-1, null, null));
+    }
+
+    @Test
+    void testDepthBudgetStopsParsingWithLocation() {
+        String xml = "<contacts>\n<contact id=\"1\"><contact id=\"2\"><contact id=\"3\"/></contact></contact>\n</contacts>";
+        handler = new ContactSaxHandler(new ContactTreeBuilder(), ContactProjection.ALL, new ParseBudget(3, 0, 0));
+
+        XmlParsingException exception = assertThrows(XmlParsingException.class,
+                () -> parser.parse(new InputSource(new StringReader(xml)), handler));
+
+        assertEquals(ParseBudget.ERROR_TYPE, exception.getErrorType());
+        assertEquals(2, exception.getLineNumber());
+        assertTrue(exception.getMessage().contains("nesting depth is limited to 3"));
+    }
+
+    @Test
+    void testContactAndTextBudgets() {
+        String xml = """
+                <contacts>
+                    <contact id="1"><name>John</name></contact>
+                    <contact id="2"><name>Jane</name></contact>
+                    <contact id="3"><name>Jim</name></contact>
+                </contacts>
+                """;
+
+        ContactSaxHandler contactLimited = new ContactSaxHandler(new ContactTreeBuilder(), ContactProjection.ALL,
+                new ParseBudget(0, 2, 0));
+        XmlParsingException contacts = assertThrows(XmlParsingException.class,
+                () -> parser.parse(new InputSource(new StringReader(xml)), contactLimited));
+        assertTrue(contacts.getMessage().contains("number of contacts is limited to 2"));
+
+        ContactSaxHandler textLimited = new ContactSaxHandler(new ContactTreeBuilder(), ContactProjection.ALL,
+                new ParseBudget(0, 0, 3));
+        XmlParsingException text = assertThrows(XmlParsingException.class,
+                () -> parser.parse(new InputSource(new StringReader(xml)), textLimited));
+        assertEquals(ParseBudget.ERROR_TYPE, text.getErrorType());
+        assertEquals(2, text.getLineNumber());
+    }
+
+    @Test
+    void testTextBudgetIgnoresWhitespaceBetweenEndTags() throws Exception {
+        StringBuilder xml = new StringBuilder("<contacts>");
+        for (int i = 0; i < 50; i++) {
+            xml.append("<contact id=\"").append(i).append("\">");
+        }
+        xml.append("<name>Deepest</name>");
+        for (int i = 0; i < 50; i++) {
+            xml.append("\n        </contact>");
+        }
+        xml.append("</contacts>");
+        handler = new ContactSaxHandler(new ContactTreeBuilder(), ContactProjection.ALL, new ParseBudget(0, 0, 16));
+
+        parser.parse(new InputSource(new StringReader(xml.toString())), handler);
+
+        assertEquals(1, handler.getRootContacts().size());
+    }
+
+    @Test
+    void testSkippedSubtreesDoNotUseContactBudget() throws Exception {
+        String xml = """
+                <contacts>
+                    <contact id="1"><contact id="2"/><contact id="3"/></contact>
+                    <contact id="4"/>
+                </contacts>
+                """;
+        ParseBudget budget = new ParseBudget(0, 2, 0);
+        handler = new ContactSaxHandler(new ContactTreeBuilder(), new ContactProjection(1, null, null), budget);
+
+        parser.parse(new InputSource(new StringReader(xml)), handler);
+
+        assertEquals(2, handler.getRootContacts().size());
+        assertEquals(2, budget.getContactCount());
+    }
+
+    @Test
+    void testCancelledBudgetStopsAtTheNextElement() {
+        ParseBudget budget = ParseBudget.unlimited();
+        ContactTreeBuilder builder = new ContactTreeBuilder();
+        handler = new ContactSaxHandler(builder, ContactProjection.ALL, budget);
+        handler.startElement("", "contacts", "contacts", new AttributesImpl());
+        budget.cancel();
+
+        assertThrows(CancellationException.class,
+                () -> handler.startElement("", "contact", "contact", new AttributesImpl()));
+        assertEquals(0, builder.getContactCount());
+    }
 }
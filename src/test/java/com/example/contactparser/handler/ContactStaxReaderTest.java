@@ -0,0 +1,142 @@
+package com.example.contactparser.handler;
+
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.model.Contact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+import java.io.StringReader;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactStaxReaderTest {
+
+    private ContactTreeBuilder builder;
+    private ContactStaxReader reader;
+
+    @BeforeEach
+    void setUp() {
+        builder = new ContactTreeBuilder();
+        reader = new ContactStaxReader(ContactStaxReader.newInputFactory(), builder);
+    }
+
+    @Test
+    void testReadSimpleContact() throws Exception {
+        String xml = """
+                <contacts>
+                    <contact id="1">
+                        <name>John</name>
+                        <lastName>DOE</lastName>
+                    </contact>
+                </contacts>
+                """;
+
+        reader.read(new InputSource(new StringReader(xml)));
+        List<Contact> contacts = builder.getRootContacts();
+
+        assertEquals(1, contacts.size());
+        assertEquals("1", contacts.get(0).getId());
+        assertEquals("John", contacts.get(0).getName());
+        assertEquals("DOE", contacts.get(0).getLastName());
+        assertTrue(contacts.get(0).getContacts().isEmpty());
+    }
+
+    @Test
+    void testReadNestedContacts() throws Exception {
+        String xml = """
+                <contacts>
+                    <contact id="1">
+                        <name>David</name>
+                        <lastName>FRALEY</lastName>
+                        <contacts>
+                            <contact id="2">
+                                <name>Mary</name>
+                                <lastName>JANE</lastName>
+                            </contact>
+                        </contacts>
+                    </contact>
+                    <contact id="3">
+                        <name>John</name>
+                    </contact>
+                </contacts>
+                """;
+
+        reader.read(new InputSource(new StringReader(xml)));
+        List<Contact> contacts = builder.getRootContacts();
+
+        assertEquals(2, contacts.size());
+        assertEquals(1, contacts.get(0).getContacts().size());
+        assertEquals("Mary", contacts.get(0).getContacts().get(0).getName());
+        assertEquals("3", contacts.get(1).getId());
+        assertNull(contacts.get(1).getLastName());
+    }
+
+    @Test
+    void testReadEntitiesAndCdata() throws Exception {
+        String xml = "<contacts><contact id=\"1\"><name>John &amp; <![CDATA[Jane]]></name></contact></contacts>";
+
+        reader.read(new InputSource(new StringReader(xml)));
+
+        assertEquals("John & Jane", builder.getRootContacts().get(0).getName());
+    }
+
+    @Test
+    void testReadMalformedReportsLocation() {
+        String xml = "<contacts>\n<contact id=\"1\">\n<name>John</contact>\n</contacts>";
+
+        SAXParseException exception = assertThrows(SAXParseException.class, () ->
+                reader.read(new InputSource(new StringReader(xml))));
+
+        assertEquals(3, exception.getLineNumber());
+        assertTrue(exception.getColumnNumber() > 0);
+        assertFalse(exception.getMessage().startsWith("ParseError"));
+    }
+
+    @Test
+    void testReadWithProjection() throws Exception {
+        String xml = """
+                <contacts>
+                    <contact id="1">
+                        <name>First</name>
+                        <lastName>ONE</lastName>
+                        <contact id="2"><name>Child</name></contact>
+                    </contact>
+                    <contact id="3"><name>Second</name></contact>
+                </contacts>
+                """;
+
+        reader = new ContactStaxReader(ContactStaxReader.newInputFactory(), builder,
+                new ContactProjection(1, EnumSet.of(ContactProjection.Field.NAME), Set.of("1")));
+        reader.read(new InputSource(new StringReader(xml)));
+        List<Contact> contacts = builder.getRootContacts();
+
+        assertEquals(1, contacts.size());
+        assertEquals("First", contacts.get(0).getName());
+        assertNull(contacts.get(0).getLastName());
+        assertTrue(contacts.get(0).getContacts().isEmpty());
+        assertEquals(1, builder.getContactCount());
+    }
+
+    @Test
+    void testReadStopsWhenBudgetIsExceeded() {
+        String xml = "<contacts>\n<contact id=\"1\"><name>Johnathan</name></contact>\n</contacts>";
+
+        reader = new ContactStaxReader(ContactStaxReader.newInputFactory(), builder, ContactProjection.ALL,
+                new ParseBudget(0, 0, 4));
+        XmlParsingException text = assertThrows(XmlParsingException.class,
+                () -> reader.read(new InputSource(new StringReader(xml))));
+        assertEquals(ParseBudget.ERROR_TYPE, text.getErrorType());
+        assertEquals(2, text.getLineNumber());
+
+        reader = new ContactStaxReader(ContactStaxReader.newInputFactory(), new ContactTreeBuilder(),
+                ContactProjection.ALL, new ParseBudget(2, 0, 0));
+        XmlParsingException depth = assertThrows(XmlParsingException.class,
+                () -> reader.read(new InputSource(new StringReader(xml))));
+        assertTrue(depth.getMessage().contains("nesting depth is limited to 2"));
+    }
+}
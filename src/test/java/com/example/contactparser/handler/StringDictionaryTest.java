@@ -0,0 +1,78 @@
+package com.example.contactparser.handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringDictionaryTest {
+
+    @Test
+    void testInternReturnsCanonicalInstance() {
+        StringDictionary dictionary = new StringDictionary(16);
+
+        String first = dictionary.intern(new StringBuilder("  John  "), 2, 6);
+        String second = dictionary.intern(new StringBuilder("John"), 0, 4);
+
+        assertEquals("John", first);
+        assertSame(first, second);
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    void testLookupMissReturnsNull() {
+        StringDictionary dictionary = new StringDictionary(16);
+        dictionary.add("John");
+
+        assertNull(dictionary.lookup("Jane", 0, 4));
+        assertNull(dictionary.lookup("Joh", 0, 3));
+        assertNotNull(dictionary.lookup("xJohnx", 1, 5));
+    }
+
+    @Test
+    void testStats() {
+        StringDictionary dictionary = new StringDictionary(16);
+
+        dictionary.intern("DOE");
+        dictionary.intern("DOE");
+        dictionary.intern("SMITH");
+        dictionary.intern("DOE");
+
+        StringDictionary.Stats stats = dictionary.getStats();
+        assertEquals(4, stats.lookups());
+        assertEquals(2, stats.hits());
+        assertEquals(0.5, stats.getHitRatio());
+    }
+
+    @Test
+    void testGrowsAndHandlesEmptyString() {
+        StringDictionary dictionary = new StringDictionary(10_000);
+
+        for (int i = 0; i < 5_000; i++) {
+            dictionary.intern("name" + i);
+        }
+        String empty = dictionary.intern("");
+
+        assertEquals(5_001, dictionary.size());
+        assertSame(empty, dictionary.intern(new StringBuilder(), 0, 0));
+        assertNotNull(dictionary.lookup("name4999", 0, 8));
+    }
+
+    @Test
+    void testResetsWhenFull() {
+        StringDictionary dictionary = new StringDictionary(2);
+
+        dictionary.intern("a");
+        dictionary.intern("b");
+        dictionary.intern("c");
+
+        assertEquals(1, dictionary.size());
+        assertEquals(1, dictionary.getStats().resets());
+        assertNull(dictionary.lookup("a", 0, 1));
+        assertNotNull(dictionary.lookup("c", 0, 1));
+    }
+
+    @Test
+    void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new StringDictionary(0));
+    }
+}
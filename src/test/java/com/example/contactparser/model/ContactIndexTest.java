@@ -0,0 +1,111 @@
+package com.example.contactparser.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactIndexTest {
+
+    private ContactTable table;
+    private ContactIndex index;
+
+    @BeforeEach
+    void setUp() {
+        table = new ContactTable();
+        addRoot("1", "David", "FRALEY");
+        int mary = table.addContact(0, table.addString("2"));
+        table.setNameRef(mary, table.addString("Mary"));
+        table.setLastNameRef(mary, table.addString("fraser"));
+        table.endContact(mary);
+        table.endContact(0);
+        addRoot("3", "Daniel", "Smith");
+        addRoot("1", "dana", null);
+        addRoot(null, null, "FRANK");
+        index = ContactIndex.build(table);
+    }
+
+    @Test
+    void testFindByIdReturnsEveryRowInDocumentOrder() {
+        assertEquals(List.of(0, 3), find(visitor -> index.findById("1", visitor)));
+        assertEquals(List.of(1), find(visitor -> index.findById("2", visitor)));
+        assertTrue(find(visitor -> index.findById("9", visitor)).isEmpty());
+        assertTrue(find(visitor -> index.findById(null, visitor)).isEmpty());
+    }
+
+    @Test
+    void testPrefixSearchIgnoresCaseAndIsSorted() {
+        assertEquals(List.of(3, 2, 0), find(visitor -> index.findByNamePrefix("DA", visitor)));
+        assertEquals(List.of(2), find(visitor -> index.findByNamePrefix("dani", visitor)));
+        assertEquals(List.of(0, 4, 1), find(visitor -> index.findByLastNamePrefix("fra", visitor)));
+        assertTrue(find(visitor -> index.findByLastNamePrefix("frz", visitor)).isEmpty());
+
+        assertEquals(3, index.countByNamePrefix("da"));
+        assertEquals(4, index.countByNamePrefix(""));
+        assertEquals(0, index.countByLastNamePrefix("FRASERS"));
+    }
+
+    @Test
+    void testVisitorCanStopEarly() {
+        List<Integer> rows = new ArrayList<>();
+        index.findByLastNamePrefix("F", row -> {
+            rows.add(row);
+            return rows.size() < 2;
+        });
+
+        assertEquals(List.of(0, 4), rows);
+    }
+
+    @Test
+    void testIndexOverOffHeapTable() {
+        ContactIndex offHeap = ContactIndex.build(table.copyOffHeap());
+
+        assertEquals(List.of(0, 3), find(visitor -> offHeap.findById("1", visitor)));
+        assertEquals(List.of(3, 2, 0), find(visitor -> offHeap.findByNamePrefix("DA", visitor)));
+        assertEquals(index.estimateRetainedBytes(), offHeap.estimateRetainedBytes());
+
+        offHeap.release();
+
+        assertTrue(find(visitor -> offHeap.findById("1", visitor)).isEmpty());
+        assertEquals(0, offHeap.countByNamePrefix(""));
+    }
+
+    @Test
+    void testLargeTable() {
+        ContactTable large = new ContactTable();
+        for (int i = 0; i < 10_000; i++) {
+            int row = large.addContact(ContactTable.NO_VALUE, large.addString(String.valueOf(i % 5000)));
+            large.setLastNameRef(row, large.addString("Name" + (9999 - i)));
+            large.endContact(row);
+        }
+
+        ContactIndex largeIndex = ContactIndex.build(large);
+        List<Integer> rows = new ArrayList<>();
+        largeIndex.findById("42", rows::add);
+        List<Integer> sorted = new ArrayList<>();
+        largeIndex.findByLastNamePrefix("Name", sorted::add);
+
+        assertEquals(List.of(42, 5042), rows);
+        assertEquals(10_000, sorted.size());
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(large.getLastName(sorted.get(i - 1)).compareTo(large.getLastName(sorted.get(i))) <= 0);
+        }
+        assertEquals(111, largeIndex.countByLastNamePrefix("Name99"));
+    }
+
+    private void addRoot(String id, String name, String lastName) {
+        int row = table.addContact(ContactTable.NO_VALUE, table.addString(id));
+        table.setNameRef(row, table.addString(name));
+        table.setLastNameRef(row, table.addString(lastName));
+        table.endContact(row);
+    }
+
+    private static List<Integer> find(java.util.function.Consumer<ContactIndex.RowVisitor> search) {
+        List<Integer> rows = new ArrayList<>();
+        search.accept(rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.contactparser.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteConstraints;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactJsonWriterTest {
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private interface BeanSerialization {
+    }
+
+    @Test
+    void testOutputMatchesBeanSerialization() throws Exception {
+        Contact root = new Contact("1");
+        root.setName("John \"Johnny\"");
+        root.setLastName("DOE");
+        Contact child = new Contact("2");
+        child.setName("Jane");
+        child.addSubContact(new Contact(null));
+        root.addSubContact(child);
+        root.addSubContact(new Contact("3"));
+        List<Contact> contacts = List.of(root, new Contact("4"));
+
+        ObjectMapper beanMapper = new ObjectMapper().addMixIn(Contact.class, BeanSerialization.class);
+        StringWriter written = new StringWriter();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(written)) {
+            ContactJsonWriter.write(generator, contacts);
+        }
+
+        assertEquals(beanMapper.writeValueAsString(contacts), written.toString());
+        assertEquals(beanMapper.writeValueAsString(Map.of("contacts", contacts)),
+                new ObjectMapper().writeValueAsString(Map.of("contacts", contacts)));
+    }
+
+    @Test
+    void testDeepTreeIsWrittenWithoutRecursion() throws Exception {
+        int depth = 100_000;
+        Contact root = new Contact("0");
+        Contact current = root;
+        for (int i = 1; i < depth; i++) {
+            Contact child = new Contact(String.valueOf(i));
+            current.addSubContact(child);
+            current = child;
+        }
+
+        JsonFactory factory = JsonFactory.builder()
+                .streamWriteConstraints(StreamWriteConstraints.builder().maxNestingDepth(Integer.MAX_VALUE).build())
+                .build();
+        StringWriter written = new StringWriter();
+        try (JsonGenerator generator = factory.createGenerator(written)) {
+            ContactJsonWriter.write(generator, root);
+        }
+
+        String json = written.toString();
+        assertTrue(json.startsWith("{\"id\":\"0\",\"name\":null,\"lastName\":null,\"contacts\":[{\"id\":\"1\""));
+        assertTrue(json.endsWith("\"contacts\":[]}" + "]}".repeat(depth - 1)));
+    }
+
+    @Test
+    void testRowContactsFromTablesAreWritten() throws Exception {
+        ContactTable table = new ContactTable();
+        int john = table.addContact(ContactTable.NO_VALUE, table.addString("1"));
+        table.setNameRef(john, table.addString("John"));
+        table.endContact(table.addContact(john, table.addString("2")));
+        table.endContact(john);
+
+        JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(table.getRootContacts()));
+
+        assertEquals("John", json.get(0).get("name").asText());
+        assertEquals("2", json.get(0).get("contacts").get(0).get("id").asText());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.contactparser.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactTableSnapshotTest {
+
+    private static final FileTime MODIFIED = FileTime.fromMillis(1_700_000_000_123L);
+
+    @TempDir
+    Path tempDir;
+
+    private ContactTable table;
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() {
+        table = new ContactTable();
+        int david = table.addContact(ContactTable.NO_VALUE, table.addString("1"));
+        table.setNameRef(david, table.addString("David"));
+        table.setLastNameRef(david, table.addString("FRALEY"));
+        int mary = table.addContact(david, table.addString("2"));
+        table.setNameRef(mary, table.addString("Märy ✓"));
+        table.endContact(mary);
+        table.endContact(david);
+        int anonymous = table.addContact(ContactTable.NO_VALUE, table.addString(null));
+        table.endContact(anonymous);
+
+        snapshot = tempDir.resolve("contacts.xml.snapshot");
+    }
+
+    @Test
+    void testRoundTripMapsTheSameTable() throws Exception {
+        ContactTableSnapshot.write(table, snapshot, 123, MODIFIED);
+
+        ContactTable loaded = ContactTableSnapshot.read(snapshot, 123, MODIFIED);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertTrue(loaded.isOffHeap());
+        assertEquals(table.size(), loaded.size());
+        assertEquals(table.getRootContacts().toString(), loaded.getRootContacts().toString());
+        assertEquals(objectMapper.writeValueAsString(table.getRootContacts()),
+                objectMapper.writeValueAsString(loaded.getRootContacts()));
+        assertEquals("Märy ✓", loaded.getName(1));
+        assertNull(loaded.getId(2));
+        assertThrows(UnsupportedOperationException.class, () -> loaded.addString("x"));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testSnapshotOfAnotherSourceVersionIsStale() throws Exception {
+        ContactTableSnapshot.write(table, snapshot, 123, MODIFIED);
+
+        assertNull(ContactTableSnapshot.read(snapshot, 124, MODIFIED));
+        assertNull(ContactTableSnapshot.read(snapshot, 123, FileTime.fromMillis(MODIFIED.toMillis() + 1)));
+        assertThrows(NoSuchFileException.class,
+                () -> ContactTableSnapshot.read(tempDir.resolve("missing.snapshot"), 123, MODIFIED));
+    }
+
+    @Test
+    void testDamagedSnapshotsAreRejected() throws Exception {
+        ContactTableSnapshot.write(table, snapshot, 123, MODIFIED);
+        byte[] bytes = Files.readAllBytes(snapshot);
+
+        byte[] flipped = bytes.clone();
+        flipped[flipped.length - 1] ^= 1;
+        Files.write(snapshot, flipped);
+        IOException checksum = assertThrows(IOException.class, () -> ContactTableSnapshot.read(snapshot, 123, MODIFIED));
+
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 2));
+        IOException truncated = assertThrows(IOException.class, () -> ContactTableSnapshot.read(snapshot, 123, MODIFIED));
+
+        byte[] header = bytes.clone();
+        header[0] = 'X';
+        Files.write(snapshot, header);
+        IOException magic = assertThrows(IOException.class, () -> ContactTableSnapshot.read(snapshot, 123, MODIFIED));
+
+        assertTrue(checksum.getMessage().contains("checksum"));
+        assertTrue(truncated.getMessage().contains("section sizes"));
+        assertTrue(magic.getMessage().contains("unexpected header"));
+    }
+
+    @Test
+    void testSnapshotOfLoadedTableAndOverwrite() throws Exception {
+        ContactTableSnapshot.write(table, snapshot, 123, MODIFIED);
+        ContactTable loaded = ContactTableSnapshot.read(snapshot, 123, MODIFIED);
+
+        Path copy = tempDir.resolve("copy.snapshot");
+        ContactTableSnapshot.write(loaded, copy, 123, MODIFIED);
+        ContactTableSnapshot.write(new ContactTable(), snapshot, 7, MODIFIED);
+
+        assertEquals(table.getRootContacts().toString(),
+                ContactTableSnapshot.read(copy, 123, MODIFIED).getRootContacts().toString());
+        assertEquals(table.getRootContacts().toString(), loaded.getRootContacts().toString());
+        assertEquals(0, ContactTableSnapshot.read(snapshot, 7, MODIFIED).size());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.contactparser.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactTableTest {
+
+    private ContactTable table;
+
+    @BeforeEach
+    void setUp() {
+        table = new ContactTable();
+
+        int david = table.addContact(ContactTable.NO_VALUE, table.addString("1"));
+        table.setNameRef(david, table.addString("David"));
+        table.setLastNameRef(david, table.addString("FRALEY"));
+        int mary = table.addContact(david, table.addString("2"));
+        table.setNameRef(mary, table.addString("  Mary  ", 2, 6));
+        table.endContact(mary);
+        table.endContact(david);
+
+        int john = table.addContact(ContactTable.NO_VALUE, table.addString(null));
+        table.setNameRef(john, table.addString(new StringBuilder("John"), 0, 4));
+        table.endContact(john);
+    }
+
+    @Test
+    void testColumns() {
+        assertEquals(3, table.size());
+        assertEquals(2, table.getRootCount());
+        assertEquals(ContactTable.NO_VALUE, table.getParentRow(0));
+        assertEquals(0, table.getParentRow(1));
+        assertEquals(2, table.getSubtreeEnd(0));
+        assertEquals("Mary", table.getName(1));
+        assertNull(table.getLastName(1));
+        assertNull(table.getId(2));
+        assertEquals(6, table.getStringCount());
+        assertEquals("1DavidFRALEY2MaryJohn".length(), table.getArenaLength());
+    }
+
+    @Test
+    void testRootContactViews() {
+        List<Contact> roots = table.getRootContacts();
+
+        assertEquals(2, roots.size());
+        assertEquals("1", roots.get(0).getId());
+        assertEquals("FRALEY", roots.get(0).getLastName());
+        assertEquals(1, roots.get(0).getContacts().size());
+        assertEquals("Mary", roots.get(0).getContacts().get(0).getName());
+        assertTrue(roots.get(1).getContacts().isEmpty());
+        assertEquals("John", roots.get(1).getName());
+    }
+
+    @Test
+    void testViewsMatchTreeRepresentation() throws Exception {
+        Contact david = new Contact("1");
+        david.setName("David");
+        david.setLastName("FRALEY");
+        Contact mary = new Contact("2");
+        mary.setName("Mary");
+        david.addSubContact(mary);
+        Contact john = new Contact(null);
+        john.setName("John");
+        List<Contact> tree = List.of(david, john);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals(tree.toString(), table.getRootContacts().toString());
+        assertEquals(objectMapper.writeValueAsString(tree), objectMapper.writeValueAsString(table.getRootContacts()));
+    }
+
+    @Test
+    void testViewsAreReadOnly() {
+        Contact view = table.getContact(0);
+
+        assertThrows(UnsupportedOperationException.class, () -> view.setName("x"));
+        assertThrows(UnsupportedOperationException.class, () -> view.addSubContact(new Contact("3")));
+        assertThrows(UnsupportedOperationException.class, () -> view.getContacts().clear());
+    }
+
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        ContactTable large = new ContactTable();
+        for (int i = 0; i < 1000; i++) {
+            int row = large.addContact(ContactTable.NO_VALUE, large.addString(String.valueOf(i)));
+            large.setNameRef(row, large.addString("Name" + i));
+            large.endContact(row);
+        }
+
+        assertEquals(1000, large.getRootCount());
+        assertEquals("999", large.getRootContacts().get(999).getId());
+        assertEquals("Name500", large.getName(500));
+    }
+
+    @Test
+    void testStringComparisons() {
+        int david = table.getNameRef(0);
+        int mary = table.getNameRef(1);
+
+        assertEquals("David".hashCode(), table.hashString(david));
+        assertTrue(table.stringEquals(david, "David"));
+        assertFalse(table.stringEquals(david, "david"));
+        assertTrue(table.stringEquals(ContactTable.NO_VALUE, null));
+        assertTrue(table.compareStringsIgnoreCase(david, mary) < 0);
+        assertEquals(0, table.compareStringsIgnoreCase(david, table.addString("DAVID")));
+        assertEquals(0, table.comparePrefixIgnoreCase(david, "dav"));
+        assertTrue(table.comparePrefixIgnoreCase(david, "Davids") < 0);
+        assertTrue(table.comparePrefixIgnoreCase(mary, "Dav") > 0);
+    }
+
+    @Test
+    void testOffHeapCopyMatchesHeapTable() throws Exception {
+        ContactTable offHeap = table.copyOffHeap();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertTrue(offHeap.isOffHeap());
+        assertFalse(table.isOffHeap());
+        assertEquals(table.size(), offHeap.size());
+        assertEquals(table.getArenaLength(), offHeap.getArenaLength());
+        assertEquals(2, offHeap.getSubtreeEnd(0));
+        assertEquals(table.getRootContacts().toString(), offHeap.getRootContacts().toString());
+        assertEquals(objectMapper.writeValueAsString(table.getRootContacts()),
+                objectMapper.writeValueAsString(offHeap.getRootContacts()));
+        assertEquals("David".hashCode(), offHeap.hashString(offHeap.getNameRef(0)));
+        assertEquals(0, offHeap.comparePrefixIgnoreCase(offHeap.getLastNameRef(0), "fra"));
+        assertEquals(table.getRootContacts().toString(), offHeap.copyOffHeap().getRootContacts().toString());
+    }
+
+    @Test
+    void testOffHeapTableIsReadOnlyAndCanBeReleased() {
+        ContactTable offHeap = table.copyOffHeap();
+        Contact david = offHeap.getContact(0);
+
+        assertThrows(UnsupportedOperationException.class, () -> offHeap.addString("x"));
+        assertThrows(UnsupportedOperationException.class, () -> offHeap.addContact(ContactTable.NO_VALUE, 0));
+
+        offHeap.release();
+        offHeap.release();
+        table.release();
+
+        assertEquals(0, offHeap.size());
+        assertEquals(0, offHeap.estimateRetainedBytes());
+        assertThrows(IllegalStateException.class, david::getName);
+        assertThrows(IllegalStateException.class, () -> offHeap.getRootRow(0));
+        assertEquals("David", table.getName(0));
+    }
+
+    @Test
+    void testInvalidRow() {
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getName(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getRootRow(2));
+    }
+}
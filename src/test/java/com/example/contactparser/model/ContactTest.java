@@ -89,4 +89,33 @@ class ContactTest {
         assertTrue(toString.contains("name='John'"));
         assertTrue(toString.contains("lastName='Doe'"));
     }
+
+    @Test
+    void testToStringFormat() {
+        contact.setName("John");
+        Contact child = new Contact("2");
+        child.addSubContact(new Contact("3"));
+        contact.addSubContact(child);
+        contact.addSubContact(new Contact("4"));
+
+        assertEquals("Contact{id='1', name='John', lastName='null', contacts=["
+                + "Contact{id='2', name='null', lastName='null', contacts=["
+                + "Contact{id='3', name='null', lastName='null', contacts=[]}]}, "
+                + "Contact{id='4', name='null', lastName='null', contacts=[]}]}", contact.toString());
+    }
+
+    @Test
+    void testToStringOnDeepTree() {
+        Contact current = contact;
+        for (int i = 0; i < 100_000; i++) {
+            Contact child = new Contact(String.valueOf(i));
+            current.addSubContact(child);
+            current = child;
+        }
+
+        String text = contact.toString();
+
+        assertTrue(text.startsWith("Contact{id='1', name='null', lastName='null', contacts=[Contact{id='0'"));
+        assertTrue(text.endsWith("contacts=[]}" + "]}".repeat(100_000)));
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.contactparser.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactTreeCodecTest {
+
+    @Test
+    void testRoundTripKeepsTreeShapeAndNulls() throws Exception {
+        Contact david = new Contact("1");
+        david.setName("David");
+        david.setLastName("FRALEY");
+        Contact mary = new Contact("2");
+        mary.setName("Mary");
+        david.addSubContact(mary);
+        Contact anonymous = new Contact(null);
+        mary.addSubContact(anonymous);
+        Contact john = new Contact("3");
+        john.setName("Jöhn ✓");
+        david.addSubContact(john);
+        Contact jane = new Contact("4");
+        jane.setName("Jane");
+        List<Contact> contacts = List.of(david, jane);
+
+        List<Contact> decoded = ContactTreeCodec.decode(ContactTreeCodec.encode(contacts));
+
+        assertEquals(contacts.toString(), decoded.toString());
+        assertNull(decoded.get(0).getContacts().get(0).getContacts().get(0).getId());
+    }
+
+    @Test
+    void testRepeatedStringsAreStoredOnce() {
+        List<Contact> contacts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Contact contact = new Contact(Integer.toString(i));
+            contact.setName("Alexander");
+            contact.setLastName("Hamilton");
+            contacts.add(contact);
+        }
+
+        byte[] encoded = ContactTreeCodec.encode(contacts);
+
+        assertTrue(encoded.length < 100 * 8, "encoded " + encoded.length + " bytes");
+    }
+
+    @Test
+    void testTableViewsEncodeLikeTheirTree() throws Exception {
+        ContactTable table = new ContactTable();
+        int parent = table.addContact(ContactTable.NO_VALUE, table.addString("1"));
+        table.setNameRef(parent, table.addString("David"));
+        int child = table.addContact(parent, table.addString("2"));
+        table.endContact(child);
+        table.endContact(parent);
+
+        List<Contact> decoded = ContactTreeCodec.decode(ContactTreeCodec.encode(table.getRootContacts()));
+
+        assertEquals(table.getRootContacts().toString(), decoded.toString());
+    }
+
+    @Test
+    void testDeepTreesDoNotOverflowTheStack() throws Exception {
+        Contact root = new Contact("0");
+        Contact current = root;
+        for (int i = 1; i < 100_000; i++) {
+            Contact child = new Contact(Integer.toString(i));
+            current.addSubContact(child);
+            current = child;
+        }
+
+        List<Contact> decoded = ContactTreeCodec.decode(ContactTreeCodec.encode(List.of(root)));
+
+        Contact leaf = decoded.get(0);
+        int depth = 1;
+        while (!leaf.getContacts().isEmpty()) {
+            leaf = leaf.getContacts().get(0);
+            depth++;
+        }
+        assertEquals(100_000, depth);
+        assertEquals("99999", leaf.getId());
+    }
+
+    @Test
+    void testEncodingIsSmallerThanJson() throws Exception {
+        List<Contact> contacts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Contact contact = new Contact(Integer.toString(i));
+            contact.setName("Name" + i);
+            Contact child = new Contact(i + "-1");
+            child.setName("Child");
+            contact.addSubContact(child);
+            contacts.add(contact);
+        }
+
+        int json = new ObjectMapper().writeValueAsBytes(contacts).length;
+        int binary = ContactTreeCodec.encode(contacts).length;
+
+        assertTrue(binary * 3 < json, "binary " + binary + " bytes, json " + json + " bytes");
+    }
+
+    @Test
+    void testMalformedInputIsRejected() {
+        byte[] encoded = ContactTreeCodec.encode(List.of(new Contact("1")));
+
+        assertThrows(IOException.class, () -> ContactTreeCodec.decode("not a tree".getBytes()));
+        assertThrows(EOFException.class, () -> ContactTreeCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+
+        byte[] badReference = encoded.clone();
+        badReference[badReference.length - 4] = 9;
+        assertThrows(IOException.class, () -> ContactTreeCodec.decode(badReference));
+    }
+}
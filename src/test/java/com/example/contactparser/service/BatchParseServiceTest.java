@@ -0,0 +1,178 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.model.Contact;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchParseServiceTest {
+
+    private static final String XML = """
+            <contacts>
+                <contact id="1"><name>John</name></contact>
+                <contact id="2"><name>Jane</name></contact>
+            </contacts>
+            """;
+
+    private BatchParseService batchService;
+    private final List<ContactXmlParserService> parserServices = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (batchService != null) {
+            batchService.shutdown();
+        }
+        for (ContactXmlParserService tracked : parserServices) {
+            tracked.shutdown();
+        }
+    }
+
+    @Test
+    void testResultsKeepItemOrderAndFailuresStayPerItem(@TempDir Path tempDir) throws Exception {
+        Path good = tempDir.resolve("good.xml");
+        Path broken = tempDir.resolve("broken.xml");
+        Files.writeString(good, XML);
+        Files.writeString(broken, "<contacts><contact id=\"1\"></contacts>");
+        batchService = new BatchParseService(track(new ContactXmlParserService()), new ContactParserProperties());
+
+        List<BatchParseService.Result> results = batchService.parseAll(List.of(
+                BatchParseService.Item.path(good.toString()),
+                BatchParseService.Item.path(broken.toString()),
+                BatchParseService.Item.path(tempDir.resolve("missing.xml").toString()),
+                BatchParseService.Item.upload("upload.xml",
+                        new ByteArrayResource(XML.getBytes(StandardCharsets.UTF_8)))
+        ));
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(2, results.get(0).contacts().size());
+        assertEquals(good.toString(), results.get(0).source());
+
+        assertFalse(results.get(1).isSuccess());
+        XmlParsingException error = assertInstanceOf(XmlParsingException.class, results.get(1).error());
+        assertNotNull(error.getLineNumber());
+
+        assertInstanceOf(FileNotFoundException.class, results.get(2).error());
+
+        assertTrue(results.get(3).isSuccess());
+        assertEquals("upload.xml", results.get(3).source());
+        assertEquals("Jane", results.get(3).contacts().get(1).getName());
+    }
+
+    @Test
+    void testLargePathItemsUseParallelParsingInsteadOfTheFileCache(@TempDir Path tempDir) throws Exception {
+        StringBuilder xml = new StringBuilder("<contacts>\n");
+        for (int i = 0; i < 100; i++) {
+            xml.append("  <contact id=\"").append(i).append("\"><name>Name").append(i).append("</name></contact>\n");
+        }
+        Path large = Files.writeString(tempDir.resolve("large.xml"), xml.append("</contacts>\n"));
+        Path small = Files.writeString(tempDir.resolve("small.xml"), XML);
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getParallel().setEnabled(true);
+        properties.getParallel().setMinFileSize(DataSize.ofBytes(1024));
+        properties.getParallel().setChunkSize(DataSize.ofBytes(512));
+        ContactXmlParserService parserService = track(new ContactXmlParserService(properties));
+        batchService = new BatchParseService(parserService, properties);
+
+        List<BatchParseService.Result> results = batchService.parseAll(List.of(
+                BatchParseService.Item.path(large.toString()),
+                BatchParseService.Item.path(small.toString())
+        ));
+
+        assertEquals(100, results.get(0).contacts().size());
+        assertEquals("Name99", results.get(0).contacts().get(99).getName());
+        assertEquals(2, results.get(1).contacts().size());
+        assertEquals(1, parserService.getFileCacheStats().misses());
+        assertEquals(1, parserService.getFileCacheStats().entries());
+    }
+
+    @Test
+    void testItemsAreParsedConcurrently() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        ContactXmlParserService parserService = track(new ContactXmlParserService() {
+            @Override
+            public List<Contact> parse(String filePath) throws Exception {
+                bothRunning.countDown();
+                if (!bothRunning.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Items were not parsed concurrently");
+                }
+                return List.of(new Contact(filePath));
+            }
+        });
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getBatch().setThreads(2);
+        batchService = new BatchParseService(parserService, properties);
+
+        List<BatchParseService.Result> results = batchService.parseAll(List.of(
+                BatchParseService.Item.path("a.xml"),
+                BatchParseService.Item.path("b.xml")
+        ));
+
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals("b.xml", results.get(1).contacts().get(0).getId());
+    }
+
+    @Test
+    void testBatchIsRejectedWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> parsed = Collections.synchronizedList(new ArrayList<>());
+        ContactXmlParserService blockingService = track(new ContactXmlParserService() {
+            @Override
+            public List<Contact> parse(String filePath) throws Exception {
+                release.await(5, TimeUnit.SECONDS);
+                parsed.add(filePath);
+                return List.of(new Contact(filePath));
+            }
+        });
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getBatch().setThreads(1);
+        properties.getBatch().setQueueCapacity(1);
+        batchService = new BatchParseService(blockingService, properties);
+
+        assertThrows(RejectedExecutionException.class, () -> batchService.parseAll(List.of(
+                BatchParseService.Item.path("a.xml"),
+                BatchParseService.Item.path("b.xml"),
+                BatchParseService.Item.path("c.xml")
+        )));
+        release.countDown();
+
+        List<BatchParseService.Result> results = batchService.parseAll(List.of(BatchParseService.Item.path("d.xml")));
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(parsed.contains("b.xml"));
+    }
+
+    @Test
+    void testEmptyAndOversizedBatchesAreRejected() {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getBatch().setMaxItems(2);
+        batchService = new BatchParseService(track(new ContactXmlParserService()), properties);
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.parseAll(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> batchService.parseAll(
+                Collections.nCopies(3, BatchParseService.Item.path("a.xml"))));
+    }
+
+    private ContactXmlParserService track(ContactXmlParserService parserService) {
+        parserServices.add(parserService);
+        return parserService;
+    }
+}
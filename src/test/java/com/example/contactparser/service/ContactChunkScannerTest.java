@@ -0,0 +1,75 @@
+package com.example.contactparser.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactChunkScannerTest {
+
+    @Test
+    void testFindsTopLevelContacts() throws Exception {
+        String xml = "<?xml version=\"1.0\"?>\n<contacts><contact id=\"1\"><contacts><contact id=\"2\"/></contacts></contact>"
+                + "<contact id=\"3\"/></contacts>\n";
+
+        ContactChunkScanner.Layout layout = scan(xml);
+
+        assertNotNull(layout);
+        assertEquals("UTF-8", layout.encoding());
+        assertEquals(xml.indexOf("<contacts>") + "<contacts>".length(), layout.rootContentStart());
+        assertEquals(xml.lastIndexOf("</contacts>"), layout.rootContentEnd());
+        assertArrayEquals(new long[]{xml.indexOf("<contact id=\"1\""), xml.indexOf("<contact id=\"3\"")}, layout.contactStarts());
+    }
+
+    @Test
+    void testIgnoresMarkupInsideCommentsCdataAndAttributes() throws Exception {
+        String xml = "<contacts><!-- <contact id=\"x\"> --><contact id=\"a>b\"><name><![CDATA[</contact><contact>]]></name>"
+                + "</contact></contacts>";
+
+        ContactChunkScanner.Layout layout = scan(xml);
+
+        assertNotNull(layout);
+        assertArrayEquals(new long[]{xml.indexOf("<contact id=\"a>b\"")}, layout.contactStarts());
+    }
+
+    @Test
+    void testChunkBoundaries() throws Exception {
+        String xml = "<contacts><contact id=\"1\"/><contact id=\"2\"/><contact id=\"3\"/></contacts>";
+        ContactChunkScanner.Layout layout = scan(xml);
+
+        long[] single = layout.chunkBoundaries(Long.MAX_VALUE);
+        long[] perContact = layout.chunkBoundaries(1);
+
+        assertArrayEquals(new long[]{layout.rootContentStart(), layout.rootContentEnd()}, single);
+        assertEquals(4, perContact.length);
+        assertEquals(layout.rootContentStart(), perContact[0]);
+        assertEquals(layout.contactStarts()[1], perContact[1]);
+        assertEquals(layout.rootContentEnd(), perContact[3]);
+    }
+
+    @Test
+    void testDeclaredEncoding() throws Exception {
+        ContactChunkScanner.Layout layout = scan("\uFEFF<?xml version='1.0' encoding='latin1'?><contacts/>".replace("<contacts/>", "<contacts></contacts>"));
+
+        assertNotNull(layout);
+        assertEquals("ISO-8859-1", layout.encoding());
+        assertNull(scan("<?xml version=\"1.0\" encoding=\"UTF-16\"?><contacts></contacts>"));
+    }
+
+    @Test
+    void testUnsupportedLayoutsReturnNull() throws Exception {
+        assertNull(scan("<!DOCTYPE contacts [<!ENTITY n \"John\">]><contacts></contacts>"));
+        assertNull(scan("<people><contact/></people>"));
+        assertNull(scan("<contacts/>"));
+        assertNull(scan("<contacts><contact></contacts>"));
+        assertNull(scan("<contacts></contacts></contact>"));
+        assertNull(scan("<contacts></contacts>trailing"));
+        assertNull(scan("text<contacts></contacts>"));
+    }
+
+    private ContactChunkScanner.Layout scan(String xml) throws Exception {
+        return ContactChunkScanner.scan(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.exception.XmlParsingException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactParserMetricsTest {
+
+    private static final String NESTED_XML = """
+            <contacts>
+                <contact id="1">
+                    <name>John</name>
+                    <contact id="2">
+                        <name>Jane</name>
+                    </contact>
+                </contact>
+                <contact id="3">
+                    <name>Bob</name>
+                </contact>
+            </contacts>
+            """;
+
+    private SimpleMeterRegistry registry;
+    private ContactXmlParserService parserService;
+    private final List<ContactXmlParserService> parserServices = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (ContactXmlParserService tracked : parserServices) {
+            tracked.shutdown();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        parserService = track(new ContactXmlParserService(new ContactParserProperties(), registry));
+    }
+
+    @Test
+    void testContentParseRecordsLatencySizeContactsAndDepth() {
+        parserService.parseFromContent(NESTED_XML);
+
+        Timer timer = registry.get(ContactParserMetrics.PARSE_TIMER)
+                .tag("entryPoint", "content")
+                .tag("outcome", "success")
+                .timer();
+        assertEquals(1, timer.count());
+        assertEquals(NESTED_XML.length(), registry.get(ContactParserMetrics.INPUT_SIZE)
+                .tag("entryPoint", "content").summary().totalAmount());
+        assertEquals(3, registry.get(ContactParserMetrics.CONTACTS)
+                .tag("entryPoint", "content").counter().count());
+        assertEquals(2, registry.get(ContactParserMetrics.DEPTH)
+                .tag("entryPoint", "content").summary().max());
+    }
+
+    @Test
+    void testUploadParseCountsConsumedBytes() {
+        byte[] bytes = NESTED_XML.getBytes(StandardCharsets.UTF_8);
+
+        parserService.parseFromInputStream(new ByteArrayInputStream(bytes));
+
+        assertEquals(bytes.length, registry.get(ContactParserMetrics.INPUT_SIZE)
+                .tag("entryPoint", "upload").summary().totalAmount());
+        assertEquals(1, registry.get(ContactParserMetrics.PARSE_TIMER)
+                .tag("entryPoint", "upload").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testPathParseRecordsFileSize(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("contacts.xml");
+        Files.writeString(xmlFile, NESTED_XML);
+
+        parserService.parse(xmlFile.toString());
+        parserService.parseTable(xmlFile.toString());
+
+        assertEquals(2, registry.get(ContactParserMetrics.PARSE_TIMER)
+                .tag("entryPoint", "path").tag("outcome", "success").timer().count());
+        assertEquals(2 * Files.size(xmlFile), registry.get(ContactParserMetrics.INPUT_SIZE)
+                .tag("entryPoint", "path").summary().totalAmount());
+        assertEquals(6, registry.get(ContactParserMetrics.CONTACTS)
+                .tag("entryPoint", "path").counter().count());
+    }
+
+    @Test
+    void testFailuresAreCountedByErrorType() {
+        assertThrows(XmlParsingException.class, () -> parserService.parseFromContent("not xml"));
+        assertThrows(XmlParsingException.class, () -> parserService.parseFromContent("<contacts><contact></contacts>"));
+
+        assertEquals(1, registry.get(ContactParserMetrics.FAILURES)
+                .tag("entryPoint", "content").tag("errorType", "INVALID_XML_START").counter().count());
+        assertEquals(2, registry.get(ContactParserMetrics.PARSE_TIMER)
+                .tag("entryPoint", "content").tag("outcome", "failure").timer().count());
+        assertEquals(0, registry.get(ContactParserMetrics.CONTACTS)
+                .tag("entryPoint", "content").counter().count());
+    }
+
+    @Test
+    void testServicesSharingARegistryRegisterMetersOnce() {
+        ContactXmlParserService second = track(new ContactXmlParserService(new ContactParserProperties(), registry));
+        assertThrows(XmlParsingException.class, () -> parserService.parseFromContent("not xml"));
+        assertThrows(XmlParsingException.class, () -> second.parseFromContent("not xml"));
+        assertThrows(XmlParsingException.class, () -> second.parseFromContent("still not xml"));
+
+        assertEquals(1, registry.find("contactparser.sax.pool.idle").gauges().size());
+        assertEquals(3, registry.get(ContactParserMetrics.FAILURES)
+                .tag("entryPoint", "content").tag("errorType", "INVALID_XML_START").counter().count());
+    }
+
+    @Test
+    void testMissingFileIsCountedAsFailure() {
+        assertThrows(FileNotFoundException.class, () -> parserService.parse("/nonexistent/contacts.xml"));
+
+        assertEquals(1, registry.get(ContactParserMetrics.FAILURES)
+                .tag("entryPoint", "path").tag("errorType", "FILE_NOT_FOUND").counter().count());
+    }
+
+    @Test
+    void testContentCacheHitsSkipTheParseTimerButCountContacts() {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getContentCache().setEnabled(true);
+        parserService = track(new ContactXmlParserService(properties, registry));
+
+        parserService.parseFromContent(NESTED_XML);
+        parserService.parseFromContent(NESTED_XML);
+
+        assertEquals(1, registry.get(ContactParserMetrics.PARSE_TIMER)
+                .tag("entryPoint", "content").tag("outcome", "success").timer().count());
+        assertEquals(6, registry.get(ContactParserMetrics.CONTACTS)
+                .tag("entryPoint", "content").counter().count());
+        assertEquals(2, registry.get(ContactParserMetrics.DEPTH)
+                .tag("entryPoint", "content").summary().count());
+        assertEquals(1, registry.get("contactparser.content.cache.hits").functionCounter().count());
+        assertEquals(1, registry.get("contactparser.content.cache.misses").functionCounter().count());
+    }
+
+    @Test
+    void testSaxPoolMetersFollowPoolStats() {
+        parserService.parseFromContent(NESTED_XML);
+        parserService.parseFromContent(NESTED_XML.trim());
+
+        assertEquals(2, registry.get("contactparser.sax.pool.borrows").functionCounter().count());
+        assertEquals(1, registry.get("contactparser.sax.pool.misses").functionCounter().count());
+        assertEquals(1, registry.get("contactparser.sax.pool.idle").gauge().value());
+    }
+
+    private ContactXmlParserService track(ContactXmlParserService parserService) {
+        parserServices.add(parserService);
+        return parserService;
+    }
+}
@@ -1,27 +1,65 @@
 package com.example.contactparser.service;
 
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.exception.XmlParsingException;
 import com.example.contactparser.model.Contact;
+import com.example.contactparser.handler.ContactProjection;
+import com.example.contactparser.handler.ParseBudget;
+import com.example.contactparser.handler.StringDictionary;
+import com.example.contactparser.model.ContactTable;
+import com.example.contactparser.model.ParseResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class ContactXmlParserServiceTest {
 
+    private static final String NESTED_CONTACTS_XML = """
+            <contacts>
+                <contact id="1">
+                    <name>John</name>
+                    <contact id="2"><name>Jane</name><lastName>DOE</lastName></contact>
+                </contact>
+                <contact id="3"><name>Jim</name></contact>
+            </contacts>
+            """;
+
     private ContactXmlParserService service;
+    private final List<ContactXmlParserService> parserServices = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (ContactXmlParserService tracked : parserServices) {
+            tracked.shutdown();
+        }
+    }
 
     @BeforeEach
     void setUp() {
-        service = new ContactXmlParserService();
+        service = track(new ContactXmlParserService());
     }
 
     @Test
@@ -252,4 +290,756 @@ class ContactXmlParserServiceTest {
         assertEquals(1, contacts.size());
         assertTrue(contacts.get(0).getContacts().isEmpty());
     }
+
+    @Test
+    void testStaxEngineMatchesSaxEngine(@TempDir Path tempDir) throws Exception {
+        String xmlContent = """
+                <contacts>
+                    <contact id="1">
+                        <name>David</name>
+                        <lastName>FRALEY</lastName>
+                        <contacts>
+                            <contact id="2">
+                                <name>Mary</name>
+                                <lastName>JANE</lastName>
+                            </contact>
+                        </contacts>
+                    </contact>
+                    <contact id="3">
+                        <name>  John  </name>
+                        <lastName>DOE</lastName>
+                    </contact>
+                </contacts>
+                """;
+        Path xmlFile = tempDir.resolve("test.xml");
+        Files.writeString(xmlFile, xmlContent);
+
+        String expected = service.parseFromContent(xmlContent, ParserEngine.SAX).toString();
+
+        assertEquals(expected, service.parseFromContent(xmlContent, ParserEngine.STAX).toString());
+        assertEquals(expected, service.parse(xmlFile.toString(), ParserEngine.STAX).toString());
+        try (InputStream inputStream = Files.newInputStream(xmlFile)) {
+            assertEquals(expected, service.parseFromInputStream(inputStream, ParserEngine.STAX).toString());
+        }
+    }
+
+    @Test
+    void testStaxEngineMalformedReportsLocation() {
+        String malformedXml = "<contacts>\n<contact id=\"1\">\n<name>John</contact>\n</contacts>";
+
+        XmlParsingException exception = assertThrows(XmlParsingException.class, () ->
+                service.parseFromContent(malformedXml, ParserEngine.STAX));
+
+        assertEquals(3, exception.getLineNumber());
+        assertNotNull(exception.getColumnNumber());
+        assertTrue(exception.getMessage().startsWith("XML Format Error"));
+    }
+
+    @Test
+    void testDefaultEngineFromProperties() {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.setEngine(ParserEngine.STAX);
+
+        ContactXmlParserService staxService = track(new ContactXmlParserService(properties));
+
+        assertEquals(ParserEngine.STAX, staxService.getDefaultEngine());
+        assertEquals(1, staxService.parseFromContent("<contacts><contact id=\"1\"/></contacts>").size());
+    }
+
+    @Test
+    void testStreamFromContentEmitsRootContactsWithoutRetainingThem() {
+        String xmlContent = """
+                <contacts>
+                    <contact id="1">
+                        <name>David</name>
+                        <contacts>
+                            <contact id="2">
+                                <name>Mary</name>
+                            </contact>
+                        </contacts>
+                    </contact>
+                    <contact id="3">
+                        <name>John</name>
+                    </contact>
+                </contacts>
+                """;
+        List<Contact> emitted = new java.util.ArrayList<>();
+
+        int count = service.streamFromContent(xmlContent, emitted::add);
+
+        assertEquals(2, count);
+        assertEquals(2, emitted.size());
+        assertEquals("1", emitted.get(0).getId());
+        assertEquals("Mary", emitted.get(0).getContacts().get(0).getName());
+        assertEquals("3", emitted.get(1).getId());
+    }
+
+    @Test
+    void testStreamFromInputStreamEmitsContactsBeforeError() {
+        String malformedXml = "<contacts><contact id=\"1\"/><contact id=\"2\"><name>x</contact></contacts>";
+        List<Contact> emitted = new java.util.ArrayList<>();
+
+        assertThrows(XmlParsingException.class, () ->
+                service.streamFromInputStream(new java.io.ByteArrayInputStream(malformedXml.getBytes()), emitted::add));
+
+        assertEquals(1, emitted.size());
+        assertEquals("1", emitted.get(0).getId());
+    }
+
+    @Test
+    void testParseTableMatchesContactTree(@TempDir Path tempDir) throws Exception {
+        String xmlContent = """
+                <contacts>
+                    <contact id="1">
+                        <name>David</name>
+                        <lastName>FRALEY</lastName>
+                        <contacts>
+                            <contact id="2">
+                                <name>  Mary  </name>
+                                <lastName>JANE</lastName>
+                                <contacts />
+                            </contact>
+                        </contacts>
+                    </contact>
+                    <contact id="3">
+                        <name>John</name>
+                    </contact>
+                </contacts>
+                """;
+        Path xmlFile = tempDir.resolve("test.xml");
+        Files.writeString(xmlFile, xmlContent);
+
+        String expected = service.parseFromContent(xmlContent).toString();
+        ContactTable table = service.parseTableFromContent(xmlContent);
+
+        assertEquals(3, table.size());
+        assertEquals(2, table.getRootCount());
+        assertEquals(expected, table.getRootContacts().toString());
+        assertEquals(expected, service.parseTable(xmlFile.toString()).getRootContacts().toString());
+        try (InputStream inputStream = Files.newInputStream(xmlFile)) {
+            assertEquals(expected, service.parseTableFromInputStream(inputStream).getRootContacts().toString());
+        }
+    }
+
+    @Test
+    void testParseDeduplicatesRepeatedValues() {
+        String xmlContent = """
+                <contacts>
+                    <contact id="1">
+                        <name>John</name>
+                        <lastName>DOE</lastName>
+                    </contact>
+                    <contact id="2">
+                        <name>John</name>
+                        <lastName>SMITH</lastName>
+                    </contact>
+                    <contact id="1">
+                        <name>Jane</name>
+                        <lastName>DOE</lastName>
+                    </contact>
+                </contacts>
+                """;
+
+        ParseResult result = service.parseFromContent(xmlContent, new ParseOptions());
+        List<Contact> contacts = result.contacts();
+
+        assertEquals(3, result.getCount());
+        assertSame(contacts.get(0).getName(), contacts.get(1).getName());
+        assertSame(contacts.get(0).getLastName(), contacts.get(2).getLastName());
+        assertSame(contacts.get(0).getId(), contacts.get(2).getId());
+        assertEquals(9, result.stringLookups());
+        assertEquals(3, result.stringHits());
+        assertEquals(3.0 / 9, result.getDedupRatio(), 1e-9);
+    }
+
+    @Test
+    void testParseWithoutDeduplication() {
+        String xmlContent = "<contacts><contact><name>John</name></contact><contact><name>John</name></contact></contacts>";
+        ParseOptions options = new ParseOptions();
+        options.setDeduplicateStrings(false);
+
+        ParseResult result = service.parseFromContent(xmlContent, options);
+
+        assertNotSame(result.contacts().get(0).getName(), result.contacts().get(1).getName());
+        assertEquals(0, result.getDedupRatio());
+    }
+
+    @Test
+    void testSharedDictionaryAcrossParses() throws Exception {
+        StringDictionary dictionary = new StringDictionary(1024);
+        ParseOptions options = new ParseOptions();
+        options.setStringDictionary(dictionary);
+
+        ParseResult first = service.parseFromContent("<contacts><contact><name>John</name></contact></contacts>", options);
+        ParseResult second;
+        try (InputStream inputStream = new java.io.ByteArrayInputStream(
+                "<contacts><contact><name>John</name></contact></contacts>".getBytes())) {
+            second = service.parseFromInputStream(inputStream, options);
+        }
+
+        assertSame(first.contacts().get(0).getName(), second.contacts().get(0).getName());
+        assertEquals(0, first.stringHits());
+        assertEquals(1, second.stringHits());
+        assertEquals(1, dictionary.getStats().hits());
+    }
+
+    @Test
+    void testParallelParseMatchesSequentialParse(@TempDir Path tempDir) throws Exception {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<contacts>\n  <!-- export -->\n");
+        for (int i = 0; i < 500; i++) {
+            xml.append("  <contact id=\"").append(i).append("\">\n")
+                    .append("    <name>Name ").append(i % 7).append(" \u00e9</name>\n")
+                    .append("    <lastName><![CDATA[LAST").append(i).append("]]></lastName>\n");
+            if (i % 10 == 0) {
+                xml.append("    <contacts><contact id=\"c").append(i).append("\"><name>Kid</name></contact></contacts>\n");
+            }
+            xml.append("  </contact>\n");
+        }
+        xml.append("</contacts>\n");
+        Path xmlFile = tempDir.resolve("large.xml");
+        Files.writeString(xmlFile, xml);
+
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getParallel().setChunkSize(DataSize.ofBytes(1024));
+        ContactXmlParserService parallelService = track(new ContactXmlParserService(properties));
+        ParseOptions options = new ParseOptions();
+        options.setParallel(true);
+
+        List<Contact> sequential = service.parse(xmlFile.toString());
+        ParseResult parallel = parallelService.parse(xmlFile.toString(), options);
+        options.setEngine(ParserEngine.STAX);
+        ParseResult parallelStax = parallelService.parse(xmlFile.toString(), options);
+
+        assertEquals(500, parallel.getCount());
+        assertEquals(sequential.toString(), parallel.contacts().toString());
+        assertEquals(sequential.toString(), parallelStax.contacts().toString());
+    }
+
+    @Test
+    void testParallelParseReportsSequentialErrorLocation(@TempDir Path tempDir) throws Exception {
+        StringBuilder xml = new StringBuilder("<contacts>\n");
+        for (int i = 0; i < 200; i++) {
+            xml.append("<contact id=\"").append(i).append("\"><name>N").append(i).append("</name></contact>\n");
+        }
+        xml.append("<contact id=\"bad\"><name>Broken</nam></contact>\n</contacts>\n");
+        Path xmlFile = tempDir.resolve("broken.xml");
+        Files.writeString(xmlFile, xml);
+
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getParallel().setEnabled(true);
+        properties.getParallel().setMinFileSize(DataSize.ofBytes(0));
+        properties.getParallel().setChunkSize(DataSize.ofBytes(512));
+        ContactXmlParserService parallelService = track(new ContactXmlParserService(properties));
+
+        Exception sequential = assertThrows(Exception.class, () -> service.parse(xmlFile.toString()));
+        Exception parallel = assertThrows(Exception.class, () -> parallelService.parse(xmlFile.toString()));
+
+        assertEquals(sequential.getMessage(), parallel.getMessage());
+        assertTrue(parallel.getMessage().contains("Line 202"));
+    }
+
+    @Test
+    void testMappedInputMatchesStreamInput(@TempDir Path tempDir) throws Exception {
+        StringBuilder xml = new StringBuilder("<contacts>\n");
+        for (int i = 0; i < 100; i++) {
+            xml.append("<contact id=\"").append(i).append("\"><name>N\u00e9").append(i).append("</name></contact>\n");
+        }
+        xml.append("</contacts>\n");
+        Path xmlFile = tempDir.resolve("test.xml");
+        Files.writeString(xmlFile, xml);
+
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getMappedInput().setEnabled(true);
+        properties.getMappedInput().setWindowSize(DataSize.ofBytes(97));
+        ContactXmlParserService mappedService = track(new ContactXmlParserService(properties));
+
+        String expected = service.parse(xmlFile.toString()).toString();
+
+        assertEquals(expected, mappedService.parse(xmlFile.toString()).toString());
+        assertEquals(expected, mappedService.parse(xmlFile.toString(), ParserEngine.STAX).toString());
+
+        ParseOptions parallel = new ParseOptions();
+        parallel.setParallel(true);
+        properties.getParallel().setChunkSize(DataSize.ofBytes(256));
+        assertEquals(expected, mappedService.parse(xmlFile.toString(), parallel).contacts().toString());
+    }
+
+    @Test
+    void testMappedInputReportsErrorLocation(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("broken.xml");
+        Files.writeString(xmlFile, "<contacts>\n<contact id=\"1\">\n<name>John</contact>\n</contacts>");
+        ParseOptions options = new ParseOptions();
+        options.setMappedInput(true);
+
+        Exception exception = assertThrows(Exception.class, () -> service.parse(xmlFile.toString(), options));
+
+        assertTrue(exception.getMessage().contains("Line 3"));
+    }
+
+    @Test
+    void testRepeatedContentIsServedFromCache() {
+        ContactXmlParserService cachedService = contentCachedService();
+        String xmlContent = "<contacts><contact id=\"1\"><name>John</name>"
+                + "<contacts><contact id=\"2\"><name>Jane</name></contact></contacts></contact></contacts>";
+
+        List<Contact> first = cachedService.parseFromContent(xmlContent);
+        List<Contact> second = cachedService.parseFromContent(new String(xmlContent));
+
+        assertEquals(first.toString(), second.toString());
+        assertEquals("Jane", second.get(0).getContacts().get(0).getName());
+        ContentResultCache.Stats stats = cachedService.getContentCacheStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.entries());
+    }
+
+    @Test
+    void testCachedContactsAreMutableCopies() {
+        ContactXmlParserService cachedService = contentCachedService();
+        String xmlContent = "<contacts><contact id=\"1\"><name>John</name><lastName>Doe</lastName></contact>"
+                + "<contact id=\"2\"><name>John</name><lastName>Doe</lastName></contact></contacts>";
+
+        cachedService.parseFromContent(xmlContent);
+        List<Contact> hit = cachedService.parseFromContent(xmlContent);
+        hit.get(0).setName("Changed");
+        hit.get(0).addSubContact(new Contact("3"));
+
+        assertSame(hit.get(0).getLastName(), hit.get(1).getLastName());
+        List<Contact> again = cachedService.parseFromContent(xmlContent);
+        assertEquals("John", again.get(0).getName());
+        assertTrue(again.get(0).getContacts().isEmpty());
+        assertEquals(2, cachedService.getContentCacheStats().hits());
+    }
+
+    @Test
+    void testMalformedContentIsNotCached() {
+        ContactXmlParserService cachedService = contentCachedService();
+        String xmlContent = "<contacts><contact id=\"1\"></contacts>";
+
+        assertThrows(XmlParsingException.class, () -> cachedService.parseFromContent(xmlContent));
+        assertThrows(XmlParsingException.class, () -> cachedService.parseFromContent(xmlContent));
+
+        assertEquals(0, cachedService.getContentCacheStats().entries());
+    }
+
+    @Test
+    void testContentCacheIsOffByDefault() {
+        Contact contact = service.parseFromContent("<contacts><contact id=\"1\"/></contacts>").get(0);
+        contact.setName("Mutable");
+
+        assertEquals("Mutable", contact.getName());
+        assertNull(service.getContentCacheStats());
+    }
+
+    private ContactXmlParserService contentCachedService() {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getContentCache().setEnabled(true);
+        return track(new ContactXmlParserService(properties));
+    }
+
+    @Test
+    void testRepeatedPathParseIsServedFromCache(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("test.xml");
+        Files.writeString(xmlFile, "<contacts><contact id=\"1\"><name>John</name></contact></contacts>");
+
+        List<Contact> first = service.parse(xmlFile.toString());
+        List<Contact> second = service.parse(tempDir.resolve(".").resolve("test.xml").toString());
+
+        assertEquals(first.toString(), second.toString());
+        second.get(0).setName("Changed");
+        assertEquals("John", service.parse(xmlFile.toString()).get(0).getName());
+        FileResultCache.Stats stats = service.getFileCacheStats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void testParallelAndOversizedFilesBypassTheFileCache(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("test.xml");
+        StringBuilder xml = new StringBuilder("<contacts>\n");
+        for (int i = 0; i < 50; i++) {
+            xml.append("  <contact id=\"").append(i).append("\"><name>Name").append(i).append("</name></contact>\n");
+        }
+        Files.writeString(xmlFile, xml.append("</contacts>\n"));
+
+        ContactParserProperties parallelProperties = new ContactParserProperties();
+        parallelProperties.getParallel().setEnabled(true);
+        parallelProperties.getParallel().setMinFileSize(DataSize.ofBytes(1));
+        parallelProperties.getParallel().setChunkSize(DataSize.ofBytes(256));
+        ContactXmlParserService parallelService = track(new ContactXmlParserService(parallelProperties));
+        assertEquals(50, parallelService.parse(xmlFile.toString()).size());
+        assertEquals(0, parallelService.getFileCacheStats().misses());
+
+        ContactParserProperties smallCacheProperties = new ContactParserProperties();
+        smallCacheProperties.getFileCache().setMaxSize(DataSize.ofBytes(Files.size(xmlFile) - 1));
+        ContactXmlParserService smallCacheService = track(new ContactXmlParserService(smallCacheProperties));
+        assertEquals(50, smallCacheService.parse(xmlFile.toString()).size());
+        assertEquals(0, smallCacheService.getFileCacheStats().misses());
+    }
+
+    @Test
+    void testChangedFileIsParsedAgain(@TempDir Path tempDir) throws Exception {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getFileCache().setWatch(false);
+        ContactXmlParserService unwatchedService = track(new ContactXmlParserService(properties));
+        Path xmlFile = tempDir.resolve("test.xml");
+        Files.writeString(xmlFile, "<contacts><contact id=\"1\"><name>John</name></contact></contacts>");
+
+        assertEquals("John", unwatchedService.parse(xmlFile.toString()).get(0).getName());
+
+        Files.writeString(xmlFile, "<contacts><contact id=\"1\"><name>Jane</name></contact></contacts>");
+        Files.setLastModifiedTime(xmlFile, FileTime.fromMillis(Files.getLastModifiedTime(xmlFile).toMillis() + 1000));
+
+        assertEquals("Jane", unwatchedService.parse(xmlFile.toString()).get(0).getName());
+        assertEquals(1, unwatchedService.getFileCacheStats().invalidations());
+    }
+
+    @Test
+    void testGzipFileIsDecompressedWhileParsing(@TempDir Path tempDir) throws Exception {
+        Path gzipFile = tempDir.resolve("contacts.xml.gz");
+        Files.write(gzipFile, gzip(NESTED_CONTACTS_XML));
+
+        ParseOptions options = new ParseOptions();
+        options.setParallel(true);
+        options.setMappedInput(true);
+        ParseResult result = service.parse(gzipFile.toString(), options);
+
+        assertEquals(service.parseFromContent(NESTED_CONTACTS_XML).toString(), result.contacts().toString());
+        assertEquals(service.parseFromContent(NESTED_CONTACTS_XML).toString(), service.parse(gzipFile.toString()).toString());
+    }
+
+    @Test
+    void testCompressedStreamsAreDetectedByMagicBytes() throws Exception {
+        String expected = service.parseFromContent(NESTED_CONTACTS_XML).toString();
+
+        assertEquals(expected, service.parseFromInputStream(new ByteArrayInputStream(gzip(NESTED_CONTACTS_XML))).toString());
+        assertEquals(expected, service.parseFromInputStream(new ByteArrayInputStream(deflate(NESTED_CONTACTS_XML, false))).toString());
+    }
+
+    @Test
+    void testRawDeflateNeedsContentEncoding() {
+        byte[] raw = deflate(NESTED_CONTACTS_XML, true);
+
+        List<Contact> contacts = service.parseFromInputStream(new ByteArrayInputStream(raw), "deflate");
+
+        assertEquals(service.parseFromContent(NESTED_CONTACTS_XML).toString(), contacts.toString());
+        assertThrows(XmlParsingException.class, () -> service.parseFromInputStream(new ByteArrayInputStream(raw)));
+    }
+
+    @Test
+    void testCompressedInputErrors() throws Exception {
+        XmlParsingException unsupported = assertThrows(XmlParsingException.class, () ->
+                service.parseFromInputStream(new ByteArrayInputStream(NESTED_CONTACTS_XML.getBytes(StandardCharsets.UTF_8)), "br"));
+        assertEquals("UNSUPPORTED_CONTENT_ENCODING", unsupported.getErrorType());
+
+        byte[] compressed = gzip(NESTED_CONTACTS_XML);
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+        assertThrows(XmlParsingException.class, () -> service.parseFromInputStream(new ByteArrayInputStream(truncated)));
+
+        byte[] corruptHeader = compressed.clone();
+        corruptHeader[2] = 0;
+        XmlParsingException corrupt = assertThrows(XmlParsingException.class, () ->
+                service.parseFromInputStream(new ByteArrayInputStream(corruptHeader)));
+        assertEquals("IO_ERROR", corrupt.getErrorType());
+
+        XmlParsingException malformed = assertThrows(XmlParsingException.class, () ->
+                service.parseFromInputStream(new ByteArrayInputStream(gzip("<contacts><contact id=\"1\"></contacts>"))));
+        assertNotNull(malformed.getLineNumber());
+    }
+
+    @Test
+    void testProjectionAppliesToEveryInputPath(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("contacts.xml");
+        Files.writeString(xmlFile, NESTED_CONTACTS_XML);
+        ParseOptions options = new ParseOptions();
+        options.setMaxDepth(1);
+        options.setFields(EnumSet.of(ContactProjection.Field.NAME));
+        options.setIds(Set.of("1"));
+
+        ParseResult fromContent = service.parseFromContent(NESTED_CONTACTS_XML, options);
+        ParseResult fromStream = service.parseFromInputStream(
+                new ByteArrayInputStream(NESTED_CONTACTS_XML.getBytes(StandardCharsets.UTF_8)), options);
+        options.setParallel(true);
+        options.setEngine(ParserEngine.STAX);
+        ParseResult fromFile = service.parse(xmlFile.toString(), options);
+
+        assertEquals(1, fromContent.contactCount());
+        assertEquals("John", fromContent.contacts().get(0).getName());
+        assertTrue(fromContent.contacts().get(0).getContacts().isEmpty());
+        assertEquals(fromContent.contacts().toString(), fromStream.contacts().toString());
+        assertEquals(fromContent.contacts().toString(), fromFile.contacts().toString());
+    }
+
+    @Test
+    void testEmptyProjectionOptionsParseEverything() {
+        ParseResult result = service.parseFromContent(NESTED_CONTACTS_XML, new ParseOptions());
+
+        assertEquals(service.parseFromContent(NESTED_CONTACTS_XML).toString(), result.contacts().toString());
+    }
+
+    @Test
+    void testResourceLimitsApplyToEveryInputPath(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("contacts.xml");
+        Files.writeString(xmlFile, NESTED_CONTACTS_XML);
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getLimits().setMaxContacts(2);
+        ContactXmlParserService limited = track(new ContactXmlParserService(properties));
+
+        XmlParsingException fromContent = assertThrows(XmlParsingException.class,
+                () -> limited.parseFromContent(NESTED_CONTACTS_XML));
+        XmlParsingException fromStream = assertThrows(XmlParsingException.class, () -> limited.parseFromInputStream(
+                new ByteArrayInputStream(NESTED_CONTACTS_XML.getBytes(StandardCharsets.UTF_8))));
+        XmlParsingException fromFile = assertThrows(XmlParsingException.class, () -> limited.parse(xmlFile.toString()));
+        ParseOptions stax = new ParseOptions();
+        stax.setEngine(ParserEngine.STAX);
+        XmlParsingException fromStax = assertThrows(XmlParsingException.class,
+                () -> limited.parse(xmlFile.toString(), stax));
+
+        for (XmlParsingException exception : List.of(fromContent, fromStream, fromFile, fromStax)) {
+            assertEquals(ParseBudget.ERROR_TYPE, exception.getErrorType());
+            assertNotNull(exception.getLineNumber());
+        }
+    }
+
+    @Test
+    void testResourceLimitsAreOffByDefault() {
+        ContactParserProperties.Limits limits = new ContactParserProperties().getLimits();
+        StringBuilder deep = new StringBuilder("<contacts>");
+        deep.append("<contact>".repeat(1500)).append("<name>Deepest</name>").append("</contact>".repeat(1500));
+
+        List<Contact> contacts = service.parseFromContent(deep.append("</contacts>").toString());
+
+        assertEquals(0, limits.getMaxInputSize().toBytes());
+        assertEquals(0, limits.getMaxDepth());
+        assertEquals(0, limits.getMaxContacts());
+        assertEquals(0, limits.getMaxTextLength());
+        assertEquals(1, contacts.size());
+    }
+
+    @Test
+    void testContactLimitSkipsStreamedRoots(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = Files.writeString(tempDir.resolve("contacts.xml"), NESTED_CONTACTS_XML);
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getLimits().setMaxContacts(2);
+        ContactXmlParserService limited = track(new ContactXmlParserService(properties));
+        List<Contact> streamed = new ArrayList<>();
+
+        int fromFile = limited.stream(xmlFile.toString(), streamed::add);
+        int fromStream = limited.streamFromInputStream(
+                new ByteArrayInputStream(NESTED_CONTACTS_XML.getBytes(StandardCharsets.UTF_8)), streamed::add);
+        int fromContent = limited.streamFromContent(NESTED_CONTACTS_XML, streamed::add);
+
+        assertEquals(List.of(2, 2, 2), List.of(fromFile, fromStream, fromContent));
+        assertEquals(6, streamed.size());
+        assertThrows(XmlParsingException.class, () -> limited.parseFromContent(NESTED_CONTACTS_XML));
+    }
+
+    @Test
+    void testContactLimitIsSharedAcrossParallelChunks(@TempDir Path tempDir) throws Exception {
+        StringBuilder xml = new StringBuilder("<contacts>\n");
+        for (int i = 0; i < 300; i++) {
+            xml.append("<contact id=\"").append(i).append("\"><name>N").append(i).append("</name></contact>\n");
+        }
+        xml.append("</contacts>\n");
+        Path xmlFile = tempDir.resolve("large.xml");
+        Files.writeString(xmlFile, xml);
+
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getParallel().setChunkSize(DataSize.ofBytes(1024));
+        properties.getLimits().setMaxContacts(250);
+        ContactXmlParserService limited = track(new ContactXmlParserService(properties));
+        ParseOptions options = new ParseOptions();
+        options.setParallel(true);
+
+        XmlParsingException exception = assertThrows(XmlParsingException.class,
+                () -> limited.parse(xmlFile.toString(), options));
+        assertEquals(ParseBudget.ERROR_TYPE, exception.getErrorType());
+    }
+
+    @Test
+    void testParallelBudgetErrorsReportTheSequentialLocation(@TempDir Path tempDir) throws Exception {
+        StringBuilder xml = new StringBuilder("<contacts>\n");
+        for (int i = 0; i < 200; i++) {
+            xml.append("<contact id=\"").append(i).append("\"><name>N").append(i).append("</name></contact>\n");
+        }
+        xml.append("<contact id=\"deep\"><contact><contact><contact/></contact></contact></contact>\n</contacts>\n");
+        Path xmlFile = Files.writeString(tempDir.resolve("deep.xml"), xml);
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getParallel().setChunkSize(DataSize.ofBytes(512));
+        properties.getLimits().setMaxDepth(3);
+        ContactXmlParserService limited = track(new ContactXmlParserService(properties));
+        ParseOptions parallel = new ParseOptions();
+        parallel.setParallel(true);
+        ParseOptions sequential = new ParseOptions();
+        sequential.setParallel(false);
+
+        XmlParsingException expected = assertThrows(XmlParsingException.class,
+                () -> limited.parse(xmlFile.toString(), sequential));
+        XmlParsingException actual = assertThrows(XmlParsingException.class,
+                () -> limited.parse(xmlFile.toString(), parallel));
+
+        assertEquals(202, expected.getLineNumber());
+        assertEquals(expected.getLineNumber(), actual.getLineNumber());
+        assertEquals(expected.getColumnNumber(), actual.getColumnNumber());
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test
+    void testInputSizeLimitCountsDecompressedBytes(@TempDir Path tempDir) throws Exception {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getLimits().setMaxInputSize(DataSize.ofBytes(1000));
+        ContactXmlParserService limited = track(new ContactXmlParserService(properties));
+        String xml = "<contacts>" + "<contact id=\"1\"><name>John</name></contact>".repeat(50) + "</contacts>";
+        byte[] compressed = gzip(xml);
+        Path plainFile = tempDir.resolve("contacts.xml");
+        Files.writeString(plainFile, xml);
+        Path gzipFile = tempDir.resolve("contacts.xml.gz");
+        Files.write(gzipFile, compressed);
+
+        XmlParsingException fromStream = assertThrows(XmlParsingException.class,
+                () -> limited.parseFromInputStream(new ByteArrayInputStream(compressed)));
+        XmlParsingException fromContent = assertThrows(XmlParsingException.class,
+                () -> limited.parseFromContent(xml));
+        XmlParsingException fromFile = assertThrows(XmlParsingException.class, () -> limited.parse(plainFile.toString()));
+        XmlParsingException fromGzipFile = assertThrows(XmlParsingException.class, () -> limited.parse(gzipFile.toString()));
+
+        assertTrue(compressed.length < 1000);
+        for (XmlParsingException exception : List.of(fromStream, fromContent, fromFile, fromGzipFile)) {
+            assertEquals(ParseBudget.ERROR_TYPE, exception.getErrorType());
+            assertTrue(exception.getMessage().contains("input size is limited to 1000 bytes"));
+        }
+    }
+
+    @Test
+    void testSnapshotsReplaceXmlParsingUntilTheFileChanges(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("contacts.xml");
+        Files.writeString(xmlFile, NESTED_CONTACTS_XML);
+        Path snapshot = tempDir.resolve("contacts.xml.snapshot");
+        String expected = track(new ContactXmlParserService()).parse(xmlFile.toString()).toString();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ContactXmlParserService first = track(new ContactXmlParserService(snapshotProperties(), registry));
+        assertEquals(expected, first.parse(xmlFile.toString()).toString());
+        assertTrue(Files.exists(snapshot));
+
+        ContactXmlParserService restarted = track(new ContactXmlParserService(snapshotProperties(), registry));
+        assertEquals(expected, restarted.parse(xmlFile.toString(), ParserEngine.STAX).toString());
+
+        Files.writeString(xmlFile, "<contacts><contact id=\"9\"><name>New</name></contact></contacts>");
+        Files.setLastModifiedTime(xmlFile, FileTime.fromMillis(Files.getLastModifiedTime(snapshot).toMillis() + 60_000));
+        assertEquals("New", restarted.parse(xmlFile.toString()).get(0).getName());
+
+        Files.write(snapshot, "damaged".getBytes(StandardCharsets.US_ASCII));
+        assertEquals("New", track(new ContactXmlParserService(snapshotProperties(), registry)).parse(xmlFile.toString()).get(0).getName());
+
+        assertEquals(1, snapshotCount(registry, "missing"));
+        assertEquals(1, snapshotCount(registry, "loaded"));
+        assertEquals(1, snapshotCount(registry, "stale"));
+        assertEquals(1, snapshotCount(registry, "corrupt"));
+        assertEquals(3, snapshotCount(registry, "written"));
+        assertEquals(1, track(new ContactXmlParserService(snapshotProperties())).parse(xmlFile.toString()).size());
+    }
+
+    @Test
+    void testSnapshotsKeepTheParallelParseOfTheFirstLoad(@TempDir Path tempDir) throws Exception {
+        StringBuilder xml = new StringBuilder("<contacts>\n");
+        for (int i = 0; i < 100; i++) {
+            xml.append("  <contact id=\"").append(i).append("\"><name>Name").append(i).append("</name>")
+                    .append("<contact id=\"").append(i).append("-child\"><lastName>Kid</lastName></contact></contact>\n");
+        }
+        Path xmlFile = Files.writeString(tempDir.resolve("large.xml"), xml.append("</contacts>\n"));
+        String expected = service.parse(xmlFile.toString()).toString();
+        ContactParserProperties properties = snapshotProperties();
+        properties.getParallel().setEnabled(true);
+        properties.getParallel().setMinFileSize(DataSize.ofBytes(0));
+        properties.getParallel().setChunkSize(DataSize.ofBytes(1024));
+        List<ParseOptions> fullParses = new ArrayList<>();
+        ContactXmlParserService parallel = track(new ContactXmlParserService(properties) {
+            @Override
+            public ParseResult parse(String filePath, ParseOptions options) throws Exception {
+                fullParses.add(options);
+                return super.parse(filePath, options);
+            }
+        });
+
+        List<Contact> firstLoad = parallel.parse(xmlFile.toString());
+        List<Contact> snapshotLoad = parallel.parse(xmlFile.toString());
+
+        assertEquals(1, fullParses.size());
+        assertEquals(expected, firstLoad.toString());
+        assertEquals(expected, snapshotLoad.toString());
+        assertTrue(Files.exists(tempDir.resolve("large.xml.snapshot")));
+    }
+
+    @Test
+    void testUnwritableSnapshotFallsBackToXml(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("contacts.xml");
+        Files.writeString(xmlFile, NESTED_CONTACTS_XML);
+        ContactParserProperties properties = snapshotProperties();
+        properties.getSnapshots().setSuffix("/missing-directory/contacts.snapshot");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        List<Contact> contacts = track(new ContactXmlParserService(properties, registry)).parse(xmlFile.toString());
+
+        assertEquals(2, contacts.size());
+        assertEquals(1, snapshotCount(registry, "write_failed"));
+    }
+
+    @Test
+    void testRootElementCheckOnDecodedStreams() throws Exception {
+        ParseOptions options = new ParseOptions();
+        options.setCheckRootElement(true);
+        List<Contact> streamed = new ArrayList<>();
+
+        int count = service.streamFromInputStream(new ByteArrayInputStream(gzip(NESTED_CONTACTS_XML)), options, streamed::add);
+        XmlParsingException wrongRoot = assertThrows(XmlParsingException.class, () -> service.parseFromInputStream(
+                new ByteArrayInputStream(gzip("<people><contacts/></people>")), options));
+        XmlParsingException empty = assertThrows(XmlParsingException.class, () -> service.parseFromInputStream(
+                new ByteArrayInputStream(new byte[0]), options));
+
+        assertEquals(2, count);
+        assertEquals(service.parseFromContent(NESTED_CONTACTS_XML).toString(), streamed.toString());
+        assertEquals("MISSING_ROOT_ELEMENT", wrongRoot.getErrorType());
+        assertEquals("EMPTY_CONTENT", empty.getErrorType());
+        assertEquals(0, service.parseFromInputStream(
+                new ByteArrayInputStream("<people/>".getBytes(StandardCharsets.UTF_8)), new ParseOptions()).getCount());
+    }
+
+    private static ContactParserProperties snapshotProperties() {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getFileCache().setEnabled(false);
+        properties.getSnapshots().setEnabled(true);
+        return properties;
+    }
+
+    private static double snapshotCount(SimpleMeterRegistry registry, String outcome) {
+        var counter = registry.find(ContactParserMetrics.SNAPSHOTS).tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static byte[] gzip(String xml) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(xml.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(String xml, boolean raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        deflater.setInput(xml.getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    private ContactXmlParserService track(ContactXmlParserService parserService) {
+        parserServices.add(parserService);
+        return parserService;
+    }
 }
@@ -0,0 +1,93 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.model.ContactTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentResultCacheTest {
+
+    @Test
+    void testHitRequiresEqualContent() {
+        ContentResultCache cache = new ContentResultCache(1024 * 1024);
+        ContactTable table = table("1");
+
+        cache.put(ContentResultCache.keyOf("<contacts/>"), table);
+
+        assertSame(table, cache.get(ContentResultCache.keyOf(new String("<contacts/>"))));
+        assertNull(cache.get(ContentResultCache.keyOf("<contacts />")));
+        ContentResultCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.getHitRatio());
+    }
+
+    @Test
+    void testKeyCoversContentLongerThanOneDigestChunk() {
+        String content = "<contacts>" + "<contact id=\"1\"/>".repeat(1000) + "</contacts>";
+        String changedAtEnd = content.substring(0, content.length() - 1) + "!";
+
+        assertEquals(ContentResultCache.keyOf(content), ContentResultCache.keyOf(new String(content)));
+        assertNotEquals(ContentResultCache.keyOf(content), ContentResultCache.keyOf(changedAtEnd));
+        assertNotEquals(ContentResultCache.keyOf(""), ContentResultCache.keyOf("\u0000"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvictedWhenOverBudget() {
+        ContactTable table = table("1");
+        long entryBytes = weightOf("a", table);
+        ContentResultCache cache = new ContentResultCache(2 * entryBytes);
+
+        cache.put("a", table);
+        cache.put("b", table("1"));
+        cache.get("a");
+        cache.put("c", table("1"));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        ContentResultCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.entries());
+        assertEquals(1, stats.evictions());
+        assertTrue(stats.bytes() <= stats.maxBytes());
+    }
+
+    @Test
+    void testEntriesLargerThanBudgetAreNotCached() {
+        ContentResultCache cache = new ContentResultCache(64);
+
+        cache.put(ContentResultCache.keyOf("x".repeat(100)), table("1"));
+
+        assertEquals(0, cache.getStats().entries());
+        assertEquals(0, cache.getStats().bytes());
+    }
+
+    @Test
+    void testReplacingContentKeepsByteAccountingExact() {
+        ContentResultCache cache = new ContentResultCache(1024 * 1024);
+        ContactTable table = table("1");
+
+        cache.put("a", table);
+        long bytes = cache.getStats().bytes();
+        cache.put("a", table);
+
+        assertEquals(bytes, cache.getStats().bytes());
+        assertEquals(1, cache.getStats().entries());
+
+        cache.clear();
+        assertEquals(0, cache.getStats().bytes());
+    }
+
+    private static ContactTable table(String id) {
+        ContactTable table = new ContactTable();
+        int row = table.addContact(ContactTable.NO_VALUE, table.addString(id));
+        table.endContact(row);
+        return table;
+    }
+
+    private static long weightOf(String content, ContactTable table) {
+        ContentResultCache probe = new ContentResultCache(Long.MAX_VALUE);
+        probe.put(content, table);
+        return probe.getStats().bytes();
+    }
+}
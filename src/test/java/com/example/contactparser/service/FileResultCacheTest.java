@@ -0,0 +1,97 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.model.ContactTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileResultCacheTest {
+
+    @Test
+    void testHitRequiresSameModificationTimeAndSize(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("contacts.xml");
+        FileTime modified = FileTime.fromMillis(1_000);
+        ContactTable table = table();
+
+        try (FileResultCache cache = new FileResultCache(1024 * 1024, false)) {
+            cache.put(file, modified, 10, table);
+
+            assertSame(table, cache.get(file, modified, 10));
+            assertNull(cache.get(file, modified, 11));
+            assertNull(cache.get(file, modified, 10));
+
+            FileResultCache.Stats stats = cache.getStats();
+            assertEquals(1, stats.hits());
+            assertEquals(2, stats.misses());
+            assertEquals(1, stats.invalidations());
+            assertEquals(0, stats.entries());
+            assertEquals(0, stats.bytes());
+        }
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvictedWhenOverBudget(@TempDir Path tempDir) throws Exception {
+        FileTime modified = FileTime.fromMillis(1_000);
+        long entryBytes;
+        try (FileResultCache probe = new FileResultCache(Long.MAX_VALUE, false)) {
+            probe.put(tempDir.resolve("probe.xml"), modified, 1, table());
+            entryBytes = probe.getStats().bytes();
+        }
+
+        try (FileResultCache cache = new FileResultCache(2 * entryBytes, false)) {
+            cache.put(tempDir.resolve("a.xml"), modified, 1, table());
+            cache.put(tempDir.resolve("b.xml"), modified, 1, table());
+            cache.get(tempDir.resolve("a.xml"), modified, 1);
+            cache.put(tempDir.resolve("c.xml"), modified, 1, table());
+
+            assertNotNull(cache.get(tempDir.resolve("a.xml"), modified, 1));
+            assertNull(cache.get(tempDir.resolve("b.xml"), modified, 1));
+            assertEquals(1, cache.getStats().evictions());
+        }
+    }
+
+    @Test
+    void testWatchServiceInvalidatesChangedFile(@TempDir Path tempDir) throws Exception {
+        Path file = Files.writeString(tempDir.resolve("contacts.xml"), "<contacts/>");
+
+        try (FileResultCache cache = new FileResultCache(1024 * 1024, true)) {
+            cache.put(file, Files.getLastModifiedTime(file), Files.size(file), table());
+            Files.writeString(file, "<contacts></contacts>");
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (cache.getStats().entries() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertEquals(0, cache.getStats().entries());
+            assertEquals(1, cache.getStats().invalidations());
+        }
+    }
+
+    @Test
+    void testWatcherStartsWithFirstEntryAndStopsOnClose(@TempDir Path tempDir) throws Exception {
+        Path file = Files.writeString(tempDir.resolve("contacts.xml"), "<contacts/>");
+        FileResultCache cache = new FileResultCache(1024 * 1024, true);
+
+        assertFalse(cache.isWatching());
+        cache.put(file, Files.getLastModifiedTime(file), Files.size(file), table());
+        assertTrue(cache.isWatching());
+
+        cache.close();
+        cache.put(tempDir.resolve("other.xml"), Files.getLastModifiedTime(file), Files.size(file), table());
+        assertEquals(2, cache.getStats().entries());
+    }
+
+    private static ContactTable table() {
+        ContactTable table = new ContactTable();
+        int row = table.addContact(ContactTable.NO_VALUE, table.addString("1"));
+        table.endContact(row);
+        return table;
+    }
+}
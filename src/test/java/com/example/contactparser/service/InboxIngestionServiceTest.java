@@ -0,0 +1,158 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InboxIngestionServiceTest {
+
+    private static final String XML = """
+            <contacts>
+                <contact id="1"><name>John</name>
+                    <contact id="2"><name>Jane</name></contact>
+                </contact>
+                <contact id="3"><name>Jim</name></contact>
+            </contacts>
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InboxIngestionService ingestionService;
+    private final List<ContactXmlParserService> parserServices = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (ingestionService != null) {
+            ingestionService.shutdown();
+        }
+        for (ContactXmlParserService tracked : parserServices) {
+            tracked.shutdown();
+        }
+    }
+
+    @Test
+    void testDroppedFileIsParsedAndMovedToProcessed(@TempDir Path inbox) throws Exception {
+        start(inbox);
+
+        Files.writeString(inbox.resolve("contacts.xml"), XML);
+        Path result = inbox.resolve("out/contacts.json");
+        await(() -> Files.exists(result) && Files.exists(inbox.resolve("processed/contacts.xml")));
+
+        JsonNode json = objectMapper.readTree(result.toFile());
+        assertTrue(json.get("success").asBoolean());
+        assertEquals("contacts.xml", json.get("source").asText());
+        assertEquals(2, json.get("count").asInt());
+        assertEquals("Jane", json.get("contacts").get(0).get("contacts").get(0).get("name").asText());
+        assertFalse(Files.exists(inbox.resolve("contacts.xml")));
+        assertFalse(Files.exists(inbox.resolve("out/contacts.json.part")));
+
+        InboxIngestionService.Stats stats = ingestionService.getStats();
+        assertEquals(1, stats.processed());
+        assertEquals(0, stats.failed());
+        assertEquals(2, stats.contacts());
+        assertEquals(XML.length(), stats.bytes());
+        assertEquals(1.0, meterRegistry.get("contactparser.ingest.files").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void testMalformedFileWritesErrorReportAndMovesToFailed(@TempDir Path inbox) throws Exception {
+        start(inbox);
+
+        Files.writeString(inbox.resolve("broken.xml"), "<contacts><contact id=\"1\"></contacts>");
+        Path report = inbox.resolve("out/broken.error.json");
+        await(() -> Files.exists(report) && Files.exists(inbox.resolve("failed/broken.xml")));
+
+        JsonNode json = objectMapper.readTree(report.toFile());
+        assertFalse(json.get("success").asBoolean());
+        assertEquals("XML_FORMAT_ERROR", json.get("errorType").asText());
+        assertTrue(json.has("lineNumber"));
+        assertFalse(Files.exists(inbox.resolve("out/broken.json")));
+        assertEquals(1, ingestionService.getStats().failed());
+    }
+
+    @Test
+    void testFailedMoveAfterPublishKeepsTheSuccessAndIsNotRetried(@TempDir Path inbox) throws Exception {
+        start(inbox);
+        Files.delete(inbox.resolve("processed"));
+        Files.writeString(inbox.resolve("processed"), "not a directory");
+
+        Files.writeString(inbox.resolve("contacts.xml"), XML);
+        await(() -> ingestionService.getStats().stranded() == 1);
+        Thread.sleep(600);
+
+        InboxIngestionService.Stats stats = ingestionService.getStats();
+        assertEquals(1, stats.processed());
+        assertEquals(0, stats.failed());
+        assertTrue(Files.exists(inbox.resolve("out/contacts.json")));
+        assertFalse(Files.exists(inbox.resolve("out/contacts.error.json")));
+        assertTrue(Files.exists(inbox.resolve("contacts.xml")));
+        assertEquals(1.0, meterRegistry.get("contactparser.ingest.move.failures").counter().count());
+    }
+
+    @Test
+    void testFilesPresentAtStartupAreIngestedAndOthersIgnored(@TempDir Path inbox) throws Exception {
+        Files.writeString(inbox.resolve("a.xml"), XML);
+        Files.writeString(inbox.resolve("b.xml"), XML);
+        Files.writeString(inbox.resolve("notes.txt"), "not xml");
+        start(inbox);
+
+        await(() -> ingestionService.getStats().processed() == 2 && ingestionService.getStats().backlog() == 0);
+
+        assertTrue(Files.exists(inbox.resolve("out/a.json")));
+        assertTrue(Files.exists(inbox.resolve("out/b.json")));
+        assertTrue(Files.exists(inbox.resolve("notes.txt")));
+        assertFalse(Files.exists(inbox.resolve("out/notes.json")));
+    }
+
+    @Test
+    void testMissingInboxIsRejected() {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getIngest().setEnabled(true);
+
+        assertThrows(IllegalStateException.class, () -> new InboxIngestionService(
+                track(new ContactXmlParserService()), objectMapper, properties, meterRegistry));
+    }
+
+    private void start(Path inbox) throws Exception {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getIngest().setEnabled(true);
+        properties.getIngest().setInbox(inbox);
+        properties.getIngest().setSettleTime(Duration.ofMillis(50));
+        properties.getIngest().setRescanInterval(Duration.ofMillis(200));
+        ingestionService = new InboxIngestionService(
+                track(new ContactXmlParserService()), objectMapper, properties, meterRegistry);
+        ingestionService.start();
+    }
+
+    private static void await(Check check) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!check.done()) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for inbox ingestion");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private interface Check {
+        boolean done() throws Exception;
+    }
+
+    private ContactXmlParserService track(ContactXmlParserService parserService) {
+        parserServices.add(parserService);
+        return parserService;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.contactparser.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileInputStreamTest {
+
+    @Test
+    void testReadsAcrossWindows(@TempDir Path tempDir) throws Exception {
+        String content = "<contacts><contact id=\"1\"/></contacts>";
+        Path file = tempDir.resolve("test.xml");
+        Files.writeString(file, content);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream in = new MappedFileInputStream(channel, 0, channel.size(), 7)) {
+            assertEquals(content, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void testReadsRegion(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("test.xml");
+        Files.writeString(file, "0123456789abcdef");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream in = new MappedFileInputStream(channel, 3, 13, 4)) {
+            assertEquals('3', in.read());
+            assertEquals(3, in.skip(3));
+            byte[] buffer = new byte[10];
+            assertEquals(4, in.read(buffer, 0, 10));
+            assertEquals("789a", new String(buffer, 0, 4, StandardCharsets.US_ASCII));
+            assertEquals("bc", new String(in.readAllBytes(), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void testEmptyRegion(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("empty.xml");
+        Files.writeString(file, "");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream in = new MappedFileInputStream(channel, 0, 0, 4)) {
+            assertEquals(-1, in.read());
+            assertEquals(-1, in.read(new byte[4], 0, 4));
+        }
+    }
+
+    @Test
+    void testInvalidWindowSize() {
+        assertThrows(IllegalArgumentException.class, () -> new MappedFileInputStream(null, 0, 0, 0));
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.handler.ParseBudget;
+import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ParseJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParseJobServiceTest {
+
+    private static final String XML = """
+            <contacts>
+                <contact id="1"><name>John</name></contact>
+                <contact id="2"><name>Jane</name></contact>
+            </contacts>
+            """;
+
+    private ParseJobService jobService;
+    private final List<ContactXmlParserService> parserServices = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+        for (ContactXmlParserService tracked : parserServices) {
+            tracked.shutdown();
+        }
+    }
+
+    @Test
+    void testPathJobCompletesWithContacts(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("contacts.xml");
+        Files.writeString(xmlFile, XML);
+        jobService = new ParseJobService(track(new ContactXmlParserService()), new ContactParserProperties());
+
+        ParseJob job = jobService.submitPath(xmlFile.toString());
+        awaitDone(job);
+
+        assertEquals(ParseJob.Status.COMPLETED, job.getStatus());
+        assertEquals(2, job.getContacts().size());
+        assertEquals("Jane", job.getContacts().get(1).getName());
+        assertEquals(2, job.getContactsParsed());
+        assertEquals(Files.size(xmlFile), job.getBytesRead());
+        assertSame(job, jobService.getJob(job.getId()));
+    }
+
+    @Test
+    void testUploadJobReportsBytesReadAndRemovesTempFile() throws Exception {
+        byte[] bytes = XML.getBytes(StandardCharsets.UTF_8);
+        jobService = new ParseJobService(track(new ContactXmlParserService()), new ContactParserProperties());
+
+        ParseJob job = jobService.submitUpload("contacts.xml", new ByteArrayInputStream(bytes));
+        awaitDone(job);
+
+        assertEquals(ParseJob.Status.COMPLETED, job.getStatus());
+        assertEquals("contacts.xml", job.getSource());
+        assertEquals(bytes.length, job.getTotalBytes());
+        assertEquals(bytes.length, job.getBytesRead());
+        assertEquals(2, job.getContacts().size());
+    }
+
+    @Test
+    void testMalformedUploadFailsWithErrorDetails() throws Exception {
+        jobService = new ParseJobService(track(new ContactXmlParserService()), new ContactParserProperties());
+
+        ParseJob job = jobService.submitUpload("bad.xml",
+                new ByteArrayInputStream("<contacts>\n<contact id=\"1\">\n</contacts>".getBytes(StandardCharsets.UTF_8)));
+        awaitDone(job);
+
+        assertEquals(ParseJob.Status.FAILED, job.getStatus());
+        assertNotNull(job.getErrorType());
+        assertEquals(3, job.getLineNumber());
+        assertNull(job.getContacts());
+    }
+
+    @Test
+    void testMalformedPathFailsWithErrorDetails(@TempDir Path tempDir) throws Exception {
+        jobService = new ParseJobService(track(new ContactXmlParserService()), new ContactParserProperties());
+        Path xmlFile = tempDir.resolve("bad.xml");
+        Files.writeString(xmlFile, "<contacts>\n<contact id=\"1\">\n</contacts>");
+
+        ParseJob job = jobService.submitPath(xmlFile.toString());
+        awaitDone(job);
+
+        assertEquals(ParseJob.Status.FAILED, job.getStatus());
+        assertEquals("XML_FORMAT_ERROR", job.getErrorType());
+        assertEquals(3, job.getLineNumber());
+        assertNotNull(job.getColumnNumber());
+        assertNull(job.getContacts());
+    }
+
+    @Test
+    void testProgressCountsNestedContacts(@TempDir Path tempDir) throws Exception {
+        String nested = "<contacts><contact id=\"1\"><contact id=\"2\"><contact id=\"3\"/></contact></contact>"
+                + "<contact id=\"4\"/></contacts>";
+        Path xmlFile = tempDir.resolve("nested.xml");
+        Files.writeString(xmlFile, nested);
+        jobService = new ParseJobService(track(new ContactXmlParserService()), new ContactParserProperties());
+
+        ParseJob pathJob = jobService.submitPath(xmlFile.toString());
+        ParseJob uploadJob = jobService.submitUpload("nested.xml",
+                new ByteArrayInputStream(nested.getBytes(StandardCharsets.UTF_8)));
+        awaitDone(pathJob);
+        awaitDone(uploadJob);
+
+        assertEquals(2, pathJob.getContacts().size());
+        assertEquals(4, pathJob.getContactsParsed());
+        assertEquals(4, uploadJob.getContactsParsed());
+    }
+
+    @Test
+    void testUploadJobDecodesContentEncoding() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(XML.getBytes(StandardCharsets.UTF_8));
+        }
+        jobService = new ParseJobService(track(new ContactXmlParserService()), new ContactParserProperties());
+
+        ParseJob job = jobService.submitUpload("contacts.xml.gz",
+                new ByteArrayInputStream(compressed.toByteArray()), "gzip");
+        awaitDone(job);
+
+        assertEquals(ParseJob.Status.COMPLETED, job.getStatus());
+        assertEquals(2, job.getContacts().size());
+        assertEquals(compressed.size(), job.getTotalBytes());
+        assertEquals(compressed.size(), job.getBytesRead());
+    }
+
+    @Test
+    void testJobsApplyTheContactLimitToTheContactsTheyKeep(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("contacts.xml");
+        Files.writeString(xmlFile, XML);
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getLimits().setMaxContacts(1);
+        jobService = new ParseJobService(track(new ContactXmlParserService(properties)), properties);
+
+        ParseJob pathJob = jobService.submitPath(xmlFile.toString());
+        ParseJob uploadJob = jobService.submitUpload("contacts.xml",
+                new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8)));
+        awaitDone(pathJob);
+        awaitDone(uploadJob);
+
+        assertEquals(ParseJob.Status.FAILED, pathJob.getStatus());
+        assertEquals(ParseBudget.ERROR_TYPE, pathJob.getErrorType());
+        assertEquals(ParseBudget.ERROR_TYPE, uploadJob.getErrorType());
+    }
+
+    @Test
+    void testSubmitPathRejectsMissingFile() {
+        jobService = new ParseJobService(track(new ContactXmlParserService()), new ContactParserProperties());
+
+        assertThrows(IllegalArgumentException.class, () -> jobService.submitPath("/nonexistent/contacts.xml"));
+    }
+
+    @Test
+    void testSubmitIsRejectedWhenQueueIsFull(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("contacts.xml");
+        Files.writeString(xmlFile, XML);
+        CountDownLatch release = new CountDownLatch(1);
+        ContactXmlParserService blockingService = track(new ContactXmlParserService() {
+            @Override
+            public int stream(String filePath, Consumer<Contact> rootContactConsumer) throws Exception {
+                release.await(5, TimeUnit.SECONDS);
+                return super.stream(filePath, rootContactConsumer);
+            }
+        });
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getJobs().setThreads(1);
+        properties.getJobs().setQueueCapacity(1);
+        jobService = new ParseJobService(blockingService, properties);
+
+        ParseJob running = jobService.submitPath(xmlFile.toString());
+        ParseJob queued = jobService.submitPath(xmlFile.toString());
+        assertThrows(RejectedExecutionException.class, () -> jobService.submitPath(xmlFile.toString()));
+
+        release.countDown();
+        awaitDone(running);
+        awaitDone(queued);
+        assertEquals(ParseJob.Status.COMPLETED, queued.getStatus());
+    }
+
+    @Test
+    void testFinishedJobsAreEvictedAfterTtl(@TempDir Path tempDir) throws Exception {
+        Path xmlFile = tempDir.resolve("contacts.xml");
+        Files.writeString(xmlFile, XML);
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getJobs().setResultTtl(Duration.ofMillis(50));
+        jobService = new ParseJobService(track(new ContactXmlParserService()), properties);
+
+        ParseJob job = jobService.submitPath(xmlFile.toString());
+        awaitDone(job);
+        Thread.sleep(100);
+
+        assertNull(jobService.getJob(job.getId()));
+    }
+
+    private static void awaitDone(ParseJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!job.isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isDone(), "job did not finish in time");
+    }
+
+    private ContactXmlParserService track(ContactXmlParserService parserService) {
+        parserServices.add(parserService);
+        return parserService;
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.config.ContactParserProperties;
+import com.example.contactparser.exception.XmlParsingException;
+import com.example.contactparser.model.Contact;
+import com.example.contactparser.model.ParseSession;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParseSessionServiceTest {
+
+    private ParseSessionService sessionService;
+    private final List<ContactXmlParserService> parserServices = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (sessionService != null) {
+            sessionService.shutdown();
+        }
+        for (ContactXmlParserService tracked : parserServices) {
+            tracked.shutdown();
+        }
+    }
+
+    @Test
+    void testCursorWalksThroughAllRootContacts() {
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), new ContactParserProperties());
+        ParseSession session = sessionService.createFromContent(contactsXml(25));
+
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ParseSessionService.Page page = sessionService.getPage(session.getId(), cursor, 10);
+            page.contacts().forEach(contact -> ids.add(contact.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(25, ids.size());
+        assertEquals("0", ids.get(0));
+        assertEquals("24", ids.get(24));
+        assertEquals(50, session.getContactCount());
+    }
+
+    @Test
+    void testPagesKeepNestedContacts() {
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), new ContactParserProperties());
+        ParseSession session = sessionService.createFromContent(contactsXml(3));
+
+        Contact second = sessionService.getPage(session.getId(), null, null).contacts().get(1);
+
+        assertEquals("Name1", second.getName());
+        assertEquals("1-child", second.getContacts().get(0).getId());
+    }
+
+    @Test
+    void testInvalidCursorsAndPageSizesAreRejected() {
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), new ContactParserProperties());
+        ParseSession first = sessionService.createFromContent(contactsXml(5));
+        ParseSession second = sessionService.createFromContent(contactsXml(5));
+        String foreignCursor = sessionService.getPage(first.getId(), null, 2).nextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> sessionService.getPage(second.getId(), foreignCursor, 2));
+        assertThrows(IllegalArgumentException.class, () -> sessionService.getPage(second.getId(), "not-a-cursor", 2));
+        assertThrows(IllegalArgumentException.class, () -> sessionService.getPage(second.getId(), null, 0));
+        assertThrows(IllegalArgumentException.class, () -> sessionService.getPage(second.getId(), null, 1001));
+    }
+
+    @Test
+    void testOversizedSessionIsRejected() {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getSessions().setMaxSessionSize(DataSize.ofBytes(512));
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), properties);
+
+        XmlParsingException exception = assertThrows(XmlParsingException.class,
+                () -> sessionService.createFromContent(contactsXml(100)));
+
+        assertEquals("SESSION_TOO_LARGE", exception.getErrorType());
+        assertEquals(0, sessionService.getSessionCount());
+    }
+
+    @Test
+    void testOversizedUploadStopsParsingOnceTheBudgetIsCrossed() {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getSessions().setStorage(SessionStorage.OFF_HEAP);
+        properties.getSessions().setMaxSessionSize(DataSize.ofKilobytes(4));
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), properties);
+        byte[] xml = contactsXml(20_000).getBytes(StandardCharsets.UTF_8);
+        CountingStream upload = new CountingStream(xml);
+
+        XmlParsingException exception = assertThrows(XmlParsingException.class,
+                () -> sessionService.createFromUpload("large.xml", upload));
+
+        assertEquals("SESSION_TOO_LARGE", exception.getErrorType());
+        assertTrue(upload.bytesRead < xml.length / 10, "read " + upload.bytesRead + " of " + xml.length + " bytes");
+        assertEquals(0, sessionService.getSessionCount());
+    }
+
+    @Test
+    void testTotalBudgetEvictsLeastRecentlyUsedSessions() {
+        ContactParserProperties properties = new ContactParserProperties();
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), properties);
+        long sessionBytes = sessionService.createFromContent(contactsXml(10)).getRetainedBytes();
+        sessionService.shutdown();
+        properties.getSessions().setMaxTotalSize(DataSize.ofBytes(sessionBytes * 2));
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), properties);
+
+        ParseSession first = sessionService.createFromContent(contactsXml(10));
+        ParseSession second = sessionService.createFromContent(contactsXml(10));
+        sessionService.getSession(first.getId());
+        ParseSession third = sessionService.createFromContent(contactsXml(10));
+
+        assertNotNull(sessionService.getSession(first.getId()));
+        assertNull(sessionService.getSession(second.getId()));
+        assertNotNull(sessionService.getSession(third.getId()));
+        assertEquals(sessionBytes * 2, sessionService.getTotalBytes());
+    }
+
+    @Test
+    void testIdleSessionsExpireAndCanBeDeleted() throws Exception {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getSessions().setTtl(Duration.ofMillis(50));
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), properties);
+        ParseSession expiring = sessionService.createFromContent(contactsXml(1));
+        ParseSession deleted = sessionService.createFromContent(contactsXml(1));
+
+        assertTrue(sessionService.delete(deleted.getId()));
+        assertFalse(sessionService.delete(deleted.getId()));
+        Thread.sleep(150);
+
+        assertNull(sessionService.getSession(expiring.getId()));
+        assertNull(sessionService.getPage(expiring.getId(), null, null));
+        assertEquals(0, sessionService.getTotalBytes());
+    }
+
+    @Test
+    void testPathSessionsReportParseErrors(@TempDir Path tempDir) throws Exception {
+        Path broken = tempDir.resolve("broken.xml");
+        Files.writeString(broken, "<contacts><contact id=\"1\"></contacts>");
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), new ContactParserProperties());
+
+        XmlParsingException exception = assertThrows(XmlParsingException.class,
+                () -> sessionService.createFromPath(broken.toString()));
+
+        assertNotNull(exception.getLineNumber());
+        assertThrows(FileNotFoundException.class,
+                () -> sessionService.createFromPath(tempDir.resolve("missing.xml").toString()));
+    }
+
+    @Test
+    void testOffHeapSessionsAreReleasedOnDelete() {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getSessions().setStorage(SessionStorage.OFF_HEAP);
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), properties);
+        ParseSession session = sessionService.createFromContent(contactsXml(5));
+
+        ParseSessionService.Page page = sessionService.getPage(session.getId(), null, 2);
+        ParseSessionService.SearchResult found = sessionService.search(
+                session.getId(), new ParseSessionService.Search("3-child", null, null), null);
+        Contact first = page.contacts().get(0);
+
+        assertTrue(session.getTable().isOffHeap());
+        assertEquals("Name0", first.getName());
+        assertEquals("Child", first.getContacts().get(0).getName());
+        assertEquals("Child", found.contacts().get(0).getName());
+
+        assertTrue(sessionService.delete(session.getId()));
+
+        assertTrue(session.isReleased());
+        assertEquals("Name0", first.getName());
+        assertEquals("Child", first.getContacts().get(0).getName());
+        assertEquals("Child", found.contacts().get(0).getName());
+        assertEquals(0, sessionService.getTotalBytes());
+    }
+
+    @Test
+    void testReadsRacingADeleteReturnCopiesOrNothing() throws Exception {
+        ContactParserProperties properties = new ContactParserProperties();
+        properties.getSessions().setStorage(SessionStorage.OFF_HEAP);
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), properties);
+        ObjectMapper mapper = new ObjectMapper();
+
+        ParseSession released = sessionService.createFromContent(contactsXml(3));
+        released.release();
+        assertNull(sessionService.getPage(released.getId(), null, 2));
+        assertNull(sessionService.search(released.getId(), new ParseSessionService.Search("1", null, null), null));
+
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 50; round++) {
+                ParseSession session = sessionService.createFromContent(contactsXml(200));
+                Future<String> page = readers.submit(() -> {
+                    ParseSessionService.Page result = sessionService.getPage(session.getId(), null, 100);
+                    return result == null ? null : mapper.writeValueAsString(result.contacts());
+                });
+                Future<String> search = readers.submit(() -> {
+                    ParseSessionService.SearchResult result = sessionService.search(
+                            session.getId(), new ParseSessionService.Search(null, "Name19", null), 100);
+                    return result == null ? null : mapper.writeValueAsString(result.contacts());
+                });
+                sessionService.delete(session.getId());
+
+                String pageJson = page.get();
+                String searchJson = search.get();
+                assertTrue(pageJson == null || pageJson.contains("\"Name99\""));
+                assertTrue(searchJson == null || searchJson.contains("\"Name199\""));
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSearchUsesIdAndNameIndexes() {
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), new ContactParserProperties());
+        ParseSession session = sessionService.createFromContent(contactsXml(25));
+
+        ParseSessionService.SearchResult byId = sessionService.search(
+                session.getId(), new ParseSessionService.Search("7-child", null, null), null);
+        ParseSessionService.SearchResult byName = sessionService.search(
+                session.getId(), new ParseSessionService.Search(null, "name1", null), 5);
+        ParseSessionService.SearchResult combined = sessionService.search(
+                session.getId(), new ParseSessionService.Search("12", "child", null), null);
+
+        assertEquals("Child", byId.contacts().get(0).getName());
+        assertFalse(byId.truncated());
+        assertEquals(List.of("Name1", "Name10", "Name11", "Name12", "Name13"),
+                byName.contacts().stream().map(Contact::getName).toList());
+        assertTrue(byName.truncated());
+        assertTrue(combined.contacts().isEmpty());
+        assertTrue(session.getRetainedBytes() > session.getTable().estimateRetainedBytes());
+    }
+
+    @Test
+    void testNameAndLastNameSearchWalksTheNarrowerIndex() {
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), new ContactParserProperties());
+        StringBuilder xml = new StringBuilder("<contacts>");
+        for (int i = 0; i < 20; i++) {
+            xml.append("<contact id=\"").append(i).append("\"><name>Name").append(i).append("</name>")
+                    .append("<lastName>Smith").append(19 - i).append("</lastName></contact>");
+        }
+        ParseSession session = sessionService.createFromContent(xml.append("</contacts>").toString());
+
+        ParseSessionService.SearchResult narrowName = sessionService.search(
+                session.getId(), new ParseSessionService.Search(null, "Name1", "Smith"), 3);
+        ParseSessionService.SearchResult narrowLastName = sessionService.search(
+                session.getId(), new ParseSessionService.Search(null, "Name", "Smith1"), 3);
+
+        // Results come back in the order of the index that was walked.
+        assertEquals(List.of("Name1", "Name10", "Name11"),
+                narrowName.contacts().stream().map(Contact::getName).toList());
+        assertEquals(List.of("Smith1", "Smith10", "Smith11"),
+                narrowLastName.contacts().stream().map(Contact::getLastName).toList());
+        assertTrue(narrowName.truncated());
+    }
+
+    @Test
+    void testInvalidSearchesAreRejected() {
+        sessionService = new ParseSessionService(track(new ContactXmlParserService()), new ContactParserProperties());
+        ParseSession session = sessionService.createFromContent(contactsXml(2));
+
+        assertThrows(IllegalArgumentException.class, () -> sessionService.search(
+                session.getId(), new ParseSessionService.Search(null, null, null), null));
+        assertThrows(IllegalArgumentException.class, () -> sessionService.search(
+                session.getId(), new ParseSessionService.Search("1", null, null), 0));
+        assertNull(sessionService.search("missing", new ParseSessionService.Search("1", null, null), null));
+    }
+
+    private static String contactsXml(int roots) {
+        StringBuilder xml = new StringBuilder("<contacts>");
+        for (int i = 0; i < roots; i++) {
+            xml.append("<contact id=\"").append(i).append("\"><name>Name").append(i).append("</name>")
+                    .append("<contact id=\"").append(i).append("-child\"><name>Child</name></contact>")
+                    .append("</contact>");
+        }
+        return xml.append("</contacts>").toString();
+    }
+
+    private ContactXmlParserService track(ContactXmlParserService parserService) {
+        parserServices.add(parserService);
+        return parserService;
+    }
+
+    private static final class CountingStream extends ByteArrayInputStream {
+
+        private long bytesRead;
+
+        private CountingStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] buffer, int offset, int length) {
+            int read = super.read(buffer, offset, length);
+            bytesRead += Math.max(0, read);
+            return read;
+        }
+    }
+}
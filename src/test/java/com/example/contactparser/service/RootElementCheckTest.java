@@ -0,0 +1,58 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.exception.XmlParsingException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RootElementCheckTest {
+
+    @Test
+    void testAcceptsContactsRootAfterProlog() throws Exception {
+        accept("<contacts/>");
+        accept("\uFEFF  <contacts id=\"x\">");
+        accept("<?xml version=\"1.0\"?>\n<!-- <other> -->\n<!DOCTYPE contacts [<!ENTITY x \"<y>\">]>\n<contacts>");
+    }
+
+    @Test
+    void testRejectsDocumentsTheContentChecksReject() {
+        assertEquals("EMPTY_CONTENT", reject(" \n\t").getErrorType());
+        assertEquals("INVALID_XML_START", reject("contacts").getErrorType());
+        assertEquals("MISSING_ROOT_ELEMENT", reject("<?xml version=\"1.0\"?><people><contacts/></people>").getErrorType());
+        assertEquals("MISSING_ROOT_ELEMENT", reject("<contactsList>").getErrorType());
+    }
+
+    @Test
+    void testUndecidedPrefixIsLeftToTheParser() throws Exception {
+        String longComment = "<!--" + "x".repeat(RootElementCheck.PREFIX_BYTES) + "--><people/>";
+        accept(longComment);
+        accept(" ".repeat(RootElementCheck.PREFIX_BYTES) + "<people/>");
+        accept("<?xml version=\"1.0\"?>text<people/>");
+
+        byte[] utf16 = "<people/>".getBytes(StandardCharsets.UTF_16LE);
+        assertEquals(utf16.length, RootElementCheck.check(new ByteArrayInputStream(utf16)).readAllBytes().length);
+    }
+
+    @Test
+    void testCheckedStreamStillReturnsEveryByte() throws Exception {
+        String xml = "<contacts>" + "<contact id=\"1\"/>".repeat(2000) + "</contacts>";
+
+        InputStream checked = RootElementCheck.check(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(xml, new String(checked.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private static void accept(String xml) throws Exception {
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(bytes, RootElementCheck.check(new ByteArrayInputStream(bytes)).readAllBytes());
+    }
+
+    private static XmlParsingException reject(String xml) {
+        return assertThrows(XmlParsingException.class,
+                () -> RootElementCheck.check(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.contactparser.service;
+
+import com.example.contactparser.handler.ContactSaxHandler;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.parsers.SAXParser;
+import java.io.StringReader;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaxParserPoolTest {
+
+    @Test
+    void testReleasedParserIsReused() throws Exception {
+        SaxParserPool pool = new SaxParserPool(2, Duration.ZERO);
+
+        SAXParser first = pool.borrow();
+        pool.release(first);
+        SAXParser second = pool.borrow();
+
+        assertSame(first, second);
+        SaxParserPool.Stats stats = pool.getStats();
+        assertEquals(2, stats.borrows());
+        assertEquals(1, stats.misses());
+        assertEquals(0, stats.idle());
+    }
+
+    @Test
+    void testReturnsBeyondMaxSizeAreDiscarded() throws Exception {
+        SaxParserPool pool = new SaxParserPool(1, Duration.ZERO);
+
+        SAXParser first = pool.borrow();
+        SAXParser second = pool.borrow();
+        pool.release(first);
+        pool.release(second);
+
+        SaxParserPool.Stats stats = pool.getStats();
+        assertEquals(1, stats.idle());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.discarded());
+    }
+
+    @Test
+    void testBorrowWaitsForReturnedParser() throws Exception {
+        SaxParserPool pool = new SaxParserPool(1, Duration.ofSeconds(5));
+        SAXParser parser = pool.borrow();
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+            pool.release(parser);
+        });
+        releaser.start();
+
+        assertSame(parser, pool.borrow());
+        releaser.join();
+        assertEquals(1, pool.getStats().misses());
+        assertTrue(pool.getStats().maxBorrowWaitNanos() >= Duration.ofMillis(40).toNanos());
+    }
+
+    @Test
+    void testParserIsUsableAfterFailedParse() throws Exception {
+        SaxParserPool pool = new SaxParserPool(1, Duration.ZERO);
+
+        SAXParser parser = pool.borrow();
+        assertThrows(SAXParseException.class, () ->
+                parser.parse(new InputSource(new StringReader("<contacts><contact>")), new ContactSaxHandler()));
+        pool.release(parser);
+
+        SAXParser reused = pool.borrow();
+        ContactSaxHandler handler = new ContactSaxHandler();
+        reused.parse(new InputSource(new StringReader("<contacts><contact id=\"1\"/></contacts>")), handler);
+
+        assertSame(parser, reused);
+        assertEquals(1, handler.getRootContacts().size());
+    }
+
+    @Test
+    void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SaxParserPool(0, Duration.ZERO));
+    }
+}